@@ -19,12 +19,24 @@ CREATE TABLE IF NOT EXISTS builds (
     repository_id BIGINT NOT NULL,
     status VARCHAR(50) NOT NULL,
     commit_sha VARCHAR(255) NOT NULL,
+    branch VARCHAR(255),
+    run_id BIGINT,
     started_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
     completed_at TIMESTAMP,
     CONSTRAINT fk_repository FOREIGN KEY (repository_id)
         REFERENCES repositories(id) ON DELETE CASCADE
 );
 
+-- Builds use a pooled id sequence (Hibernate allocationSize = 50) so inserts can be batched.
+-- Existing databases must run this once as well.
+ALTER SEQUENCE builds_id_seq INCREMENT BY 50;
+
+-- Added with branch filtering; existing rows keep a NULL branch
+ALTER TABLE builds ADD COLUMN IF NOT EXISTS branch VARCHAR(255);
+
+-- Added with the refresh of in-flight builds; builds recorded before it have no run ID
+ALTER TABLE builds ADD COLUMN IF NOT EXISTS run_id BIGINT;
+
 -- Create pipelines table (from original schema)
 CREATE TABLE IF NOT EXISTS pipelines (
     id BIGSERIAL PRIMARY KEY,
@@ -37,13 +49,76 @@ CREATE TABLE IF NOT EXISTS pipelines (
     updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
 );
 
+-- The ETag cache used to be keyed by the full request URL, leaving a row behind every time
+-- the sync's created>= watermark moved; it only holds validators, so it is recreated
+DO $$
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM information_schema.columns
+                   WHERE table_name = 'github_etag_cache' AND column_name = 'cache_key') THEN
+        DROP TABLE IF EXISTS github_etag_cache;
+    END IF;
+END $$;
+
+-- Create GitHub ETag cache table (conditional request validators, one row per repository endpoint)
+CREATE TABLE IF NOT EXISTS github_etag_cache (
+    cache_key VARCHAR(1000) PRIMARY KEY,
+    request_url VARCHAR(1000) NOT NULL,
+    etag VARCHAR(255),
+    last_modified VARCHAR(255),
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Create repository sync state table (per-repository high-water mark for incremental sync)
+CREATE TABLE IF NOT EXISTS repository_sync_state (
+    repository_id BIGINT PRIMARY KEY,
+    last_run_id BIGINT,
+    last_run_created_at TIMESTAMP,
+    last_synced_at TIMESTAMP,
+    next_poll_at TIMESTAMP,
+    poll_interval_ms BIGINT,
+    last_webhook_at TIMESTAMP,
+    consecutive_failures INTEGER NOT NULL DEFAULT 0,
+    lease_owner VARCHAR(100),
+    lease_expires_at TIMESTAMP
+);
+
+-- Added when webhook deliveries moved out of instance memory
+ALTER TABLE repository_sync_state ADD COLUMN IF NOT EXISTS last_webhook_at TIMESTAMP;
+
+-- Checkpoint of the historical backfill of each repository (see BackfillService)
+CREATE TABLE IF NOT EXISTS repository_backfill (
+    repository_id BIGINT PRIMARY KEY,
+    status VARCHAR(20) NOT NULL,
+    pages_completed INTEGER NOT NULL DEFAULT 0,
+    total_pages INTEGER,
+    runs_fetched BIGINT NOT NULL DEFAULT 0,
+    builds_inserted BIGINT NOT NULL DEFAULT 0,
+    last_error VARCHAR(1000),
+    started_at TIMESTAMP NOT NULL,
+    updated_at TIMESTAMP NOT NULL,
+    completed_at TIMESTAMP
+);
+
 -- Create indexes for better query performance
 CREATE INDEX IF NOT EXISTS idx_builds_repository_id ON builds(repository_id);
 CREATE INDEX IF NOT EXISTS idx_builds_status ON builds(status);
 CREATE INDEX IF NOT EXISTS idx_builds_commit_sha ON builds(commit_sha);
-CREATE INDEX IF NOT EXISTS idx_builds_started_at ON builds(started_at DESC);
+-- One build per commit: concurrent syncs, webhooks and backfills insert with ON CONFLICT on this
+-- index. Duplicates stored before it existed are removed first, keeping the newest build.
+DELETE FROM builds a USING builds b
+WHERE a.repository_id = b.repository_id AND a.commit_sha = b.commit_sha AND a.id < b.id;
+DROP INDEX IF EXISTS idx_builds_repository_commit_sha;
+CREATE UNIQUE INDEX IF NOT EXISTS idx_builds_repository_commit_sha_unique ON builds(repository_id, commit_sha);
+-- Keyset pagination of GET /api/builds/query walks these in (started_at, id) order
+DROP INDEX IF EXISTS idx_builds_started_at;
+CREATE INDEX IF NOT EXISTS idx_builds_started_at_id ON builds(started_at DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_builds_repository_started_at_id ON builds(repository_id, started_at DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_repository_sync_state_next_poll_at ON repository_sync_state(next_poll_at NULLS FIRST);
 CREATE INDEX IF NOT EXISTS idx_repositories_name ON repositories(name);
 CREATE INDEX IF NOT EXISTS idx_repositories_created_at ON repositories(created_at DESC);
+-- Webhook deliveries look repositories up by the lower-cased owner/repo at the end of github_url
+CREATE INDEX IF NOT EXISTS idx_repositories_github_owner_repo
+    ON repositories (lower(substring(regexp_replace(github_url, '(\.git)?/*$', ''), '[^/]+/[^/]+$')));
 CREATE INDEX IF NOT EXISTS idx_pipelines_status ON pipelines(status);
 
 -- Insert sample data for repositories
@@ -60,7 +135,8 @@ INSERT INTO builds (repository_id, status, commit_sha, started_at, completed_at)
     (1, 'IN_PROGRESS', 'c3d4e5f6g7h8i9j0k1l2m3n4o5p6q7r8s9t0u1v2', CURRENT_TIMESTAMP - INTERVAL '10 minutes', NULL),
     (2, 'SUCCESS', 'd4e5f6g7h8i9j0k1l2m3n4o5p6q7r8s9t0u1v2w3', CURRENT_TIMESTAMP - INTERVAL '3 hours', CURRENT_TIMESTAMP - INTERVAL '2 hours 45 minutes'),
     (2, 'FAILED', 'e5f6g7h8i9j0k1l2m3n4o5p6q7r8s9t0u1v2w3x4', CURRENT_TIMESTAMP - INTERVAL '30 minutes', CURRENT_TIMESTAMP - INTERVAL '20 minutes'),
-    (3, 'SUCCESS', 'f6g7h8i9j0k1l2m3n4o5p6q7r8s9t0u1v2w3x4y5', CURRENT_TIMESTAMP - INTERVAL '4 hours', CURRENT_TIMESTAMP - INTERVAL '3 hours 40 minutes');
+    (3, 'SUCCESS', 'f6g7h8i9j0k1l2m3n4o5p6q7r8s9t0u1v2w3x4y5', CURRENT_TIMESTAMP - INTERVAL '4 hours', CURRENT_TIMESTAMP - INTERVAL '3 hours 40 minutes')
+ON CONFLICT (repository_id, commit_sha) DO NOTHING;
 
 -- Insert sample data for pipelines
 INSERT INTO pipelines (name, description, repository, branch, status, created_at, updated_at) VALUES
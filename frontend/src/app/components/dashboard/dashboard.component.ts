@@ -1,9 +1,9 @@
-import { Component, OnInit, inject } from '@angular/core';
+import { Component, OnDestroy, OnInit, inject } from '@angular/core';
 import { CommonModule } from '@angular/common';
-import { interval } from 'rxjs';
-import { startWith, switchMap } from 'rxjs/operators';
+import { Subscription, interval } from 'rxjs';
+import { filter, retry, startWith, switchMap, take, tap } from 'rxjs/operators';
 import { ApiService } from '../../services/api.service';
-import { RepositoryWithLatestBuild } from '../../models/repository.model';
+import { Build, BuildEvent, RepositoryWithLatestBuild } from '../../models/repository.model';
 import { RepositoryCardComponent } from '../repository-card/repository-card.component';
 
 @Component({
@@ -13,7 +13,7 @@ import { RepositoryCardComponent } from '../repository-card/repository-card.comp
   templateUrl: './dashboard.component.html',
   styleUrls: ['./dashboard.component.css']
 })
-export class DashboardComponent implements OnInit {
+export class DashboardComponent implements OnInit, OnDestroy {
   private apiService = inject(ApiService);
 
   repositories: RepositoryWithLatestBuild[] = [];
@@ -22,12 +22,20 @@ export class DashboardComponent implements OnInit {
   lastUpdated: Date = new Date();
   autoRefresh = true;
   refreshInterval = 30000; // 30 seconds
+  liveUpdates = false; // Build events are streaming in; polling is paused meanwhile
+
+  private buildEvents?: Subscription;
 
   ngOnInit(): void {
+    this.setupLiveUpdates();
     this.loadData();
     this.setupAutoRefresh();
   }
 
+  ngOnDestroy(): void {
+    this.buildEvents?.unsubscribe();
+  }
+
   loadData(): void {
     this.loading = true;
     this.error = null;
@@ -50,6 +58,8 @@ export class DashboardComponent implements OnInit {
     interval(this.refreshInterval)
       .pipe(
         startWith(0),
+        // Only poll while the event stream is down
+        filter(() => !this.liveUpdates),
         switchMap(() => this.apiService.getRepositoriesWithLatestBuilds())
       )
       .subscribe({
@@ -65,8 +75,27 @@ export class DashboardComponent implements OnInit {
       });
   }
 
+  setupLiveUpdates(): void {
+    this.buildEvents = this.apiService.streamBuildEvents().pipe(
+      tap({
+        subscribe: () => this.liveUpdates = true,
+        error: () => this.liveUpdates = false
+      }),
+      // Fall back to polling, and try the stream again after a while
+      retry({ delay: this.refreshInterval })
+    ).subscribe(event => {
+      if (this.autoRefresh) {
+        this.applyBuildEvent(event);
+      }
+    });
+  }
+
   toggleAutoRefresh(): void {
     this.autoRefresh = !this.autoRefresh;
+    if (this.autoRefresh) {
+      // Catch up on the events ignored while paused
+      this.loadData();
+    }
   }
 
   manualRefresh(): void {
@@ -74,11 +103,21 @@ export class DashboardComponent implements OnInit {
   }
 
   triggerSync(): void {
-    this.apiService.triggerScheduledSync().subscribe({
-      next: (response) => {
-        console.log('Sync triggered:', response);
-        // Reload data after a short delay to allow sync to complete
-        setTimeout(() => this.loadData(), 2000);
+    this.apiService.triggerScheduledSync().pipe(
+      // Poll the queued job until it finishes, then reload
+      switchMap(job => interval(2000).pipe(
+        startWith(0),
+        switchMap(() => this.apiService.getSyncJob(job.jobId)),
+        filter(current => current.status === 'SUCCEEDED' || current.status === 'FAILED'),
+        take(1)
+      ))
+    ).subscribe({
+      next: (job) => {
+        console.log('Sync finished:', job);
+        if (job.status === 'FAILED') {
+          this.error = `Sync failed: ${job.message}`;
+        }
+        this.loadData();
       },
       error: (error) => {
         console.error('Sync error:', error);
@@ -87,6 +126,52 @@ export class DashboardComponent implements OnInit {
     });
   }
 
+  applyBuildEvent(event: BuildEvent): void {
+    const build = event.build;
+    const entry = build && this.repositories.find(repo => repo.repository.id === build.repositoryId);
+    if (event.type === 'RESET' || !build || !entry) {
+      // Missed events, or a repository added since the last load
+      if (!this.loading) {
+        this.loadData();
+      }
+      return;
+    }
+
+    const counts = entry.statusCounts;
+    if (event.type === 'CREATED') {
+      entry.totalBuilds = (entry.totalBuilds ?? 0) + 1;
+      if (counts) {
+        counts[build.status] = (counts[build.status] ?? 0) + 1;
+      }
+    } else if (event.type === 'UPDATED' && counts && event.previousStatus && event.previousStatus !== build.status) {
+      counts[event.previousStatus] = Math.max(0, (counts[event.previousStatus] ?? 0) - 1);
+      counts[build.status] = (counts[build.status] ?? 0) + 1;
+    } else if (event.type === 'DELETED') {
+      entry.totalBuilds = Math.max(0, (entry.totalBuilds ?? 0) - 1);
+      if (counts) {
+        counts[build.status] = Math.max(0, (counts[build.status] ?? 0) - 1);
+      }
+    }
+
+    if (event.type === 'DELETED') {
+      if (entry.latestBuild?.id === build.id) {
+        // The next latest build isn't known here
+        this.loadData();
+        return;
+      }
+    } else if (!entry.latestBuild || entry.latestBuild.id === build.id || this.isNewer(build, entry.latestBuild)) {
+      entry.latestBuild = build;
+    }
+    this.lastUpdated = new Date();
+  }
+
+  // Same order as the summary endpoint: latest start time, then highest ID
+  private isNewer(build: Build, other: Build): boolean {
+    const started = Date.parse(build.startedAt);
+    const otherStarted = Date.parse(other.startedAt);
+    return started > otherStarted || (started === otherStarted && build.id > other.id);
+  }
+
   getStatusCounts() {
     const counts = {
       success: 0,
@@ -11,20 +11,55 @@ export interface Build {
   repositoryName: string;
   status: BuildStatus;
   commitSha: string;
+  branch?: string;
   startedAt: string;
   completedAt?: string;
 }
 
+export interface BuildQuery {
+  repositoryId?: number;
+  status?: BuildStatus;
+  branch?: string;
+  from?: string;
+  to?: string;
+  cursor?: string;
+  size?: number;
+}
+
+export interface BuildPage {
+  builds: Build[];
+  size: number;
+  hasMore: boolean;
+  nextCursor?: string;
+}
+
 export type BuildStatus = 'PENDING' | 'IN_PROGRESS' | 'SUCCESS' | 'FAILED' | 'CANCELLED';
 
+// RESET: events were missed, reload instead of applying further events to stale data
+export interface BuildEvent {
+  type: 'CREATED' | 'UPDATED' | 'DELETED' | 'RESET';
+  previousStatus?: BuildStatus;
+  build?: Build;
+}
+
 export interface RepositoryWithLatestBuild {
   repository: Repository;
   latestBuild?: Build;
+  totalBuilds?: number;
+  statusCounts?: Record<BuildStatus, number>;
 }
 
-export interface SyncResponse {
-  success: boolean;
-  syncedCount: number;
-  message: string;
+export interface SyncJob {
+  jobId: string;
+  type: 'REPOSITORY' | 'ALL';
+  repositoryId?: number;
   repositoryName?: string;
+  status: 'QUEUED' | 'RUNNING' | 'SUCCEEDED' | 'FAILED';
+  syncedCount: number;
+  failedRepositories: number;
+  skippedRepositories: number;
+  message?: string;
+  submittedAt: string;
+  startedAt?: string;
+  completedAt?: string;
 }
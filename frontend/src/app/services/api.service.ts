@@ -1,8 +1,8 @@
 import { Injectable, inject } from '@angular/core';
-import { HttpClient } from '@angular/common/http';
-import { Observable, forkJoin, map, catchError, of } from 'rxjs';
+import { HttpClient, HttpParams } from '@angular/common/http';
+import { Observable, map } from 'rxjs';
 import { environment } from '../../environments/environment';
-import { Repository, Build, RepositoryWithLatestBuild, SyncResponse } from '../models/repository.model';
+import { Repository, Build, BuildEvent, BuildPage, BuildQuery, RepositoryWithLatestBuild, SyncJob } from '../models/repository.model';
 
 @Injectable({
   providedIn: 'root'
@@ -41,53 +41,60 @@ export class ApiService {
     return this.http.get<Build[]>(`${this.apiUrl}/builds/status/${status}`);
   }
 
-  syncBuilds(owner: string, repo: string, repositoryId: number): Observable<SyncResponse> {
-    return this.http.post<SyncResponse>(`${this.apiUrl}/builds/sync`, {
+  // One page of builds, newest first; pass the page's nextCursor back as cursor for the next one
+  queryBuilds(query: BuildQuery): Observable<BuildPage> {
+    let params = new HttpParams();
+    Object.entries(query).forEach(([key, value]) => {
+      if (value !== undefined && value !== null) {
+        params = params.set(key, String(value));
+      }
+    });
+    return this.http.get<BuildPage>(`${this.apiUrl}/builds/query`, { params });
+  }
+
+  // Builds created, updated and deleted, pushed by the server as they happen. The browser
+  // reconnects by itself and resumes after the last event; errors once it gives up (e.g. 503)
+  streamBuildEvents(repositoryId?: number): Observable<BuildEvent> {
+    const url = repositoryId !== undefined
+      ? `${this.apiUrl}/builds/stream?repositoryId=${repositoryId}`
+      : `${this.apiUrl}/builds/stream`;
+    return new Observable<BuildEvent>(subscriber => {
+      const source = new EventSource(url);
+      source.addEventListener('build', event => subscriber.next(JSON.parse((event as MessageEvent).data)));
+      source.addEventListener('reset', () => subscriber.next({ type: 'RESET' }));
+      source.onerror = () => {
+        if (source.readyState === EventSource.CLOSED) {
+          subscriber.error(new Error('Build event stream closed'));
+        }
+      };
+      return () => source.close();
+    });
+  }
+
+  // Sync endpoints queue a job (202) and return it; poll getSyncJob for the result
+  syncBuilds(owner: string, repo: string, repositoryId: number): Observable<SyncJob> {
+    return this.http.post<SyncJob>(`${this.apiUrl}/builds/sync`, {
       owner,
       repo,
       repositoryId
     });
   }
 
-  triggerScheduledSync(): Observable<any> {
-    return this.http.post(`${this.apiUrl}/scheduler/trigger-sync`, {});
+  triggerScheduledSync(): Observable<SyncJob> {
+    return this.http.post<SyncJob>(`${this.apiUrl}/scheduler/trigger-sync`, {});
   }
 
-  // Combined endpoint to get repositories with their latest builds
-  getRepositoriesWithLatestBuilds(): Observable<RepositoryWithLatestBuild[]> {
-    return this.getAllRepositories().pipe(
-      map(repositories => {
-        if (repositories.length === 0) {
-          return [];
-        }
+  getSyncJob(jobId: string): Observable<SyncJob> {
+    return this.http.get<SyncJob>(`${this.apiUrl}/scheduler/jobs/${jobId}`);
+  }
 
-        // Create observables for each repository's builds
-        const buildObservables = repositories.map(repo =>
-          this.getBuildsByRepository(repo.id).pipe(
-            map(builds => {
-              // Sort builds by startedAt descending and get the latest
-              const latestBuild = builds.sort((a, b) =>
-                new Date(b.startedAt).getTime() - new Date(a.startedAt).getTime()
-              )[0];
-
-              return {
-                repository: repo,
-                latestBuild: latestBuild
-              } as RepositoryWithLatestBuild;
-            }),
-            catchError(() => of({
-              repository: repo,
-              latestBuild: undefined
-            } as RepositoryWithLatestBuild))
-          )
-        );
-
-        // Wait for all build requests to complete
-        return forkJoin(buildObservables);
-      }),
-      map(observable => observable || [])
-    ).pipe(
-      map(results => results || [])
+  // Every repository with its latest build and build counts per status, in one request
+  getRepositoriesWithLatestBuilds(): Observable<RepositoryWithLatestBuild[]> {
+    return this.http.get<RepositoryWithLatestBuild[]>(`${this.apiUrl}/repositories/summary`).pipe(
+      map(summaries => summaries.map(summary => ({
+        ...summary,
+        latestBuild: summary.latestBuild ?? undefined
+      })))
     );
   }
 
@@ -96,6 +103,11 @@ export class ApiService {
     return this.http.get(`${this.apiUrl}/github/status/${owner}/${repo}`);
   }
 
+  // Latest status of many repositories ("owner/repo") in one request; failed lookups carry errorCode/error
+  getGitHubStatuses(repositories: string[]): Observable<any> {
+    return this.http.post(`${this.apiUrl}/github/status`, { repositories });
+  }
+
   getGitHubWorkflowRuns(owner: string, repo: string, perPage: number = 10): Observable<any> {
     return this.http.get(`${this.apiUrl}/github/runs/${owner}/${repo}?perPage=${perPage}`);
   }
@@ -0,0 +1,16 @@
+package com.peraton.cicd.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "build-events")
+@Data
+public class BuildEventsConfig {
+
+    private int bufferSize = 1000; // Recent events kept for clients resuming with Last-Event-ID
+    private long emitterTimeout = 1800000; // Streams are closed after this; EventSource reconnects and resumes
+    private long heartbeatInterval = 30000; // Comment line sent to idle streams so proxies keep them open
+    private int maxSubscribers = 1000; // Open streams per instance; further subscriptions are refused with 503
+}
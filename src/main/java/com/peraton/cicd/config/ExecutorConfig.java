@@ -0,0 +1,134 @@
+package com.peraton.cicd.config;
+
+import com.peraton.cicd.service.GitHubRequestContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class ExecutorConfig {
+
+    /**
+     * Bounded pool used by the scheduler to sync repositories concurrently.
+     * Pool size caps the number of in-flight GitHub calls per sync cycle, and
+     * its tasks issue GitHub requests with BACKGROUND priority.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor githubSyncExecutor(SchedulingConfig schedulingConfig) {
+        int parallelism = Math.max(1, schedulingConfig.getSyncParallelism());
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(parallelism);
+        executor.setMaxPoolSize(parallelism);
+        executor.setThreadNamePrefix("github-sync-");
+        executor.setTaskDecorator(GitHubRequestContext::background);
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Bounded pool that runs sync jobs submitted through the API, so a triggered
+     * sync never runs on the request thread. A full queue rejects new jobs, and
+     * its tasks issue GitHub requests with BACKGROUND priority.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor syncJobExecutor(SchedulingConfig schedulingConfig) {
+        SchedulingConfig.Jobs jobs = schedulingConfig.getJobs();
+        int parallelism = Math.max(1, jobs.getParallelism());
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(parallelism);
+        executor.setMaxPoolSize(parallelism);
+        executor.setQueueCapacity(Math.max(1, jobs.getQueueCapacity()));
+        executor.setThreadNamePrefix("sync-job-");
+        executor.setTaskDecorator(GitHubRequestContext::background);
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Runs historical backfills one at a time; each drives its own page fetches
+     * on githubBackfillExecutor. A full queue rejects new backfills.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor backfillExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(20);
+        executor.setThreadNamePrefix("backfill-");
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Bounded pool for backfill page fetches. Pool size caps the pages in flight,
+     * and its tasks issue GitHub requests with BACKGROUND priority.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor githubBackfillExecutor(GitHubApiConfig gitHubApiConfig) {
+        int parallelism = Math.max(1, gitHubApiConfig.getBackfill().getParallelism());
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(parallelism);
+        executor.setMaxPoolSize(parallelism);
+        executor.setThreadNamePrefix("github-backfill-");
+        executor.setTaskDecorator(GitHubRequestContext::background);
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Bounded pool for batched status lookups (/api/github/status). Its tasks keep
+     * the default INTERACTIVE priority; lookups beyond the queue are rejected.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor githubStatusExecutor(GitHubApiConfig gitHubApiConfig) {
+        GitHubApiConfig.Batch batch = gitHubApiConfig.getBatch();
+        int parallelism = Math.max(1, batch.getParallelism());
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(parallelism);
+        executor.setMaxPoolSize(parallelism);
+        executor.setQueueCapacity(Math.max(1, batch.getMaxRepositories()) * 4);
+        executor.setThreadNamePrefix("github-status-");
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Single-threaded queue for webhook deliveries, so events for the same run
+     * are applied in arrival order. A full queue rejects new deliveries.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor githubWebhookExecutor(GitHubWebhookConfig gitHubWebhookConfig) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(gitHubWebhookConfig.getQueueCapacity());
+        executor.setThreadNamePrefix("github-webhook-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Single thread that owns the build event buffer and the open event streams, so
+     * events are numbered and delivered in arrival order. The queue is unbounded:
+     * tasks are small, and events must not be dropped without a reset.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor buildEventExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setThreadNamePrefix("build-events-");
+        executor.initialize();
+        return executor;
+    }
+}
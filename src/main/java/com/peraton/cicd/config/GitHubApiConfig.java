@@ -4,6 +4,9 @@ import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.ArrayList;
+import java.util.List;
+
 @Configuration
 @ConfigurationProperties(prefix = "github.api")
 @Data
@@ -11,5 +14,90 @@ public class GitHubApiConfig {
 
     private String baseUrl;
     private String token;
-    private Integer timeout;
+    // Optional pool of tokens requests are spread across; overrides token when set
+    private List<String> tokens = new ArrayList<>();
+    private Integer timeout; // Read timeout in milliseconds
+    private Http http = new Http();
+    private RateLimit rateLimit = new RateLimit();
+    private Batch batch = new Batch();
+    private Cache cache = new Cache();
+    private Resilience resilience = new Resilience();
+    private GraphQl graphql = new GraphQl();
+    private Backfill backfill = new Backfill();
+
+    @Data
+    public static class Http {
+        // Pooled connections to the GitHub API; keep above scheduler.sync-parallelism
+        private int maxConnections = 20;
+        private int connectTimeout = 5000;
+        // Connections idle longer than this are closed before GitHub drops them
+        private long idleTimeout = 30000;
+        private long connectionTtl = 300000;
+    }
+
+    @Data
+    public static class RateLimit {
+        // Requests per window kept back for user-facing calls; background sync stops below this
+        private int interactiveReserve = 500;
+        // Background requests that may be sent back-to-back before pacing kicks in
+        private int backgroundBurst = 50;
+        private long maxBackgroundWaitMs = 30000;
+        private long maxInteractiveWaitMs = 2000;
+    }
+
+    @Data
+    public static class Batch {
+        // Repositories accepted by one batched status request
+        private int maxRepositories = 50;
+        // Concurrent GitHub calls across all batched status requests
+        private int parallelism = 8;
+        // Repositories still pending after this are reported as timed out
+        private long timeoutMs = 10000;
+    }
+
+    @Data
+    public static class Cache {
+        // Live lookups younger than this are served from memory; 0 disables the cache
+        private long ttlMs = 15000;
+        // Past the TTL, entries are still served this long while they refresh in the background
+        private long staleMs = 60000;
+        private int maxEntries = 1000;
+    }
+
+    @Data
+    public static class Resilience {
+        // Consecutive connection errors, timeouts or 5xx that open the circuit for the GitHub host
+        private int failureThreshold = 5;
+        private long openMs = 30000;
+        // Consecutive 403/404 (not rate limits) that open the circuit for a single repository
+        private int repositoryFailureThreshold = 3;
+        private long repositoryOpenMs = 600000;
+        // Attempts per GET, including the first; only connection errors and 500/502/503/504 are retried
+        private int maxAttempts = 3;
+        private long retryBaseDelayMs = 500;
+        private long retryMaxDelayMs = 4000;
+    }
+
+    @Data
+    public static class GraphQl {
+        // Batched status lookups use one GraphQL query per batch-size repositories instead of REST
+        private boolean enabled = false;
+        // Defaults to {base-url}/graphql
+        private String url;
+        // Up to 100 repositories cost a single GraphQL rate limit point
+        private int batchSize = 50;
+    }
+
+    @Data
+    public static class Backfill {
+        // Pages of workflow runs fetched concurrently; each window of pages is written in one transaction
+        private int parallelism = 4;
+        private int pageSize = 100;
+        // Upper bound on pages per backfill (100,000 runs at the default page size)
+        private int maxPages = 1000;
+        // Pause before retrying a window that ran out of rate limit budget
+        private long rateLimitPauseMs = 60000;
+        // A RUNNING backfill without progress for this long is presumed dead and may be taken over
+        private long staleAfterMs = 900000;
+    }
 }
@@ -0,0 +1,15 @@
+package com.peraton.cicd.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "github.webhook")
+@Data
+public class GitHubWebhookConfig {
+
+    private String secret; // Shared secret configured on the GitHub webhook; deliveries are rejected without it
+    private int queueCapacity = 1000; // Deliveries waiting to be applied before new ones are refused with 503
+    private long reconciliationInterval = 900000; // Poll interval for repositories that deliver webhooks
+}
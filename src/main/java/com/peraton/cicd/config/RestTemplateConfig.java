@@ -1,16 +1,43 @@
 package com.peraton.cicd.config;
 
+import com.peraton.cicd.exception.GitHubApiException;
+import com.peraton.cicd.service.GitHubCircuitBreaker;
+import com.peraton.cicd.service.GitHubCredentialPool;
+import com.peraton.cicd.service.GitHubRateLimitGovernor;
+import com.peraton.cicd.service.GitHubRequestContext;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
+import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
 
 @Configuration
+@Slf4j
 public class RestTemplateConfig {
 
+    private static final Set<Integer> RETRYABLE_STATUSES = Set.of(500, 502, 503, 504);
+
     @Bean
     public RestTemplate restTemplate(RestTemplateBuilder builder) {
         return builder
@@ -20,11 +47,53 @@ public class RestTemplateConfig {
     }
 
     @Bean
-    public RestTemplate githubRestTemplate(RestTemplateBuilder builder) {
+    public RestTemplate githubRestTemplate(RestTemplateBuilder builder,
+                                           CloseableHttpClient githubHttpClient,
+                                           GitHubApiConfig gitHubApiConfig,
+                                           GitHubCircuitBreaker circuitBreaker,
+                                           GitHubCredentialPool credentialPool,
+                                           GitHubRateLimitGovernor rateLimitGovernor) {
         return builder
-                .setConnectTimeout(Duration.ofSeconds(10))
-                .setReadTimeout(Duration.ofSeconds(10))
-                .additionalInterceptors(githubApiInterceptor())
+                .requestFactory(() -> new HttpComponentsClientHttpRequestFactory(githubHttpClient))
+                .additionalInterceptors(
+                        githubApiInterceptor(),
+                        resilienceInterceptor(gitHubApiConfig, circuitBreaker, credentialPool, rateLimitGovernor))
+                .build();
+    }
+
+    /**
+     * Pooled keep-alive client for the GitHub API. Connections are reused across
+     * calls and sync threads, so only the first request per connection pays for
+     * the TCP and TLS handshake. Responses are gzip-compressed and transparently
+     * decompressed. Retries are left to the application.
+     */
+    @Bean
+    public CloseableHttpClient githubHttpClient(GitHubApiConfig gitHubApiConfig) {
+        GitHubApiConfig.Http http = gitHubApiConfig.getHttp();
+        Timeout readTimeout = Timeout.ofMilliseconds(gitHubApiConfig.getTimeout() != null ? gitHubApiConfig.getTimeout() : 10000);
+        Timeout connectTimeout = Timeout.ofMilliseconds(http.getConnectTimeout());
+
+        PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(http.getMaxConnections())
+                // All calls go to a single host
+                .setMaxConnPerRoute(http.getMaxConnections())
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(connectTimeout)
+                        .setSocketTimeout(readTimeout)
+                        .setTimeToLive(TimeValue.ofMilliseconds(http.getConnectionTtl()))
+                        .setValidateAfterInactivity(TimeValue.ofSeconds(2))
+                        .build())
+                .build();
+
+        return HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(connectTimeout)
+                        .setResponseTimeout(readTimeout)
+                        .build())
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.ofMilliseconds(http.getIdleTimeout()))
+                .disableAutomaticRetries()
                 .build();
     }
 
@@ -35,4 +104,148 @@ public class RestTemplateConfig {
             return execution.execute(request, body);
         };
     }
+
+    /**
+     * Sends a request as one or more attempts. Each attempt passes the circuit breakers,
+     * is signed with a token from the pool and waits for that token's rate limit budget,
+     * so retries are paced, counted against the budget and recorded by the breakers like
+     * any other request.
+     *
+     * GETs that failed with a connection error or a transient 5xx are retried with
+     * equal-jitter exponential backoff, and never past the deadline of the current sync
+     * cycle. Other methods are not idempotent and are sent once.
+     */
+    private ClientHttpRequestInterceptor resilienceInterceptor(GitHubApiConfig gitHubApiConfig,
+                                                               GitHubCircuitBreaker circuitBreaker,
+                                                               GitHubCredentialPool credentialPool,
+                                                               GitHubRateLimitGovernor rateLimitGovernor) {
+        return (request, body, execution) -> {
+            // This is the last interceptor, so every execute() sends a fresh request
+            Attempt attempt = () -> withCircuitBreaker(request, circuitBreaker,
+                    () -> withCredential(request, credentialPool, rateLimitGovernor,
+                            () -> execution.execute(request, body)));
+
+            GitHubApiConfig.Resilience settings = gitHubApiConfig.getResilience();
+            if (request.getMethod() != HttpMethod.GET || settings.getMaxAttempts() <= 1) {
+                return attempt.execute();
+            }
+
+            for (int attemptNumber = 1; ; attemptNumber++) {
+                ClientHttpResponse response;
+                try {
+                    response = attempt.execute();
+                } catch (IOException e) {
+                    long delay = retryDelay(gitHubApiConfig, attemptNumber);
+                    if (delay < 0) {
+                        throw e;
+                    }
+                    log.debug("Retrying GET {} in {} ms after {}", request.getURI().getPath(), delay, e.toString());
+                    sleep(delay);
+                    continue;
+                }
+
+                int statusCode = response.getStatusCode().value();
+                long delay = RETRYABLE_STATUSES.contains(statusCode) ? retryDelay(gitHubApiConfig, attemptNumber) : -1;
+                if (delay < 0) {
+                    return response;
+                }
+                response.close();
+                log.debug("Retrying GET {} in {} ms after status {}", request.getURI().getPath(), delay, statusCode);
+                sleep(delay);
+            }
+        };
+    }
+
+    /**
+     * Fails fast while the circuit for the GitHub host or the target repository is open,
+     * or once the deadline of the current sync cycle has passed
+     */
+    private static ClientHttpResponse withCircuitBreaker(HttpRequest request, GitHubCircuitBreaker circuitBreaker,
+                                                         Attempt next) throws IOException {
+        if (GitHubRequestContext.deadlineExceeded()) {
+            throw new GitHubApiException("Sync cycle deadline exceeded", HttpStatus.GATEWAY_TIMEOUT.value());
+        }
+
+        circuitBreaker.beforeRequest(request.getURI());
+        boolean recorded = false;
+        try {
+            ClientHttpResponse response = next.execute();
+            circuitBreaker.onResponse(request.getURI(), response.getStatusCode().value(), isRateLimited(response));
+            recorded = true;
+            return response;
+        } catch (IOException e) {
+            circuitBreaker.onError(request.getURI());
+            recorded = true;
+            throw e;
+        } finally {
+            if (!recorded) {
+                circuitBreaker.onAborted(request.getURI());
+            }
+        }
+    }
+
+    /**
+     * Signs the request with a token from the pool, waits for that token's rate limit
+     * budget before it is sent and reports the rate limit headers back once the response
+     * arrives
+     */
+    private static ClientHttpResponse withCredential(HttpRequest request, GitHubCredentialPool credentialPool,
+                                                     GitHubRateLimitGovernor rateLimitGovernor,
+                                                     Attempt next) throws IOException {
+        String repositoryKey = GitHubCredentialPool.repositoryKey(request.getURI());
+        GitHubCredentialPool.Credential credential = credentialPool.acquire(repositoryKey);
+        String budgetKey = GitHubRateLimitGovernor.budgetKey(credential.id(), request.getURI());
+        int statusCode = 0;
+        try {
+            request.getHeaders().setBearerAuth(credential.token());
+            rateLimitGovernor.acquire(budgetKey);
+            ClientHttpResponse response = next.execute();
+            statusCode = response.getStatusCode().value();
+            rateLimitGovernor.onResponse(budgetKey, response.getHeaders(), statusCode);
+            return response;
+        } finally {
+            credentialPool.release(credential, request.getURI(), statusCode);
+        }
+    }
+
+    /**
+     * Backoff before the next attempt, or -1 if attempts are used up or the backoff plus
+     * the next attempt's read timeout would run past the deadline
+     */
+    private static long retryDelay(GitHubApiConfig gitHubApiConfig, int attempt) {
+        GitHubApiConfig.Resilience settings = gitHubApiConfig.getResilience();
+        if (attempt >= settings.getMaxAttempts()) {
+            return -1;
+        }
+        long backoff = Math.min(settings.getRetryMaxDelayMs(), settings.getRetryBaseDelayMs() << Math.min(attempt - 1, 20));
+        long delay = backoff / 2 + ThreadLocalRandom.current().nextLong(backoff / 2 + 1);
+
+        Duration remainingTime = GitHubRequestContext.remainingTime();
+        long readTimeout = gitHubApiConfig.getTimeout() != null ? gitHubApiConfig.getTimeout() : 10000;
+        if (remainingTime != null && remainingTime.toMillis() <= delay + readTimeout) {
+            return -1;
+        }
+        return delay;
+    }
+
+    private static boolean isRateLimited(ClientHttpResponse response) throws IOException {
+        HttpHeaders headers = response.getHeaders();
+        return response.getStatusCode().value() == HttpStatus.TOO_MANY_REQUESTS.value()
+                || headers.containsKey(HttpHeaders.RETRY_AFTER)
+                || "0".equals(headers.getFirst("X-RateLimit-Remaining"));
+    }
+
+    private static void sleep(long millis) throws IOException {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting to retry GitHub request");
+        }
+    }
+
+    @FunctionalInterface
+    private interface Attempt {
+        ClientHttpResponse execute() throws IOException;
+    }
 }
@@ -14,8 +14,40 @@ public class SchedulingConfig {
 
     private boolean enabled = true;
     private String githubSyncCron = "0 */5 * * * *"; // Every 5 minutes
+    private int syncParallelism = 8; // Max repositories synced concurrently
+    private long githubSyncRate = 300000; // Poll interval for repositories that are neither active nor idle
+    private long syncDeadline = 120000; // Time budget of one sync cycle; repositories not reached are deferred
+    private long statusRefreshMaxAge = 172800000; // In-flight builds started longer ago than this are cancelled, not refreshed
+    private String instanceId; // Lease owner in repository_sync_state; defaults to hostname plus a random suffix
+    private Polling polling = new Polling();
+    private Jobs jobs = new Jobs();
+    private Lease lease = new Lease();
     private List<MonitoredRepository> repositories = new ArrayList<>();
 
+    @Data
+    public static class Polling {
+        private long tickRate = 15000; // How often due repositories are checked
+        private long activeInterval = 60000; // Poll interval while a repository has recent or running builds
+        private long activeWindow = 3600000; // A run newer than this keeps a repository active
+        private long idleAfter = 86400000; // No runs for this long and the interval starts to decay
+        private long idleInterval = 1800000; // Upper bound for the decayed interval
+        private long maxBackoff = 3600000; // Upper bound for the retry delay of failing repositories
+        private double jitter = 0.1; // Random spread applied to every interval
+    }
+
+    @Data
+    public static class Lease {
+        private long duration = 300000; // A crashed instance's repositories are claimable again after this; keep above sync-deadline
+        private int batchSize = 50; // Due repositories one instance claims per tick
+    }
+
+    @Data
+    public static class Jobs {
+        private int parallelism = 2; // Sync jobs running at once
+        private int queueCapacity = 50; // Sync jobs waiting to run; further jobs are rejected
+        private int retention = 200; // Finished jobs kept for status polling
+    }
+
     @Data
     public static class MonitoredRepository {
         private Long id;
@@ -0,0 +1,57 @@
+package com.peraton.cicd.controller;
+
+import com.peraton.cicd.dto.BackfillProgressDto;
+import com.peraton.cicd.service.BackfillService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.net.URI;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/admin/backfill")
+@RequiredArgsConstructor
+@Slf4j
+public class BackfillController {
+
+    private final BackfillService backfillService;
+
+    /**
+     * Start or resume the historical backfill of a repository
+     * POST /api/admin/backfill/{repositoryId}
+     *
+     * Returns 202 with the backfill's progress; a backfill already running is returned instead of a new one.
+     */
+    @PostMapping("/{repositoryId}")
+    public ResponseEntity<BackfillProgressDto> startBackfill(@PathVariable Long repositoryId) {
+        log.info("Backfill of repository {} requested via API", repositoryId);
+        BackfillProgressDto progress = backfillService.start(repositoryId);
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/admin/backfill/" + repositoryId))
+                .body(progress);
+    }
+
+    /**
+     * Progress of a repository's backfill
+     * GET /api/admin/backfill/{repositoryId}
+     */
+    @GetMapping("/{repositoryId}")
+    public ResponseEntity<BackfillProgressDto> getBackfill(@PathVariable Long repositoryId) {
+        return ResponseEntity.ok(backfillService.getProgress(repositoryId));
+    }
+
+    /**
+     * Progress of every backfill started so far
+     * GET /api/admin/backfill
+     */
+    @GetMapping
+    public ResponseEntity<List<BackfillProgressDto>> getBackfills() {
+        return ResponseEntity.ok(backfillService.getAllProgress());
+    }
+}
@@ -1,17 +1,30 @@
 package com.peraton.cicd.controller;
 
 import com.peraton.cicd.dto.BuildDto;
+import com.peraton.cicd.dto.BuildFilter;
+import com.peraton.cicd.dto.BuildPageDto;
+import com.peraton.cicd.dto.SyncJobDto;
 import com.peraton.cicd.dto.SyncRequest;
-import com.peraton.cicd.dto.SyncResponse;
-import com.peraton.cicd.exception.GitHubApiException;
+import com.peraton.cicd.model.Build;
+import com.peraton.cicd.service.BuildEventBroadcaster;
+import com.peraton.cicd.service.BuildExportService;
 import com.peraton.cicd.service.BuildService;
+import com.peraton.cicd.service.SyncJobService;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
+import java.net.URI;
+import java.time.LocalDateTime;
+import java.util.Arrays;
 import java.util.List;
 
 @RestController
@@ -21,11 +34,14 @@ import java.util.List;
 public class BuildController {
 
     private final BuildService buildService;
+    private final BuildExportService buildExportService;
+    private final BuildEventBroadcaster buildEventBroadcaster;
+    private final SyncJobService syncJobService;
 
     /**
      * GET /api/builds - Get all builds
      *
-     * @return List of all builds
+     * @return The newest 1000 builds; use /api/builds/query to page through all of them
      */
     @GetMapping
     public ResponseEntity<List<BuildDto>> getAllBuilds() {
@@ -34,6 +50,91 @@ public class BuildController {
         return ResponseEntity.ok(builds);
     }
 
+    /**
+     * GET /api/builds/query - Page through builds matching the given filters, newest first
+     *
+     * @param repositoryId Repository ID
+     * @param status Build status
+     * @param branch Head branch
+     * @param from Earliest start time (inclusive)
+     * @param to Latest start time (exclusive)
+     * @param cursor nextCursor of the previous page
+     * @param size Page size, 50 by default and at most 200
+     * @return Page of builds
+     */
+    @GetMapping("/query")
+    public ResponseEntity<BuildPageDto> queryBuilds(
+            @RequestParam(required = false) Long repositoryId,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String branch,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        log.debug("GET /api/builds/query - repositoryId={}, status={}, branch={}, from={}, to={}",
+                repositoryId, status, branch, from, to);
+
+        BuildFilter filter = toFilter(repositoryId, status, branch, from, to);
+        return ResponseEntity.ok(buildService.queryBuilds(filter, cursor, size));
+    }
+
+    /**
+     * GET /api/builds/export - Stream every build matching the given filters, newest first
+     *
+     * Rows are written as they are read from the database, so the export can cover the whole
+     * build history. Takes the same filters as /api/builds/query.
+     *
+     * @param format ndjson (one JSON object per line, the default) or csv
+     * @param response Response the builds are written to
+     */
+    @GetMapping("/export")
+    public void exportBuilds(
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(required = false) Long repositoryId,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String branch,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            HttpServletResponse response) {
+        log.info("GET /api/builds/export - Exporting builds as {}", format);
+
+        BuildExportService.ExportFormat exportFormat = parseFormat(format);
+        BuildFilter filter = toFilter(repositoryId, status, branch, from, to);
+
+        response.setContentType(exportFormat.getContentType());
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"builds." + exportFormat.getFileExtension() + "\"");
+        try {
+            buildExportService.exportBuilds(filter, exportFormat, response.getOutputStream());
+        } catch (IOException e) {
+            // The response is already committed; usually the client went away mid-export
+            log.warn("Build export aborted: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * GET /api/builds/stream - Server-Sent Events feed of builds created, updated and deleted
+     *
+     * Each "build" event carries a BuildEventDto. A client reconnecting with Last-Event-ID
+     * (EventSource does this itself) is sent the events it missed, or a "reset" event when
+     * they are no longer available, after which it should reload.
+     *
+     * @param repositoryId Only stream events for this repository
+     * @param lastEventId ID of the last event received
+     * @return Event stream, or 503 without a body (clients may only accept text/event-stream)
+     *         when too many streams are open
+     */
+    @GetMapping("/stream")
+    public ResponseEntity<SseEmitter> streamBuildEvents(
+            @RequestParam(required = false) Long repositoryId,
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        log.debug("GET /api/builds/stream - repositoryId={}, lastEventId={}", repositoryId, lastEventId);
+        return buildEventBroadcaster.subscribe(repositoryId, lastEventId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build());
+    }
+
     /**
      * GET /api/builds/{id} - Get build by ID
      *
@@ -52,7 +153,7 @@ public class BuildController {
      * GET /api/builds/repository/{repositoryId} - Get builds by repository
      *
      * @param repositoryId Repository ID
-     * @return List of builds for the repository
+     * @return The repository's newest 1000 builds
      */
     @GetMapping("/repository/{repositoryId}")
     public ResponseEntity<List<BuildDto>> getBuildsByRepositoryId(@PathVariable Long repositoryId) {
@@ -65,7 +166,7 @@ public class BuildController {
      * GET /api/builds/status/{status} - Get builds by status
      *
      * @param status Build status
-     * @return List of builds with the specified status
+     * @return The newest 1000 builds with the specified status
      */
     @GetMapping("/status/{status}")
     public ResponseEntity<List<BuildDto>> getBuildsByStatus(@PathVariable String status) {
@@ -82,45 +183,23 @@ public class BuildController {
     }
 
     /**
-     * POST /api/builds/sync - Trigger sync from GitHub API
+     * POST /api/builds/sync - Queue a sync from GitHub API
+     *
+     * Returns 202 with the sync job; poll GET /api/scheduler/jobs/{jobId} for its result.
+     * A sync already queued or running for the repository is returned instead of a new one.
      *
      * @param syncRequest Sync request with owner, repo, and repositoryId
-     * @return Sync response with results
+     * @return Sync job
      */
     @PostMapping("/sync")
-    public ResponseEntity<SyncResponse> syncBuilds(@Valid @RequestBody SyncRequest syncRequest) {
-        log.info("POST /api/builds/sync - Syncing builds from GitHub for {}/{}",
+    public ResponseEntity<SyncJobDto> syncBuilds(@Valid @RequestBody SyncRequest syncRequest) {
+        log.info("POST /api/builds/sync - Queueing sync from GitHub for {}/{}",
                 syncRequest.getOwner(), syncRequest.getRepo());
 
-        try {
-            SyncResponse response = buildService.syncBuildsFromGitHub(syncRequest);
-            return ResponseEntity.ok(response);
-        } catch (IllegalArgumentException e) {
-            log.error("Invalid sync request: {}", e.getMessage());
-            SyncResponse errorResponse = SyncResponse.builder()
-                    .success(false)
-                    .syncedCount(0)
-                    .message(e.getMessage())
-                    .build();
-            return ResponseEntity.badRequest().body(errorResponse);
-        } catch (GitHubApiException e) {
-            log.error("GitHub API error during sync: {}", e.getMessage());
-            SyncResponse errorResponse = SyncResponse.builder()
-                    .success(false)
-                    .syncedCount(0)
-                    .message("GitHub API error: " + e.getMessage())
-                    .build();
-            int statusCode = e.getStatusCode() > 0 ? e.getStatusCode() : HttpStatus.INTERNAL_SERVER_ERROR.value();
-            return ResponseEntity.status(statusCode).body(errorResponse);
-        } catch (Exception e) {
-            log.error("Unexpected error during sync: {}", e.getMessage(), e);
-            SyncResponse errorResponse = SyncResponse.builder()
-                    .success(false)
-                    .syncedCount(0)
-                    .message("Internal server error: " + e.getMessage())
-                    .build();
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
-        }
+        SyncJobDto job = syncJobService.submitRepositorySync(syncRequest);
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/scheduler/jobs/" + job.getJobId()))
+                .body(job);
     }
 
     /**
@@ -182,4 +261,35 @@ public class BuildController {
             return ResponseEntity.notFound().build();
         }
     }
+
+    private static Build.BuildStatus parseStatus(String status) {
+        try {
+            return Build.BuildStatus.valueOf(status.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(String.format("Invalid build status '%s', expected one of %s",
+                    status, Arrays.toString(Build.BuildStatus.values())));
+        }
+    }
+
+    private static BuildFilter toFilter(Long repositoryId, String status, String branch,
+                                        LocalDateTime from, LocalDateTime to) {
+        if (from != null && to != null && !from.isBefore(to)) {
+            throw new IllegalArgumentException("'from' must be before 'to'");
+        }
+        return BuildFilter.builder()
+                .repositoryId(repositoryId)
+                .status(status != null ? parseStatus(status) : null)
+                .branch(branch)
+                .from(from)
+                .to(to)
+                .build();
+    }
+
+    private static BuildExportService.ExportFormat parseFormat(String format) {
+        try {
+            return BuildExportService.ExportFormat.valueOf(format.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(String.format("Invalid export format '%s', expected ndjson or csv", format));
+        }
+    }
 }
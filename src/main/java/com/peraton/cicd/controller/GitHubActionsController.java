@@ -1,8 +1,18 @@
 package com.peraton.cicd.controller;
 
+import com.peraton.cicd.dto.github.BuildStatusBatchRequest;
+import com.peraton.cicd.dto.github.BuildStatusBatchResponse;
 import com.peraton.cicd.dto.github.BuildStatusDto;
+import com.peraton.cicd.dto.github.CircuitBreakerStatusDto;
+import com.peraton.cicd.dto.github.GitHubCacheStatsDto;
+import com.peraton.cicd.dto.github.RateLimitStatusDto;
 import com.peraton.cicd.exception.GitHubApiException;
+import com.peraton.cicd.service.BuildStatusBatchService;
 import com.peraton.cicd.service.GitHubActionsService;
+import com.peraton.cicd.service.GitHubCircuitBreaker;
+import com.peraton.cicd.service.GitHubResponseCache;
+import com.peraton.cicd.service.GitHubRateLimitGovernor;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -17,6 +27,10 @@ import java.util.Map;
 public class GitHubActionsController {
 
     private final GitHubActionsService gitHubActionsService;
+    private final BuildStatusBatchService buildStatusBatchService;
+    private final GitHubRateLimitGovernor gitHubRateLimitGovernor;
+    private final GitHubResponseCache gitHubResponseCache;
+    private final GitHubCircuitBreaker gitHubCircuitBreaker;
 
     /**
      * Get the latest build status for a repository
@@ -35,6 +49,26 @@ public class GitHubActionsController {
         }
     }
 
+    /**
+     * Get the latest build status for several repositories, fetched concurrently.
+     * Always 200 with one result per repository; failed lookups carry errorCode and error.
+     * GET /api/github/status?repos=owner/repo,owner/other-repo
+     */
+    @GetMapping("/status")
+    public ResponseEntity<BuildStatusBatchResponse> getLatestBuildStatuses(@RequestParam List<String> repos) {
+        return ResponseEntity.ok(buildStatusBatchService.getLatestBuildStatuses(repos));
+    }
+
+    /**
+     * Same as GET /api/github/status, for lists too long for a query string
+     * POST /api/github/status
+     */
+    @PostMapping("/status")
+    public ResponseEntity<BuildStatusBatchResponse> getLatestBuildStatuses(
+            @Valid @RequestBody BuildStatusBatchRequest request) {
+        return ResponseEntity.ok(buildStatusBatchService.getLatestBuildStatuses(request.getRepositories()));
+    }
+
     /**
      * Get the latest build status for a specific branch
      * GET /api/github/status/{owner}/{repo}/branch/{branch}
@@ -114,4 +148,31 @@ public class GitHubActionsController {
                     .body(Map.of("success", false, "error", e.getMessage()));
         }
     }
+
+    /**
+     * Get the current GitHub rate limit budget of each token as seen by the governor
+     * GET /api/github/rate-limit
+     */
+    @GetMapping("/rate-limit")
+    public ResponseEntity<List<RateLimitStatusDto>> getRateLimitStatus() {
+        return ResponseEntity.ok(gitHubRateLimitGovernor.getStatus());
+    }
+
+    /**
+     * Get hit ratio and eviction counts of the live lookup cache
+     * GET /api/github/cache
+     */
+    @GetMapping("/cache")
+    public ResponseEntity<GitHubCacheStatsDto> getCacheStats() {
+        return ResponseEntity.ok(gitHubResponseCache.getStats());
+    }
+
+    /**
+     * Get the GitHub host circuit and every repository circuit with recent failures
+     * GET /api/github/circuit-breakers
+     */
+    @GetMapping("/circuit-breakers")
+    public ResponseEntity<List<CircuitBreakerStatusDto>> getCircuitBreakers() {
+        return ResponseEntity.ok(gitHubCircuitBreaker.getStatus());
+    }
 }
@@ -0,0 +1,58 @@
+package com.peraton.cicd.controller;
+
+import com.peraton.cicd.service.GitHubWebhookService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/github")
+@RequiredArgsConstructor
+@Slf4j
+public class GitHubWebhookController {
+
+    private final GitHubWebhookService gitHubWebhookService;
+
+    /**
+     * Receive a GitHub webhook delivery
+     * POST /api/github/webhook
+     *
+     * workflow_run deliveries are acknowledged with 202 and applied to builds asynchronously.
+     * Other events (including ping) are acknowledged and ignored.
+     */
+    @PostMapping("/webhook")
+    public ResponseEntity<Map<String, Object>> receiveWebhook(
+            @RequestHeader(value = "X-GitHub-Event", required = false) String event,
+            @RequestHeader(value = "X-GitHub-Delivery", required = false) String deliveryId,
+            @RequestHeader(value = "X-Hub-Signature-256", required = false) String signature,
+            @RequestBody byte[] payload) {
+        if (!gitHubWebhookService.isConfigured()) {
+            log.warn("Rejected webhook delivery {}: github.webhook.secret is not configured", deliveryId);
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(Map.of("success", false, "error", "Webhook secret is not configured"));
+        }
+
+        if (!gitHubWebhookService.isValidSignature(payload, signature)) {
+            log.warn("Rejected webhook delivery {}: invalid signature", deliveryId);
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(Map.of("success", false, "error", "Invalid signature"));
+        }
+
+        if (!"workflow_run".equals(event)) {
+            log.debug("Ignoring webhook event {} (delivery {})", event, deliveryId);
+            return ResponseEntity.ok(Map.of("success", true, "message", "Event ignored: " + event));
+        }
+
+        if (!gitHubWebhookService.enqueue(deliveryId, payload)) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(Map.of("success", false, "error", "Webhook queue is full, redeliver later"));
+        }
+
+        return ResponseEntity.accepted()
+                .body(Map.of("success", true, "message", "Delivery queued"));
+    }
+}
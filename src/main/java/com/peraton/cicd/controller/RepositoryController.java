@@ -0,0 +1,32 @@
+package com.peraton.cicd.controller;
+
+import com.peraton.cicd.dto.RepositorySummaryDto;
+import com.peraton.cicd.service.BuildService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/repositories")
+@RequiredArgsConstructor
+@Slf4j
+public class RepositoryController {
+
+    private final BuildService buildService;
+
+    /**
+     * GET /api/repositories/summary - Every repository with its latest build and build counts per status
+     *
+     * @return List of repository summaries ordered by name
+     */
+    @GetMapping("/summary")
+    public ResponseEntity<List<RepositorySummaryDto>> getRepositorySummaries() {
+        log.info("GET /api/repositories/summary - Fetching repository summaries");
+        return ResponseEntity.ok(buildService.getRepositorySummaries());
+    }
+}
@@ -1,14 +1,18 @@
 package com.peraton.cicd.controller;
 
-import com.peraton.cicd.service.ScheduledTasksService;
+import com.peraton.cicd.dto.SyncJobDto;
+import com.peraton.cicd.service.SyncJobService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
-import java.util.Map;
+import java.net.URI;
+import java.util.List;
 
 @RestController
 @RequestMapping("/api/scheduler")
@@ -16,27 +20,38 @@ import java.util.Map;
 @Slf4j
 public class SchedulerController {
 
-    private final ScheduledTasksService scheduledTasksService;
+    private final SyncJobService syncJobService;
 
     /**
-     * Manually trigger GitHub sync
+     * Manually trigger GitHub sync of every repository
      * POST /api/scheduler/trigger-sync
+     *
+     * Returns 202 with the sync job; a full sync already queued or running is returned instead of a new one.
      */
     @PostMapping("/trigger-sync")
-    public ResponseEntity<Map<String, String>> triggerSync() {
+    public ResponseEntity<SyncJobDto> triggerSync() {
         log.info("Manual sync triggered via API");
-        try {
-            scheduledTasksService.triggerManualSync();
-            return ResponseEntity.ok(Map.of(
-                    "status", "success",
-                    "message", "GitHub sync triggered successfully. Check logs for details."
-            ));
-        } catch (Exception e) {
-            log.error("Error triggering manual sync: {}", e.getMessage(), e);
-            return ResponseEntity.internalServerError().body(Map.of(
-                    "status", "error",
-                    "message", "Failed to trigger sync: " + e.getMessage()
-            ));
-        }
+        SyncJobDto job = syncJobService.submitFullSync();
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/scheduler/jobs/" + job.getJobId()))
+                .body(job);
+    }
+
+    /**
+     * Recent sync jobs, newest first
+     * GET /api/scheduler/jobs
+     */
+    @GetMapping("/jobs")
+    public ResponseEntity<List<SyncJobDto>> getJobs() {
+        return ResponseEntity.ok(syncJobService.getRecentJobs());
+    }
+
+    /**
+     * Status of a sync job
+     * GET /api/scheduler/jobs/{jobId}
+     */
+    @GetMapping("/jobs/{jobId}")
+    public ResponseEntity<SyncJobDto> getJob(@PathVariable String jobId) {
+        return ResponseEntity.ok(syncJobService.getJob(jobId));
     }
 }
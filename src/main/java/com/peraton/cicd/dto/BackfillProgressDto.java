@@ -0,0 +1,42 @@
+package com.peraton.cicd.dto;
+
+import com.peraton.cicd.model.RepositoryBackfill;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BackfillProgressDto {
+
+    private Long repositoryId;
+    private String status;
+    private int pagesCompleted;
+    private Integer totalPages;
+    private long runsFetched;
+    private long buildsInserted;
+    private String lastError;
+    private LocalDateTime startedAt;
+    private LocalDateTime updatedAt;
+    private LocalDateTime completedAt;
+
+    public static BackfillProgressDto fromEntity(RepositoryBackfill backfill) {
+        return BackfillProgressDto.builder()
+                .repositoryId(backfill.getRepositoryId())
+                .status(backfill.getStatus() != null ? backfill.getStatus().name() : null)
+                .pagesCompleted(backfill.getPagesCompleted())
+                .totalPages(backfill.getTotalPages())
+                .runsFetched(backfill.getRunsFetched())
+                .buildsInserted(backfill.getBuildsInserted())
+                .lastError(backfill.getLastError())
+                .startedAt(backfill.getStartedAt())
+                .updatedAt(backfill.getUpdatedAt())
+                .completedAt(backfill.getCompletedAt())
+                .build();
+    }
+}
@@ -19,6 +19,7 @@ public class BuildDto {
     private String repositoryName;
     private String status;
     private String commitSha;
+    private String branch;
     private LocalDateTime startedAt;
     private LocalDateTime completedAt;
 
@@ -29,6 +30,7 @@ public class BuildDto {
                 .repositoryName(build.getRepository() != null ? build.getRepository().getName() : null)
                 .status(build.getStatus() != null ? build.getStatus().name() : null)
                 .commitSha(build.getCommitSha())
+                .branch(build.getBranch())
                 .startedAt(build.getStartedAt())
                 .completedAt(build.getCompletedAt())
                 .build();
@@ -38,6 +40,7 @@ public class BuildDto {
         Build build = new Build();
         build.setId(this.id);
         build.setCommitSha(this.commitSha);
+        build.setBranch(this.branch);
         build.setStartedAt(this.startedAt);
         build.setCompletedAt(this.completedAt);
 
@@ -0,0 +1,23 @@
+package com.peraton.cicd.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BuildEventDto {
+
+    public enum EventType {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+
+    private EventType type;
+    private String previousStatus; // status before an UPDATED event; null otherwise
+    private BuildDto build; // state after the change; for DELETED, the state it was deleted in
+}
@@ -0,0 +1,25 @@
+package com.peraton.cicd.dto;
+
+import com.peraton.cicd.model.Build;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Filters of a builds query; null fields don't filter
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BuildFilter {
+
+    private Long repositoryId;
+    private Build.BuildStatus status;
+    private String branch;
+    private LocalDateTime from; // startedAt, inclusive
+    private LocalDateTime to; // startedAt, exclusive
+}
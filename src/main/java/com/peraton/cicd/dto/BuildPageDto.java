@@ -0,0 +1,20 @@
+package com.peraton.cicd.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BuildPageDto {
+
+    private List<BuildDto> builds;
+    private int size;
+    private boolean hasMore;
+    private String nextCursor; // pass as cursor to get the next page; null on the last page
+}
@@ -0,0 +1,33 @@
+package com.peraton.cicd.dto;
+
+import com.peraton.cicd.model.Build;
+
+import java.time.LocalDateTime;
+
+/**
+ * Read-only row of a build with its repository's name, selected by constructor expression
+ * in the same statement as the build, so mapping it never touches a lazy association
+ */
+public record BuildView(
+        Long id,
+        Long repositoryId,
+        String repositoryName,
+        Build.BuildStatus status,
+        String commitSha,
+        String branch,
+        LocalDateTime startedAt,
+        LocalDateTime completedAt) {
+
+    public BuildDto toDto() {
+        return BuildDto.builder()
+                .id(id)
+                .repositoryId(repositoryId)
+                .repositoryName(repositoryName)
+                .status(status != null ? status.name() : null)
+                .commitSha(commitSha)
+                .branch(branch)
+                .startedAt(startedAt)
+                .completedAt(completedAt)
+                .build();
+    }
+}
@@ -0,0 +1,20 @@
+package com.peraton.cicd.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RepositorySummaryDto {
+
+    private RepositoryDto repository;
+    private BuildDto latestBuild; // null if the repository has no builds
+    private long totalBuilds;
+    private Map<String, Long> statusCounts; // every build status, including those with no builds
+}
@@ -0,0 +1,28 @@
+package com.peraton.cicd.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SyncJobDto {
+
+    private String jobId;
+    private String type; // REPOSITORY or ALL
+    private Long repositoryId; // null for ALL
+    private String repositoryName;
+    private String status; // QUEUED, RUNNING, SUCCEEDED, FAILED
+    private int syncedCount;
+    private int failedRepositories;
+    private int skippedRepositories; // ALL only: already being synced when the job ran
+    private String message;
+    private LocalDateTime submittedAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime completedAt;
+}
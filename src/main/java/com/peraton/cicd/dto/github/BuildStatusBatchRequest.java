@@ -0,0 +1,20 @@
+package com.peraton.cicd.dto.github;
+
+import jakarta.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BuildStatusBatchRequest {
+
+    // "owner/repo" entries
+    @NotEmpty(message = "At least one repository is required")
+    private List<String> repositories;
+}
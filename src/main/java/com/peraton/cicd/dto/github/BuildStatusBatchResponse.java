@@ -0,0 +1,33 @@
+package com.peraton.cicd.dto.github;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BuildStatusBatchResponse {
+
+    private List<RepositoryBuildStatus> results;
+    private int succeeded;
+    private int failed;
+
+    /**
+     * Outcome for one repository: either status or error is set
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RepositoryBuildStatus {
+        private String repository;
+        private BuildStatusDto status;
+        private Integer errorCode;
+        private String error;
+    }
+}
@@ -0,0 +1,20 @@
+package com.peraton.cicd.dto.github;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CircuitBreakerStatusDto {
+
+    private String name;
+    private String state;
+    private int consecutiveFailures;
+    private LocalDateTime openUntil;
+}
@@ -0,0 +1,23 @@
+package com.peraton.cicd.dto.github;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class GitHubCacheStatsDto {
+
+    private int size;
+    private int maxEntries;
+    private long hits;
+    private long staleHits;
+    private long misses;
+    private long coalesced;
+    private long loadFailures;
+    private long evictions;
+    private double hitRatio;
+}
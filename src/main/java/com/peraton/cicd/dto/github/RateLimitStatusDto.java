@@ -0,0 +1,23 @@
+package com.peraton.cicd.dto.github;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RateLimitStatusDto {
+
+    private String credential;
+    private Integer limit;
+    private Integer remaining;
+    private LocalDateTime resetAt;
+    private int interactiveReserve;
+    private double backgroundRequestsPerMinute;
+    private LocalDateTime retryAfterUntil;
+}
@@ -0,0 +1,20 @@
+package com.peraton.cicd.dto.github;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Data;
+
+/**
+ * Payload of a GitHub workflow_run webhook delivery
+ */
+@Data
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class WorkflowRunEvent {
+
+    private String action;
+
+    @JsonProperty("workflow_run")
+    private WorkflowRun workflowRun;
+
+    private WorkflowRun.Repository repository;
+}
@@ -1,5 +1,6 @@
 package com.peraton.cicd.dto.github;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.Data;
@@ -15,4 +16,19 @@ public class WorkflowRunsResponse {
 
     @JsonProperty("workflow_runs")
     private List<WorkflowRun> workflowRuns;
+
+    // Response metadata, populated by GitHubApiClient rather than deserialized
+
+    @JsonIgnore
+    private String requestUrl;
+
+    @JsonIgnore
+    private String etag;
+
+    @JsonIgnore
+    private String lastModified;
+
+    // URL of the next page from the Link header, null on the last page
+    @JsonIgnore
+    private String nextPageUrl;
 }
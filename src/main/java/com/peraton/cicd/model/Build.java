@@ -3,23 +3,32 @@ package com.peraton.cicd.model;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "builds")
+// One build per commit; the upserts of BuildInsertRepository rely on this index
+@Table(name = "builds", indexes = @Index(name = "idx_builds_repository_commit_sha_unique",
+        columnList = "repository_id, commit_sha", unique = true))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Build {
 
+    // Pooled sequence (allocationSize must match the sequence INCREMENT BY) so inserts can be JDBC-batched
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "builds_id_seq")
+    @SequenceGenerator(name = "builds_id_seq", sequenceName = "builds_id_seq", allocationSize = 50)
     private Long id;
 
+    // Excluded so equals/hashCode/toString don't load the repository
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "repository_id", nullable = false)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private Repository repository;
 
     @Enumerated(EnumType.STRING)
@@ -29,6 +38,14 @@ public class Build {
     @Column(name = "commit_sha", nullable = false)
     private String commitSha;
 
+    // Head branch of the workflow run; null for builds recorded before branches were stored
+    @Column(length = 255)
+    private String branch;
+
+    // GitHub workflow run ID, used to refresh in-flight builds
+    @Column(name = "run_id")
+    private Long runId;
+
     @Column(name = "started_at", nullable = false)
     private LocalDateTime startedAt;
 
@@ -47,6 +64,10 @@ public class Build {
         IN_PROGRESS,
         SUCCESS,
         FAILED,
-        CANCELLED
+        CANCELLED;
+
+        public boolean isTerminal() {
+            return this == SUCCESS || this == FAILED || this == CANCELLED;
+        }
     }
 }
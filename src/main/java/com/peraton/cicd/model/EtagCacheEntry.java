@@ -0,0 +1,40 @@
+package com.peraton.cicd.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "github_etag_cache")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EtagCacheEntry {
+
+    // Request URL without its query, i.e. one entry per repository and endpoint
+    @Id
+    @Column(name = "cache_key", length = 1000)
+    private String cacheKey;
+
+    // Full URL the validators were returned for
+    @Column(name = "request_url", length = 1000, nullable = false)
+    private String requestUrl;
+
+    @Column(name = "etag")
+    private String etag;
+
+    @Column(name = "last_modified")
+    private String lastModified;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    protected void onSave() {
+        updatedAt = LocalDateTime.now();
+    }
+}
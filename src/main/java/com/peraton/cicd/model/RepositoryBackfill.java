@@ -0,0 +1,65 @@
+package com.peraton.cicd.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Checkpoint of a repository's historical backfill. Pages up to pagesCompleted are
+ * written, so an interrupted backfill resumes from the page after it.
+ */
+@Entity
+@Table(name = "repository_backfill")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RepositoryBackfill {
+
+    @Id
+    @Column(name = "repository_id")
+    private Long repositoryId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private BackfillStatus status;
+
+    @Column(name = "pages_completed", nullable = false)
+    private int pagesCompleted;
+
+    // Estimated from the listing's total_count; runs created meanwhile can add a page
+    @Column(name = "total_pages")
+    private Integer totalPages;
+
+    @Column(name = "runs_fetched", nullable = false)
+    private long runsFetched;
+
+    @Column(name = "builds_inserted", nullable = false)
+    private long buildsInserted;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+
+    @Column(name = "started_at", nullable = false)
+    private LocalDateTime startedAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+
+    @PrePersist
+    @PreUpdate
+    protected void onSave() {
+        updatedAt = LocalDateTime.now();
+    }
+
+    public enum BackfillStatus {
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+}
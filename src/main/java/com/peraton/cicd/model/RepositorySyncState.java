@@ -0,0 +1,59 @@
+package com.peraton.cicd.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.DynamicUpdate;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "repository_sync_state")
+@DynamicUpdate // Sync and poll scheduling update disjoint columns of the same row
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RepositorySyncState {
+
+    @Id
+    @Column(name = "repository_id")
+    private Long repositoryId;
+
+    // High-water mark: newest workflow run already synced
+    @Column(name = "last_run_id")
+    private Long lastRunId;
+
+    @Column(name = "last_run_created_at")
+    private LocalDateTime lastRunCreatedAt;
+
+    @Column(name = "last_synced_at")
+    private LocalDateTime lastSyncedAt;
+
+    // Adaptive polling schedule, see RepositoryPollScheduler
+    @Column(name = "next_poll_at")
+    private LocalDateTime nextPollAt;
+
+    @Column(name = "poll_interval_ms")
+    private Long pollIntervalMs;
+
+    // Last workflow_run webhook received for the repository, by any instance
+    @Column(name = "last_webhook_at")
+    private LocalDateTime lastWebhookAt;
+
+    @ColumnDefault("0")
+    @Column(name = "consecutive_failures", nullable = false)
+    private int consecutiveFailures;
+
+    // Sync lease, see RepositorySyncQueue: the instance syncing the repository, until the lease expires
+    @Column(name = "lease_owner", length = 100)
+    private String leaseOwner;
+
+    @Column(name = "lease_expires_at")
+    private LocalDateTime leaseExpiresAt;
+
+    public RepositorySyncState(Long repositoryId) {
+        this.repositoryId = repositoryId;
+    }
+}
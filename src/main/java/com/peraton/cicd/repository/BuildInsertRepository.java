@@ -0,0 +1,34 @@
+package com.peraton.cicd.repository;
+
+import com.peraton.cicd.model.Build;
+import com.peraton.cicd.model.Repository;
+
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Bulk build inserts that tolerate concurrent writers; mixed into {@link BuildRepository}
+ */
+public interface BuildInsertRepository {
+
+    /**
+     * Insert builds of one repository, skipping commits already stored for it. The check is
+     * the unique (repository_id, commit_sha) index, so a commit inserted at the same time by
+     * a webhook, sync or backfill in another transaction is skipped as well.
+     * Must run inside a transaction.
+     *
+     * @param repository Repository the builds belong to
+     * @param builds New builds, at most one per commit; a missing startedAt defaults to now
+     * @return The builds inserted, with their ID and repository set
+     */
+    List<Build> insertNew(Repository repository, List<Build> builds);
+
+    /**
+     * Reserve IDs from builds_id_seq for rows inserted without JPA, in the same blocks
+     * Hibernate's pooled optimizer uses, so they never collide with IDs assigned by JPA inserts
+     *
+     * @param count Number of IDs
+     * @return count unused IDs, ascending within each block
+     */
+    Deque<Long> allocateIds(int count);
+}
@@ -0,0 +1,120 @@
+package com.peraton.cicd.repository;
+
+import com.peraton.cicd.model.Build;
+import com.peraton.cicd.model.Repository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A batch is inserted with one INSERT ... SELECT FROM unnest(...) of column arrays, and
+ * ON CONFLICT DO NOTHING drops the commits another transaction stored first (waiting for
+ * it if it hasn't committed yet). RETURNING tells which rows were inserted.
+ */
+@RequiredArgsConstructor
+public class BuildInsertRepositoryImpl implements BuildInsertRepository {
+
+    private static final String INSERT_NEW_BUILDS = """
+            INSERT INTO builds (id, repository_id, status, commit_sha, branch, run_id, started_at, completed_at)
+            SELECT b.id, ?, b.status, b.commit_sha, b.branch, b.run_id, b.started_at, b.completed_at
+            FROM unnest(CAST(? AS bigint[]), CAST(? AS varchar[]), CAST(? AS varchar[]), CAST(? AS varchar[]),
+                        CAST(? AS bigint[]), CAST(? AS timestamp[]), CAST(? AS timestamp[]))
+                 AS b(id, status, commit_sha, branch, run_id, started_at, completed_at)
+            ON CONFLICT (repository_id, commit_sha) DO NOTHING
+            RETURNING id
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public List<Build> insertNew(Repository repository, List<Build> builds) {
+        if (builds.isEmpty()) {
+            return List.of();
+        }
+
+        Deque<Long> allocated = allocateIds(builds.size());
+        int size = builds.size();
+        Long[] ids = new Long[size];
+        String[] statuses = new String[size];
+        String[] commitShas = new String[size];
+        String[] branches = new String[size];
+        Long[] runIds = new Long[size];
+        Timestamp[] startedAts = new Timestamp[size];
+        Timestamp[] completedAts = new Timestamp[size];
+        Map<Long, Build> buildsById = new HashMap<>();
+        for (int i = 0; i < size; i++) {
+            Build build = builds.get(i);
+            // As Build#onCreate does for JPA inserts
+            if (build.getStartedAt() == null) {
+                build.setStartedAt(LocalDateTime.now());
+            }
+            ids[i] = allocated.removeFirst();
+            statuses[i] = build.getStatus().name();
+            commitShas[i] = build.getCommitSha();
+            branches[i] = build.getBranch();
+            runIds[i] = build.getRunId();
+            startedAts[i] = Timestamp.valueOf(build.getStartedAt());
+            completedAts[i] = build.getCompletedAt() != null ? Timestamp.valueOf(build.getCompletedAt()) : null;
+            buildsById.put(ids[i], build);
+        }
+
+        // Runs on the surrounding transaction's connection
+        List<Build> inserted = jdbcTemplate.execute((ConnectionCallback<List<Build>>) connection -> {
+            List<Build> rows = new ArrayList<>(size);
+            try (PreparedStatement insert = connection.prepareStatement(INSERT_NEW_BUILDS)) {
+                insert.setLong(1, repository.getId());
+                insert.setArray(2, connection.createArrayOf("bigint", ids));
+                insert.setArray(3, connection.createArrayOf("varchar", statuses));
+                insert.setArray(4, connection.createArrayOf("varchar", commitShas));
+                insert.setArray(5, connection.createArrayOf("varchar", branches));
+                insert.setArray(6, connection.createArrayOf("bigint", runIds));
+                insert.setArray(7, connection.createArrayOf("timestamp", startedAts));
+                insert.setArray(8, connection.createArrayOf("timestamp", completedAts));
+                try (ResultSet resultSet = insert.executeQuery()) {
+                    while (resultSet.next()) {
+                        Build build = buildsById.get(resultSet.getLong(1));
+                        build.setId(resultSet.getLong(1));
+                        build.setRepository(repository);
+                        rows.add(build);
+                    }
+                }
+            }
+            return rows;
+        });
+        return inserted != null ? inserted : List.of();
+    }
+
+    /**
+     * Each nextval value v owns (v - increment .. v]. The increment is read from the sequence,
+     * since databases created before it was raised to 50 may still increment by 1.
+     */
+    @Override
+    public Deque<Long> allocateIds(int count) {
+        Long increment = jdbcTemplate.query(
+                "SELECT increment_by FROM pg_sequences WHERE sequencename = 'builds_id_seq'",
+                resultSet -> resultSet.next() ? resultSet.getLong(1) : null);
+        long blockSize = increment != null ? Math.max(1, increment) : 1;
+
+        Deque<Long> ids = new ArrayDeque<>(count);
+        long blocks = (count + blockSize - 1) / blockSize;
+        List<Long> highs = jdbcTemplate.queryForList(
+                "SELECT nextval('builds_id_seq') FROM generate_series(1, ?)", Long.class, blocks);
+        for (long high : highs) {
+            for (long id = high - blockSize + 1; id <= high && ids.size() < count; id++) {
+                ids.addLast(id);
+            }
+        }
+        return ids;
+    }
+}
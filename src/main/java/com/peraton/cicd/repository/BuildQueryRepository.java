@@ -0,0 +1,36 @@
+package com.peraton.cicd.repository;
+
+import com.peraton.cicd.dto.BuildFilter;
+import com.peraton.cicd.dto.BuildView;
+import com.peraton.cicd.model.Build;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Filtered, keyset-paginated build queries; mixed into {@link BuildRepository}
+ */
+public interface BuildQueryRepository {
+
+    /**
+     * Builds matching a filter, newest first (startedAt, then id, descending), with their repository's name
+     *
+     * @param filter Filters to apply
+     * @param afterStartedAt startedAt of the last build of the previous page, or null for the first page
+     * @param afterId ID of the last build of the previous page, or null for the first page
+     * @param limit Maximum number of builds
+     * @return Builds that sort after the given one
+     */
+    List<BuildView> findPage(BuildFilter filter, LocalDateTime afterStartedAt, Long afterId, int limit);
+
+    /**
+     * Stream the builds matching a filter, newest first, with their repository fetched.
+     * Must be consumed and closed inside a transaction; rows are read from the database
+     * in batches as the stream advances, and stay in the persistence context until cleared.
+     *
+     * @param filter Filters to apply
+     * @return Read-only builds
+     */
+    Stream<Build> streamBuilds(BuildFilter filter);
+}
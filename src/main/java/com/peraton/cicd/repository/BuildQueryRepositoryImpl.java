@@ -0,0 +1,107 @@
+package com.peraton.cicd.repository;
+
+import com.peraton.cicd.dto.BuildFilter;
+import com.peraton.cicd.dto.BuildView;
+import com.peraton.cicd.model.Build;
+import com.peraton.cicd.model.Repository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.jpa.HibernateHints;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Keyset pagination: a page starts right after the last (startedAt, id) of the previous
+ * one instead of at an OFFSET, so every page is an index range scan on
+ * (started_at DESC, id DESC) of at most limit rows, however deep it is. Rows are
+ * selected as {@link BuildView}s joined with their repository in that one statement.
+ *
+ * Streams read through a server-side cursor instead: with a fetch size inside a
+ * transaction the Postgres driver fetches rows in batches as the stream advances.
+ */
+public class BuildQueryRepositoryImpl implements BuildQueryRepository {
+
+    private static final int STREAM_FETCH_SIZE = 1000;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<BuildView> findPage(BuildFilter filter, LocalDateTime afterStartedAt, Long afterId, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<BuildView> query = cb.createQuery(BuildView.class);
+        Root<Build> build = query.from(Build.class);
+        Join<Build, Repository> repository = build.join("repository");
+
+        Path<LocalDateTime> startedAt = build.get("startedAt");
+        Path<Long> id = build.get("id");
+
+        List<Predicate> predicates = filterPredicates(cb, build, filter);
+        if (afterStartedAt != null && afterId != null) {
+            // (startedAt, id) < (after, afterId); the redundant bound lets Postgres start the index scan there
+            predicates.add(cb.lessThanOrEqualTo(startedAt, afterStartedAt));
+            predicates.add(cb.or(
+                    cb.lessThan(startedAt, afterStartedAt),
+                    cb.and(cb.equal(startedAt, afterStartedAt), cb.lessThan(id, afterId))));
+        }
+
+        query.select(cb.construct(BuildView.class,
+                        id, repository.get("id"), repository.get("name"), build.get("status"),
+                        build.get("commitSha"), build.get("branch"), startedAt, build.get("completedAt")))
+                .where(predicates.toArray(new Predicate[0]))
+                .orderBy(cb.desc(startedAt), cb.desc(id));
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    public Stream<Build> streamBuilds(BuildFilter filter) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Build> query = cb.createQuery(Build.class);
+        Root<Build> build = query.from(Build.class);
+        build.fetch("repository");
+
+        query.select(build)
+                .where(filterPredicates(cb, build, filter).toArray(new Predicate[0]))
+                .orderBy(cb.desc(build.get("startedAt")), cb.desc(build.get("id")));
+
+        // Read-only entities skip dirty-checking snapshots
+        return entityManager.createQuery(query)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, STREAM_FETCH_SIZE)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream();
+    }
+
+    private static List<Predicate> filterPredicates(CriteriaBuilder cb, Root<Build> build, BuildFilter filter) {
+        Path<LocalDateTime> startedAt = build.get("startedAt");
+
+        List<Predicate> predicates = new ArrayList<>();
+        if (filter.getRepositoryId() != null) {
+            predicates.add(cb.equal(build.get("repository").get("id"), filter.getRepositoryId()));
+        }
+        if (filter.getStatus() != null) {
+            predicates.add(cb.equal(build.get("status"), filter.getStatus()));
+        }
+        if (filter.getBranch() != null) {
+            predicates.add(cb.equal(build.get("branch"), filter.getBranch()));
+        }
+        if (filter.getFrom() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(startedAt, filter.getFrom()));
+        }
+        if (filter.getTo() != null) {
+            predicates.add(cb.lessThan(startedAt, filter.getTo()));
+        }
+        return predicates;
+    }
+}
@@ -1,5 +1,6 @@
 package com.peraton.cicd.repository;
 
+import com.peraton.cicd.dto.BuildView;
 import com.peraton.cicd.model.Build;
 import com.peraton.cicd.model.Repository;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -7,11 +8,13 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 @org.springframework.stereotype.Repository
-public interface BuildRepository extends JpaRepository<Build, Long> {
+public interface BuildRepository extends JpaRepository<Build, Long>, BuildQueryRepository, BuildInsertRepository {
 
     List<Build> findByRepository(Repository repository);
 
@@ -21,6 +24,21 @@ public interface BuildRepository extends JpaRepository<Build, Long> {
 
     Optional<Build> findByCommitSha(String commitSha);
 
+    @Query("SELECT new com.peraton.cicd.dto.BuildView(b.id, r.id, r.name, b.status, b.commitSha, b.branch, "
+            + "b.startedAt, b.completedAt) FROM Build b JOIN b.repository r WHERE b.id = :id")
+    Optional<BuildView> findViewById(@Param("id") Long id);
+
+    Optional<Build> findFirstByRepositoryIdAndCommitShaOrderByIdDesc(Long repositoryId, String commitSha);
+
+    boolean existsByRepositoryIdAndStatusIn(Long repositoryId, Collection<Build.BuildStatus> statuses);
+
+    @Query("SELECT b.commitSha FROM Build b WHERE b.repository.id = :repositoryId AND b.commitSha IN :commitShas")
+    Set<String> findExistingCommitShas(@Param("repositoryId") Long repositoryId,
+                                       @Param("commitShas") Collection<String> commitShas);
+
+    @Query("SELECT b FROM Build b JOIN FETCH b.repository WHERE b.status IN :statuses")
+    List<Build> findByStatusInWithRepository(@Param("statuses") Collection<Build.BuildStatus> statuses);
+
     @Query("SELECT b FROM Build b WHERE b.repository.id = :repositoryId ORDER BY b.startedAt DESC")
     List<Build> findByRepositoryIdOrderByStartedAtDesc(@Param("repositoryId") Long repositoryId);
 
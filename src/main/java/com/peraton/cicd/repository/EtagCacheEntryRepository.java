@@ -0,0 +1,18 @@
+package com.peraton.cicd.repository;
+
+import com.peraton.cicd.model.EtagCacheEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface EtagCacheEntryRepository extends JpaRepository<EtagCacheEntry, String> {
+
+    @Modifying
+    @Query("DELETE FROM EtagCacheEntry e WHERE e.updatedAt < :cutoff")
+    int deleteByUpdatedAtBefore(@Param("cutoff") LocalDateTime cutoff);
+}
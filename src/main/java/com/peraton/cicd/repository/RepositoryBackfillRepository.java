@@ -0,0 +1,22 @@
+package com.peraton.cicd.repository;
+
+import com.peraton.cicd.model.RepositoryBackfill;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface RepositoryBackfillRepository extends JpaRepository<RepositoryBackfill, Long> {
+
+    /**
+     * Checkpoint locked until the end of the transaction, so instances starting the same backfill take turns
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM RepositoryBackfill b WHERE b.repositoryId = :repositoryId")
+    Optional<RepositoryBackfill> findByIdForUpdate(@Param("repositoryId") Long repositoryId);
+}
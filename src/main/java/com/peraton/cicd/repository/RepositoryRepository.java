@@ -8,7 +8,7 @@ import java.util.List;
 import java.util.Optional;
 
 @org.springframework.stereotype.Repository
-public interface RepositoryRepository extends JpaRepository<Repository, Long> {
+public interface RepositoryRepository extends JpaRepository<Repository, Long>, RepositorySummaryRepository {
 
     Optional<Repository> findByName(String name);
 
@@ -23,4 +23,16 @@ public interface RepositoryRepository extends JpaRepository<Repository, Long> {
 
     @Query("SELECT r FROM Repository r ORDER BY r.createdAt DESC")
     List<Repository> findAllOrderByCreatedAtDesc();
+
+    /**
+     * ID of the repository whose GitHub URL ends in owner/repo, ignoring case and a ".git"
+     * suffix. The expression matches idx_repositories_github_owner_repo in init.sql.
+     */
+    @Query(nativeQuery = true, value = """
+            SELECT id FROM repositories
+            WHERE lower(substring(regexp_replace(github_url, '(\\.git)?/*$', ''), '[^/]+/[^/]+$')) = lower(:owner || '/' || :repo)
+            ORDER BY id
+            LIMIT 1
+            """)
+    Optional<Long> findIdByGithubOwnerAndRepo(String owner, String repo);
 }
@@ -0,0 +1,18 @@
+package com.peraton.cicd.repository;
+
+import com.peraton.cicd.dto.RepositorySummaryDto;
+
+import java.util.List;
+
+/**
+ * Dashboard summary query; mixed into {@link RepositoryRepository}
+ */
+public interface RepositorySummaryRepository {
+
+    /**
+     * Every repository with its latest build (by startedAt, then id) and build counts per status
+     *
+     * @return Summaries ordered by repository name
+     */
+    List<RepositorySummaryDto> findRepositorySummaries();
+}
@@ -0,0 +1,58 @@
+package com.peraton.cicd.repository;
+
+import com.peraton.cicd.model.RepositorySyncState;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface RepositorySyncStateRepository extends JpaRepository<RepositorySyncState, Long> {
+
+    @Modifying
+    @Query(value = "INSERT INTO repository_sync_state (repository_id, consecutive_failures) VALUES (:repositoryId, 0) "
+            + "ON CONFLICT (repository_id) DO NOTHING", nativeQuery = true)
+    int insertIfAbsent(@Param("repositoryId") Long repositoryId);
+
+    @Modifying
+    @Query(value = "INSERT INTO repository_sync_state (repository_id, consecutive_failures, last_webhook_at) "
+            + "VALUES (:repositoryId, 0, :receivedAt) "
+            + "ON CONFLICT (repository_id) DO UPDATE SET last_webhook_at = EXCLUDED.last_webhook_at", nativeQuery = true)
+    int recordWebhook(@Param("repositoryId") Long repositoryId, @Param("receivedAt") LocalDateTime receivedAt);
+
+    /**
+     * Lease up to :limit of the given repositories that are due (or all of them with :force)
+     * and not leased; rows locked by a concurrent claim are skipped rather than waited for
+     */
+    @Query(value = """
+            UPDATE repository_sync_state SET lease_owner = :owner, lease_expires_at = :expiresAt
+            WHERE repository_id IN (
+                SELECT repository_id FROM repository_sync_state
+                WHERE repository_id IN (:repositoryIds)
+                  AND (:force OR next_poll_at IS NULL OR next_poll_at <= :now)
+                  AND (lease_expires_at IS NULL OR lease_expires_at <= :now)
+                ORDER BY next_poll_at NULLS FIRST
+                LIMIT :limit
+                FOR UPDATE SKIP LOCKED)
+            RETURNING repository_id
+            """, nativeQuery = true)
+    List<Long> claimLeases(@Param("repositoryIds") Collection<Long> repositoryIds,
+                           @Param("force") boolean force,
+                           @Param("now") LocalDateTime now,
+                           @Param("owner") String owner,
+                           @Param("expiresAt") LocalDateTime expiresAt,
+                           @Param("limit") int limit);
+
+    @Modifying
+    @Query(value = "UPDATE repository_sync_state SET lease_owner = NULL, lease_expires_at = NULL "
+            + "WHERE repository_id = :repositoryId AND lease_owner = :owner", nativeQuery = true)
+    int releaseLease(@Param("repositoryId") Long repositoryId, @Param("owner") String owner);
+
+    @Query("SELECT s.leaseOwner FROM RepositorySyncState s WHERE s.repositoryId = :repositoryId")
+    String findLeaseOwner(@Param("repositoryId") Long repositoryId);
+}
@@ -0,0 +1,254 @@
+package com.peraton.cicd.service;
+
+import com.peraton.cicd.config.GitHubApiConfig;
+import com.peraton.cicd.dto.BackfillProgressDto;
+import com.peraton.cicd.dto.github.WorkflowRun;
+import com.peraton.cicd.dto.github.WorkflowRunsResponse;
+import com.peraton.cicd.exception.GitHubApiException;
+import com.peraton.cicd.exception.ResourceNotFoundException;
+import com.peraton.cicd.model.Build;
+import com.peraton.cicd.model.Repository;
+import com.peraton.cicd.model.RepositoryBackfill;
+import com.peraton.cicd.repository.RepositoryBackfillRepository;
+import com.peraton.cicd.repository.RepositoryRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Historical backfill of a repository's workflow runs, behind /api/admin/backfill.
+ *
+ * The regular sync only looks at the newest page of runs; a backfill walks the whole
+ * listing, newest first. Pages are fetched in windows of github.api.backfill.parallelism
+ * concurrent requests with BACKGROUND priority, so they stay within the rate limit budget
+ * the governor leaves for background work. Each window is bulk-loaded by
+ * {@link BackfillWriter} together with a checkpoint of the last page written, and a
+ * backfill started again after a crash or failure resumes from the page after it.
+ *
+ * Only one instance runs a repository's backfill at a time: {@link BackfillWriter#begin}
+ * refuses while the checkpoint is RUNNING and still advancing, and takes it over once it
+ * has been idle for github.api.backfill.stale-after-ms, e.g. after its instance died.
+ *
+ * Runs created while a backfill is in progress shift older runs onto later pages; that
+ * shows up as runs listed twice (skipped, as their commit is already stored), never as
+ * runs missed.
+ */
+@Service
+@Slf4j
+public class BackfillService {
+
+    private final RepositoryRepository repositoryRepository;
+    private final RepositoryBackfillRepository backfillRepository;
+    private final GitHubApiClient gitHubApiClient;
+    private final GitHubActionsService gitHubActionsService;
+    private final BackfillWriter backfillWriter;
+    private final GitHubApiConfig gitHubApiConfig;
+    private final ThreadPoolTaskExecutor backfillExecutor;
+    private final ThreadPoolTaskExecutor githubBackfillExecutor;
+
+    // Repositories with a backfill queued or running on this instance
+    private final Set<Long> running = ConcurrentHashMap.newKeySet();
+
+    public BackfillService(RepositoryRepository repositoryRepository,
+                           RepositoryBackfillRepository backfillRepository,
+                           GitHubApiClient gitHubApiClient,
+                           GitHubActionsService gitHubActionsService,
+                           BackfillWriter backfillWriter,
+                           GitHubApiConfig gitHubApiConfig,
+                           @Qualifier("backfillExecutor") ThreadPoolTaskExecutor backfillExecutor,
+                           @Qualifier("githubBackfillExecutor") ThreadPoolTaskExecutor githubBackfillExecutor) {
+        this.repositoryRepository = repositoryRepository;
+        this.backfillRepository = backfillRepository;
+        this.gitHubApiClient = gitHubApiClient;
+        this.gitHubActionsService = gitHubActionsService;
+        this.backfillWriter = backfillWriter;
+        this.gitHubApiConfig = gitHubApiConfig;
+        this.backfillExecutor = backfillExecutor;
+        this.githubBackfillExecutor = githubBackfillExecutor;
+    }
+
+    /**
+     * Start a repository's backfill, or resume it from its checkpoint
+     *
+     * @param repositoryId Repository ID
+     * @return Progress of the backfill; one already running is returned as is
+     * @throws ResourceNotFoundException if repository not found
+     * @throws IllegalArgumentException if the repository's GitHub URL can't be parsed
+     * @throws GitHubApiException (503) if the backfill queue is full
+     */
+    public BackfillProgressDto start(Long repositoryId) {
+        Repository repository = repositoryRepository.findById(repositoryId)
+                .orElseThrow(() -> new ResourceNotFoundException("Repository", "id", repositoryId));
+        String[] ownerAndRepo = GitHubRepositoryResolver.extractOwnerAndRepo(repository.getGithubUrl());
+        if (ownerAndRepo == null) {
+            throw new IllegalArgumentException("Cannot parse GitHub URL of repository " + repositoryId
+                    + ": " + repository.getGithubUrl());
+        }
+
+        if (!running.add(repositoryId)) {
+            log.info("Backfill of repository {} already running", repositoryId);
+            return getProgress(repositoryId);
+        }
+
+        try {
+            Optional<RepositoryBackfill> begun = backfillWriter.begin(repositoryId);
+            if (begun.isEmpty()) {
+                running.remove(repositoryId);
+                log.info("Backfill of repository {} already running on another instance", repositoryId);
+                return getProgress(repositoryId);
+            }
+            RepositoryBackfill backfill = begun.get();
+            backfillExecutor.execute(() -> run(repositoryId, ownerAndRepo[0], ownerAndRepo[1], backfill.getPagesCompleted()));
+            log.info("Queued backfill of {}/{} from page {}", ownerAndRepo[0], ownerAndRepo[1],
+                    backfill.getPagesCompleted() + 1);
+            return BackfillProgressDto.fromEntity(backfill);
+        } catch (TaskRejectedException e) {
+            running.remove(repositoryId);
+            backfillWriter.fail(repositoryId, "Backfill queue full");
+            throw new GitHubApiException("Too many backfills queued", HttpStatus.SERVICE_UNAVAILABLE.value(), e);
+        } catch (DataIntegrityViolationException e) {
+            // Another instance created the checkpoint of a first backfill at the same time
+            running.remove(repositoryId);
+            log.info("Backfill of repository {} started concurrently by another instance", repositoryId);
+            return getProgress(repositoryId);
+        } catch (RuntimeException e) {
+            running.remove(repositoryId);
+            throw e;
+        }
+    }
+
+    /**
+     * @throws ResourceNotFoundException if the repository was never backfilled
+     */
+    public BackfillProgressDto getProgress(Long repositoryId) {
+        return backfillRepository.findById(repositoryId)
+                .map(BackfillProgressDto::fromEntity)
+                .orElseThrow(() -> new ResourceNotFoundException("Backfill", "repositoryId", repositoryId));
+    }
+
+    public List<BackfillProgressDto> getAllProgress() {
+        return backfillRepository.findAll(Sort.by("repositoryId")).stream()
+                .map(BackfillProgressDto::fromEntity)
+                .toList();
+    }
+
+    private void run(Long repositoryId, String owner, String repo, int pagesCompleted) {
+        GitHubApiConfig.Backfill config = gitHubApiConfig.getBackfill();
+        int parallelism = Math.max(1, config.getParallelism());
+        int pageSize = Math.max(1, Math.min(100, config.getPageSize()));
+
+        log.info("Backfilling {}/{} from page {}", owner, repo, pagesCompleted + 1);
+        try {
+            int nextPage = pagesCompleted + 1;
+            boolean lastPageReached = false;
+            while (!lastPageReached && nextPage <= config.getMaxPages()) {
+                int windowEnd = Math.min(nextPage + parallelism - 1, config.getMaxPages());
+                List<WorkflowRunsResponse> pages = fetchWindow(repositoryId, owner, repo, nextPage, windowEnd, pageSize, config);
+
+                // Pages come back in order, so the first run seen for a commit is its newest
+                Map<String, Build> builds = new LinkedHashMap<>();
+                int runsFetched = 0;
+                Integer totalPages = null;
+                int lastPage = nextPage - 1;
+                for (WorkflowRunsResponse page : pages) {
+                    List<WorkflowRun> runs = page.getWorkflowRuns() != null ? page.getWorkflowRuns() : List.of();
+                    lastPage++;
+                    runsFetched += runs.size();
+                    if (page.getTotalCount() != null) {
+                        totalPages = (page.getTotalCount() + pageSize - 1) / pageSize;
+                    }
+                    for (WorkflowRun run : runs) {
+                        if (run.getHeadSha() != null) {
+                            builds.computeIfAbsent(run.getHeadSha(), sha -> toBuild(run));
+                        }
+                    }
+                    if (runs.size() < pageSize) {
+                        lastPageReached = true;
+                        break;
+                    }
+                }
+
+                int inserted = backfillWriter.writeWindow(repositoryId, new ArrayList<>(builds.values()),
+                        lastPage, runsFetched, totalPages);
+                log.info("Backfill of {}/{}: pages {}-{} written, {} new builds", owner, repo, nextPage, lastPage, inserted);
+                nextPage = lastPage + 1;
+            }
+
+            backfillWriter.complete(repositoryId);
+            log.info("Backfill of {}/{} completed after page {}", owner, repo, nextPage - 1);
+        } catch (RuntimeException e) {
+            log.error("Backfill of {}/{} failed: {}", owner, repo, e.getMessage());
+            backfillWriter.fail(repositoryId, e.getMessage());
+        } finally {
+            running.remove(repositoryId);
+        }
+    }
+
+    /**
+     * Fetch pages [first, last] concurrently, retrying the window after a pause while the
+     * governor defers background requests for lack of rate limit budget
+     */
+    private List<WorkflowRunsResponse> fetchWindow(Long repositoryId, String owner, String repo, int first, int last,
+                                                   int pageSize, GitHubApiConfig.Backfill config) {
+        while (true) {
+            List<CompletableFuture<WorkflowRunsResponse>> futures = new ArrayList<>();
+            for (int page = first; page <= last; page++) {
+                int pageNumber = page;
+                futures.add(CompletableFuture.supplyAsync(
+                        () -> gitHubApiClient.getWorkflowRunsPage(owner, repo, pageNumber, pageSize),
+                        githubBackfillExecutor));
+            }
+
+            try {
+                return futures.stream().map(CompletableFuture::join).toList();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof GitHubApiException cause
+                        && cause.getStatusCode() == HttpStatus.TOO_MANY_REQUESTS.value()) {
+                    log.warn("Backfill of {}/{} out of rate limit budget at pages {}-{}, pausing {} ms",
+                            owner, repo, first, last, config.getRateLimitPauseMs());
+                    backfillWriter.touch(repositoryId);
+                    pause(config.getRateLimitPauseMs());
+                    continue;
+                }
+                if (e.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                throw e;
+            }
+        }
+    }
+
+    private Build toBuild(WorkflowRun run) {
+        Build build = gitHubActionsService.toBuild(run);
+        // Queued runs haven't started; builds.started_at is required
+        if (build.getStartedAt() == null) {
+            build.setStartedAt(run.getCreatedAt() != null ? run.getCreatedAt() : LocalDateTime.now());
+        }
+        return build;
+    }
+
+    private static void pause(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Backfill interrupted", e);
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package com.peraton.cicd.service;
+
+import com.peraton.cicd.config.GitHubApiConfig;
+import com.peraton.cicd.model.Build;
+import com.peraton.cicd.model.RepositoryBackfill;
+import com.peraton.cicd.repository.BuildRepository;
+import com.peraton.cicd.repository.RepositoryBackfillRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Deque;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Write side of {@link BackfillService}: checkpoint bookkeeping, and bulk loading of a
+ * window of builds with Postgres COPY.
+ *
+ * A window is copied into a temporary staging table and moved into builds with a single
+ * INSERT ... SELECT, in the same transaction that advances the checkpoint; a crash loses
+ * at most the window in progress. ON CONFLICT skips commits already stored, including
+ * ones a sync or webhook inserts concurrently and hasn't committed yet.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BackfillWriter {
+
+    private static final String CREATE_STAGING_TABLE = """
+            CREATE TEMP TABLE IF NOT EXISTS backfill_builds (
+                id BIGINT,
+                status VARCHAR(255),
+                commit_sha VARCHAR(255),
+                branch VARCHAR(255),
+                run_id BIGINT,
+                started_at TIMESTAMP,
+                completed_at TIMESTAMP
+            ) ON COMMIT DELETE ROWS
+            """;
+
+    private static final String COPY_STAGING = "COPY backfill_builds (id, status, commit_sha, branch, run_id, started_at, completed_at) "
+            + "FROM STDIN WITH (FORMAT csv)";
+
+    private static final String INSERT_NEW_BUILDS = """
+            INSERT INTO builds (id, repository_id, status, commit_sha, branch, run_id, started_at, completed_at)
+            SELECT s.id, ?, s.status, s.commit_sha, s.branch, s.run_id, s.started_at, s.completed_at
+            FROM backfill_builds s
+            ON CONFLICT (repository_id, commit_sha) DO NOTHING
+            """;
+
+    private final RepositoryBackfillRepository backfillRepository;
+    private final BuildRepository buildRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final GitHubApiConfig gitHubApiConfig;
+
+    /**
+     * Start a backfill, or resume it from its checkpoint if the last one didn't complete.
+     * The checkpoint row is locked while deciding, so of several instances starting the
+     * same backfill only one gets it.
+     *
+     * @param repositoryId Repository ID
+     * @return Checkpoint to continue from, or empty if the backfill is RUNNING and made
+     *         progress within github.api.backfill.stale-after-ms, on this or another instance
+     */
+    @Transactional
+    public Optional<RepositoryBackfill> begin(Long repositoryId) {
+        RepositoryBackfill backfill = backfillRepository.findByIdForUpdate(repositoryId).orElse(null);
+        if (backfill != null && backfill.getStatus() == RepositoryBackfill.BackfillStatus.RUNNING) {
+            LocalDateTime staleBefore = LocalDateTime.now().minus(Duration.ofMillis(gitHubApiConfig.getBackfill().getStaleAfterMs()));
+            if (backfill.getUpdatedAt().isAfter(staleBefore)) {
+                return Optional.empty();
+            }
+            log.warn("Taking over backfill of repository {}, no progress since {}", repositoryId, backfill.getUpdatedAt());
+        }
+
+        if (backfill == null || backfill.getStatus() == RepositoryBackfill.BackfillStatus.COMPLETED) {
+            backfill = new RepositoryBackfill();
+            backfill.setRepositoryId(repositoryId);
+            backfill.setStartedAt(LocalDateTime.now());
+        } else if (backfill.getPagesCompleted() > 0) {
+            log.info("Resuming backfill of repository {} after page {}", repositoryId, backfill.getPagesCompleted());
+        }
+        backfill.setStatus(RepositoryBackfill.BackfillStatus.RUNNING);
+        backfill.setLastError(null);
+        backfill.setCompletedAt(null);
+        return Optional.of(backfillRepository.save(backfill));
+    }
+
+    /**
+     * Mark a backfill as alive while it waits, so it isn't taken over as stale
+     *
+     * @param repositoryId Repository ID
+     */
+    @Transactional
+    public void touch(Long repositoryId) {
+        backfillRepository.findById(repositoryId).ifPresent(backfill -> {
+            backfill.setUpdatedAt(LocalDateTime.now());
+            backfillRepository.save(backfill);
+        });
+    }
+
+    /**
+     * Load a window of builds and advance the checkpoint past its pages
+     *
+     * @param repositoryId Repository ID
+     * @param builds Builds to insert, at most one per commit; commits already stored are skipped
+     * @param lastPage Last page of the window
+     * @param runsFetched Runs listed on the window's pages
+     * @param totalPages Current estimate of the page count, or null if unknown
+     * @return Number of builds inserted
+     */
+    @Transactional
+    public int writeWindow(Long repositoryId, List<Build> builds, int lastPage, int runsFetched, Integer totalPages) {
+        int inserted = builds.isEmpty() ? 0 : copyBuilds(repositoryId, builds);
+
+        RepositoryBackfill backfill = backfillRepository.findById(repositoryId)
+                .orElseThrow(() -> new IllegalStateException("No backfill checkpoint for repository " + repositoryId));
+        backfill.setPagesCompleted(lastPage);
+        backfill.setRunsFetched(backfill.getRunsFetched() + runsFetched);
+        backfill.setBuildsInserted(backfill.getBuildsInserted() + inserted);
+        if (totalPages != null) {
+            backfill.setTotalPages(Math.max(totalPages, lastPage));
+        }
+        backfillRepository.save(backfill);
+        return inserted;
+    }
+
+    @Transactional
+    public void complete(Long repositoryId) {
+        backfillRepository.findById(repositoryId).ifPresent(backfill -> {
+            backfill.setStatus(RepositoryBackfill.BackfillStatus.COMPLETED);
+            backfill.setTotalPages(backfill.getPagesCompleted());
+            backfill.setCompletedAt(LocalDateTime.now());
+            backfillRepository.save(backfill);
+        });
+    }
+
+    @Transactional
+    public void fail(Long repositoryId, String error) {
+        backfillRepository.findById(repositoryId).ifPresent(backfill -> {
+            backfill.setStatus(RepositoryBackfill.BackfillStatus.FAILED);
+            backfill.setLastError(error != null && error.length() > 1000 ? error.substring(0, 1000) : error);
+            backfillRepository.save(backfill);
+        });
+    }
+
+    private int copyBuilds(Long repositoryId, List<Build> builds) {
+        Deque<Long> ids = buildRepository.allocateIds(builds.size());
+
+        // Runs in the surrounding transaction's connection
+        return jdbcTemplate.execute((ConnectionCallback<Integer>) connection -> {
+            StringBuilder csv = new StringBuilder(builds.size() * 128);
+            for (Build build : builds) {
+                csv.append(ids.removeFirst()).append(',')
+                        .append(build.getStatus().name()).append(',')
+                        .append(build.getCommitSha()).append(',')
+                        .append(build.getBranch() != null ? csvQuote(build.getBranch()) : "").append(',')
+                        .append(build.getRunId() != null ? build.getRunId() : "").append(',')
+                        .append(build.getStartedAt()).append(',')
+                        .append(build.getCompletedAt() != null ? build.getCompletedAt() : "").append('\n');
+            }
+
+            try (Statement statement = connection.createStatement()) {
+                statement.execute(CREATE_STAGING_TABLE);
+            }
+            try {
+                CopyManager copyManager = connection.unwrap(PGConnection.class).getCopyAPI();
+                copyManager.copyIn(COPY_STAGING, new StringReader(csv.toString()));
+            } catch (IOException e) {
+                throw new SQLException("COPY into backfill staging table failed", e);
+            }
+
+            try (PreparedStatement insert = connection.prepareStatement(INSERT_NEW_BUILDS)) {
+                insert.setLong(1, repositoryId);
+                return insert.executeUpdate();
+            }
+        });
+    }
+
+    /**
+     * Quote a free-text CSV field; an unquoted empty field would load as NULL
+     */
+    private static String csvQuote(String value) {
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
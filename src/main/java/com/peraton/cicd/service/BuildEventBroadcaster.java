@@ -0,0 +1,267 @@
+package com.peraton.cicd.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.peraton.cicd.config.BuildEventsConfig;
+import com.peraton.cicd.dto.BuildEventDto;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Server-Sent Events feed of build changes behind GET /api/builds/stream.
+ *
+ * Events reach every instance from {@link BuildEventListener}, are numbered in arrival
+ * order and kept in a ring buffer of the last build-events.buffer-size, so a client that
+ * reconnects with Last-Event-ID is sent what it missed. A client too far behind, or
+ * resuming an ID handed out by another instance or before a restart, is sent a reset
+ * event instead and should reload.
+ *
+ * The buffer and the subscriber list are only touched from the single buildEventExecutor
+ * thread, which keeps replay and live delivery to a new subscriber in order without locks.
+ * Heartbeats are timed by a thread of their own rather than the shared @Scheduled thread,
+ * which a long sync cycle or status refresh can hold for minutes.
+ */
+@Service
+@Slf4j
+public class BuildEventBroadcaster {
+
+    private static final String BUILD_EVENT = "build";
+    private static final String RESET_EVENT = "reset";
+
+    private final BuildEventsConfig buildEventsConfig;
+    private final ObjectMapper objectMapper;
+    private final ThreadPoolTaskExecutor buildEventExecutor;
+
+    // Prefix of this instance's event IDs, so IDs from before a restart aren't mistaken for its own
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+
+    private final Deque<StoredEvent> recentEvents = new ArrayDeque<>();
+    private final List<Subscriber> subscribers = new ArrayList<>();
+    private long lastSequence;
+
+    private ScheduledExecutorService heartbeatScheduler;
+
+    public BuildEventBroadcaster(BuildEventsConfig buildEventsConfig,
+                                 ObjectMapper objectMapper,
+                                 @Qualifier("buildEventExecutor") ThreadPoolTaskExecutor buildEventExecutor) {
+        this.buildEventsConfig = buildEventsConfig;
+        this.objectMapper = objectMapper;
+        this.buildEventExecutor = buildEventExecutor;
+    }
+
+    /**
+     * Open a stream of build events
+     *
+     * @param repositoryId Only send events for this repository, or null for all
+     * @param lastEventId ID of the last event the client received, or null for a new stream
+     * @return Emitter to return from the request handler, or empty if
+     *         build-events.max-subscribers streams are already open
+     */
+    public Optional<SseEmitter> subscribe(Long repositoryId, String lastEventId) {
+        if (subscriberCount.incrementAndGet() > buildEventsConfig.getMaxSubscribers()) {
+            subscriberCount.decrementAndGet();
+            log.warn("Refusing build event stream, {} already open", buildEventsConfig.getMaxSubscribers());
+            return Optional.empty();
+        }
+
+        SseEmitter emitter = new SseEmitter(buildEventsConfig.getEmitterTimeout());
+        Subscriber subscriber = new Subscriber(emitter, repositoryId);
+        emitter.onCompletion(() -> unsubscribe(subscriber));
+        emitter.onTimeout(() -> unsubscribe(subscriber));
+        emitter.onError(e -> unsubscribe(subscriber));
+
+        execute(() -> register(subscriber, lastEventId));
+        return Optional.of(emitter);
+    }
+
+    /**
+     * Number and send a build event received from the database
+     *
+     * @param payload Event as published by {@link BuildEventPublisher}
+     */
+    public void dispatch(String payload) {
+        BuildEventDto event;
+        try {
+            event = objectMapper.readValue(payload, BuildEventDto.class);
+        } catch (JsonProcessingException e) {
+            log.warn("Ignoring malformed build event: {}", e.getMessage());
+            return;
+        }
+        Long repositoryId = event.getBuild() != null ? event.getBuild().getRepositoryId() : null;
+
+        execute(() -> {
+            StoredEvent stored = new StoredEvent(++lastSequence, repositoryId, payload);
+            recentEvents.addLast(stored);
+            while (recentEvents.size() > Math.max(1, buildEventsConfig.getBufferSize())) {
+                recentEvents.removeFirst();
+            }
+            for (Subscriber subscriber : subscribers) {
+                if (subscriber.matches(stored)) {
+                    send(subscriber, toSseEvent(stored));
+                }
+            }
+        });
+    }
+
+    /**
+     * Tell every client to reload, after events may have been missed (e.g. while the
+     * listener was reconnecting). Clients resuming from before this are reset as well.
+     */
+    public void resetAll() {
+        execute(() -> {
+            lastSequence++;
+            recentEvents.clear();
+            for (Subscriber subscriber : subscribers) {
+                send(subscriber, resetEvent());
+            }
+        });
+    }
+
+    @PostConstruct
+    public void startHeartbeats() {
+        long interval = Math.max(1000, buildEventsConfig.getHeartbeatInterval());
+        heartbeatScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "build-event-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+        heartbeatScheduler.scheduleAtFixedRate(this::sendHeartbeats, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stopHeartbeats() {
+        heartbeatScheduler.shutdownNow();
+    }
+
+    /**
+     * Keep idle streams from being closed by proxies, and notice clients that went away
+     */
+    void sendHeartbeats() {
+        execute(() -> {
+            for (Subscriber subscriber : subscribers) {
+                send(subscriber, SseEmitter.event().comment("heartbeat"));
+            }
+        });
+    }
+
+    private void register(Subscriber subscriber, String lastEventId) {
+        if (subscriber.closed.get()) {
+            return;
+        }
+        subscribers.add(subscriber);
+        // Sent right away so the response is committed and the client sees the stream open
+        send(subscriber, SseEmitter.event().comment("connected"));
+
+        if (lastEventId == null || lastEventId.isBlank()) {
+            return;
+        }
+        Long after = parseSequence(lastEventId);
+        long oldestKept = recentEvents.isEmpty() ? lastSequence + 1 : recentEvents.peekFirst().sequence();
+        if (after == null || after > lastSequence || after < oldestKept - 1) {
+            log.debug("Cannot resume build event stream from {}, sending reset", lastEventId);
+            send(subscriber, resetEvent());
+            return;
+        }
+        for (StoredEvent stored : recentEvents) {
+            if (stored.sequence() > after && subscriber.matches(stored)) {
+                send(subscriber, toSseEvent(stored));
+            }
+        }
+    }
+
+    private void unsubscribe(Subscriber subscriber) {
+        if (subscriber.closed.compareAndSet(false, true)) {
+            subscriberCount.decrementAndGet();
+            execute(() -> subscribers.remove(subscriber));
+        }
+    }
+
+    private void send(Subscriber subscriber, SseEmitter.SseEventBuilder event) {
+        try {
+            subscriber.emitter.send(event);
+        } catch (IOException | IllegalStateException e) {
+            // The client went away; the container completes the emitter
+            unsubscribe(subscriber);
+        }
+    }
+
+    private void execute(Runnable task) {
+        try {
+            buildEventExecutor.execute(task);
+        } catch (TaskRejectedException e) {
+            log.debug("Build event executor shut down, dropping task");
+        }
+    }
+
+    private SseEmitter.SseEventBuilder toSseEvent(StoredEvent stored) {
+        return SseEmitter.event()
+                .id(eventId(stored.sequence()))
+                .name(BUILD_EVENT)
+                .data(stored.payload(), MediaType.APPLICATION_JSON);
+    }
+
+    private SseEmitter.SseEventBuilder resetEvent() {
+        return SseEmitter.event()
+                .id(eventId(lastSequence))
+                .name(RESET_EVENT)
+                .data("{}", MediaType.APPLICATION_JSON);
+    }
+
+    private String eventId(long sequence) {
+        return epoch + "-" + sequence;
+    }
+
+    /**
+     * Sequence number of one of this instance's event IDs, or null for any other ID
+     */
+    private Long parseSequence(String eventId) {
+        int separator = eventId.lastIndexOf('-');
+        if (separator < 0 || !eventId.substring(0, separator).equals(epoch)) {
+            return null;
+        }
+        try {
+            return Long.parseLong(eventId.substring(separator + 1));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private record StoredEvent(long sequence, Long repositoryId, String payload) {
+    }
+
+    private static final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final Long repositoryId;
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private Subscriber(SseEmitter emitter, Long repositoryId) {
+            this.emitter = emitter;
+            this.repositoryId = repositoryId;
+        }
+
+        private boolean matches(StoredEvent event) {
+            return repositoryId == null || repositoryId.equals(event.repositoryId());
+        }
+    }
+}
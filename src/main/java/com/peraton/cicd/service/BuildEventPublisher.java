@@ -0,0 +1,103 @@
+package com.peraton.cicd.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.peraton.cicd.dto.BuildDto;
+import com.peraton.cicd.dto.BuildEventDto;
+import com.peraton.cicd.model.Build;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Array;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Announces build changes to the {@link BuildEventBroadcaster} of every instance, through
+ * Postgres NOTIFY on the build_events channel.
+ *
+ * Notifications are sent on the caller's transaction and Postgres delivers them only once
+ * it commits, so a change rolled back is never announced, and a build announced is
+ * already visible to the clients that go on to read it.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BuildEventPublisher {
+
+    static final String CHANNEL = "build_events";
+
+    // NOTIFY payloads must be shorter than 8000 bytes
+    private static final int MAX_PAYLOAD_BYTES = 7999;
+
+    private static final String NOTIFY = "SELECT pg_notify('" + CHANNEL + "', payload) FROM unnest(?) AS payload";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    public void created(Build build) {
+        created(List.of(build));
+    }
+
+    public void created(List<Build> builds) {
+        publish(builds.stream()
+                .map(build -> event(BuildEventDto.EventType.CREATED, build, null))
+                .toList());
+    }
+
+    public void updated(Build build, Build.BuildStatus previousStatus) {
+        publish(List.of(event(BuildEventDto.EventType.UPDATED, build, previousStatus)));
+    }
+
+    public void deleted(Build build) {
+        publish(List.of(event(BuildEventDto.EventType.DELETED, build, null)));
+    }
+
+    private static BuildEventDto event(BuildEventDto.EventType type, Build build, Build.BuildStatus previousStatus) {
+        return BuildEventDto.builder()
+                .type(type)
+                .previousStatus(previousStatus != null ? previousStatus.name() : null)
+                .build(BuildDto.fromEntity(build))
+                .build();
+    }
+
+    private void publish(List<BuildEventDto> events) {
+        List<String> payloads = new ArrayList<>(events.size());
+        for (BuildEventDto event : events) {
+            String payload = toJson(event);
+            if (payload.getBytes(StandardCharsets.UTF_8).length > MAX_PAYLOAD_BYTES) {
+                log.warn("Build event for build {} too large to announce", event.getBuild().getId());
+                continue;
+            }
+            payloads.add(payload);
+        }
+        if (payloads.isEmpty()) {
+            return;
+        }
+
+        // One round trip for the whole batch, on the surrounding transaction's connection
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            Array array = connection.createArrayOf("text", payloads.toArray());
+            try (PreparedStatement statement = connection.prepareStatement(NOTIFY)) {
+                statement.setArray(1, array);
+                statement.execute();
+            } finally {
+                array.free();
+            }
+            return null;
+        });
+    }
+
+    private String toJson(BuildEventDto event) {
+        try {
+            return objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize build event", e);
+        }
+    }
+}
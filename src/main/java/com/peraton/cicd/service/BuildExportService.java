@@ -0,0 +1,142 @@
+package com.peraton.cicd.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.peraton.cicd.dto.BuildDto;
+import com.peraton.cicd.dto.BuildFilter;
+import com.peraton.cicd.model.Build;
+import com.peraton.cicd.repository.BuildRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Streaming export of build history behind GET /api/builds/export.
+ *
+ * Builds are read through a database cursor and written to the response as they arrive,
+ * and the persistence context is cleared every batch, so the heap used by an export stays
+ * flat however many rows it covers.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BuildExportService {
+
+    // Rows written between persistence context clears and output flushes
+    private static final int BATCH_SIZE = 1000;
+
+    private static final String CSV_HEADER =
+            "id,repository_id,repository_name,status,commit_sha,branch,started_at,completed_at";
+
+    private final BuildRepository buildRepository;
+    private final ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public enum ExportFormat {
+        NDJSON("application/x-ndjson", "ndjson"),
+        CSV("text/csv", "csv");
+
+        private final String contentType;
+        private final String fileExtension;
+
+        ExportFormat(String contentType, String fileExtension) {
+            this.contentType = contentType;
+            this.fileExtension = fileExtension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getFileExtension() {
+            return fileExtension;
+        }
+    }
+
+    /**
+     * Write the builds matching a filter to a stream, newest first
+     *
+     * @param filter Filters to apply
+     * @param format Output format: one JSON object per line, or CSV with a header row
+     * @param out Destination; flushed but not closed
+     * @return Number of builds written
+     * @throws IOException if writing fails, e.g. because the client disconnected
+     */
+    @Transactional(readOnly = true)
+    public long exportBuilds(BuildFilter filter, ExportFormat format, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        if (format == ExportFormat.CSV) {
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+        }
+
+        long count = 0;
+        try (Stream<Build> builds = buildRepository.streamBuilds(filter)) {
+            Iterator<Build> iterator = builds.iterator();
+            while (iterator.hasNext()) {
+                BuildDto build = BuildDto.fromEntity(iterator.next());
+                if (format == ExportFormat.CSV) {
+                    writeCsvRow(writer, build);
+                } else {
+                    writer.write(objectMapper.writeValueAsString(build));
+                    writer.write('\n');
+                }
+
+                if (++count % BATCH_SIZE == 0) {
+                    // Exported builds (and their repositories) are never needed again
+                    entityManager.clear();
+                    writer.flush();
+                }
+            }
+        }
+
+        writer.flush();
+        log.info("Exported {} builds as {}", count, format);
+        return count;
+    }
+
+    private static void writeCsvRow(Writer writer, BuildDto build) throws IOException {
+        writer.write(String.valueOf(build.getId()));
+        writer.write(',');
+        writer.write(String.valueOf(build.getRepositoryId()));
+        writer.write(',');
+        writer.write(csvField(build.getRepositoryName()));
+        writer.write(',');
+        writer.write(build.getStatus());
+        writer.write(',');
+        writer.write(csvField(build.getCommitSha()));
+        writer.write(',');
+        writer.write(csvField(build.getBranch()));
+        writer.write(',');
+        writer.write(build.getStartedAt() != null ? build.getStartedAt().toString() : "");
+        writer.write(',');
+        writer.write(build.getCompletedAt() != null ? build.getCompletedAt().toString() : "");
+        writer.write('\n');
+    }
+
+    /**
+     * Quote a free-text field if it contains a delimiter, quote or line break (RFC 4180)
+     */
+    private static String csvField(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
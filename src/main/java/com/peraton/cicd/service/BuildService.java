@@ -1,6 +1,10 @@
 package com.peraton.cicd.service;
 
 import com.peraton.cicd.dto.BuildDto;
+import com.peraton.cicd.dto.BuildFilter;
+import com.peraton.cicd.dto.BuildPageDto;
+import com.peraton.cicd.dto.BuildView;
+import com.peraton.cicd.dto.RepositorySummaryDto;
 import com.peraton.cicd.dto.SyncRequest;
 import com.peraton.cicd.dto.SyncResponse;
 import com.peraton.cicd.exception.GitHubApiException;
@@ -13,6 +17,10 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
@@ -22,22 +30,57 @@ import java.util.stream.Collectors;
 @Slf4j
 public class BuildService {
 
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 200;
+
+    // The unpaginated list endpoints return at most this many of the newest matching builds
+    private static final int LIST_LIMIT = 1000;
+
     private final BuildRepository buildRepository;
     private final RepositoryRepository repositoryRepository;
-    private final GitHubActionsService gitHubActionsService;
+    private final RepositorySyncCoordinator repositorySyncCoordinator;
+    private final BuildEventPublisher buildEventPublisher;
 
     /**
      * Get all builds
      *
-     * @return List of BuildDto
+     * @return List of BuildDto, the newest first and at most 1000 of them
      */
     @Transactional(readOnly = true)
     public List<BuildDto> getAllBuilds() {
         log.debug("Fetching all builds");
-        List<Build> builds = buildRepository.findAll();
-        return builds.stream()
-                .map(BuildDto::fromEntity)
-                .collect(Collectors.toList());
+        return listBuilds(new BuildFilter());
+    }
+
+    /**
+     * Get one page of the builds matching a filter, newest first
+     *
+     * @param filter Filters to apply
+     * @param cursor nextCursor of the previous page, or null for the first page
+     * @param size Page size, capped at MAX_PAGE_SIZE
+     * @return Page of builds with the cursor of the next page
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    @Transactional(readOnly = true)
+    public BuildPageDto queryBuilds(BuildFilter filter, String cursor, Integer size) {
+        int pageSize = size == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+
+        Cursor after = cursor != null && !cursor.isBlank() ? Cursor.decode(cursor) : new Cursor(null, null);
+
+        // One extra row tells whether another page follows
+        List<BuildView> builds = buildRepository.findPage(filter, after.startedAt(), after.id(), pageSize + 1);
+        boolean hasMore = builds.size() > pageSize;
+        if (hasMore) {
+            builds = builds.subList(0, pageSize);
+        }
+
+        BuildView last = builds.isEmpty() ? null : builds.get(builds.size() - 1);
+        return BuildPageDto.builder()
+                .builds(builds.stream().map(BuildView::toDto).toList())
+                .size(builds.size())
+                .hasMore(hasMore)
+                .nextCursor(hasMore ? new Cursor(last.startedAt(), last.id()).encode() : null)
+                .build();
     }
 
     /**
@@ -49,8 +92,8 @@ public class BuildService {
     @Transactional(readOnly = true)
     public Optional<BuildDto> getBuildById(Long id) {
         log.debug("Fetching build with id: {}", id);
-        return buildRepository.findById(id)
-                .map(BuildDto::fromEntity);
+        return buildRepository.findViewById(id)
+                .map(BuildView::toDto);
     }
 
     /**
@@ -62,10 +105,18 @@ public class BuildService {
     @Transactional(readOnly = true)
     public List<BuildDto> getBuildsByRepositoryId(Long repositoryId) {
         log.debug("Fetching builds for repository id: {}", repositoryId);
-        List<Build> builds = buildRepository.findByRepositoryId(repositoryId);
-        return builds.stream()
-                .map(BuildDto::fromEntity)
-                .collect(Collectors.toList());
+        return listBuilds(BuildFilter.builder().repositoryId(repositoryId).build());
+    }
+
+    /**
+     * Get every repository with its latest build and build counts per status, in one query
+     *
+     * @return List of RepositorySummaryDto ordered by repository name
+     */
+    @Transactional(readOnly = true)
+    public List<RepositorySummaryDto> getRepositorySummaries() {
+        log.debug("Fetching repository summaries");
+        return repositoryRepository.findRepositorySummaries();
     }
 
     /**
@@ -77,10 +128,7 @@ public class BuildService {
     @Transactional(readOnly = true)
     public List<BuildDto> getBuildsByStatus(Build.BuildStatus status) {
         log.debug("Fetching builds with status: {}", status);
-        List<Build> builds = buildRepository.findByStatus(status);
-        return builds.stream()
-                .map(BuildDto::fromEntity)
-                .collect(Collectors.toList());
+        return listBuilds(BuildFilter.builder().status(status).build());
     }
 
     /**
@@ -91,7 +139,6 @@ public class BuildService {
      * @throws IllegalArgumentException if repository not found
      * @throws GitHubApiException if GitHub API call fails
      */
-    @Transactional
     public SyncResponse syncBuildsFromGitHub(SyncRequest syncRequest) {
         log.info("Starting sync for repository: {}/{}", syncRequest.getOwner(), syncRequest.getRepo());
 
@@ -107,7 +154,7 @@ public class BuildService {
 
         try {
             // Call GitHub Actions service to sync
-            int syncedCount = gitHubActionsService.syncWorkflowRunsToDatabase(
+            int syncedCount = repositorySyncCoordinator.sync(
                     syncRequest.getOwner(),
                     syncRequest.getRepo(),
                     syncRequest.getRepositoryId()
@@ -152,6 +199,7 @@ public class BuildService {
         build.setRepository(repository);
 
         Build savedBuild = buildRepository.save(build);
+        buildEventPublisher.created(savedBuild);
         log.info("Build created successfully with id: {}", savedBuild.getId());
 
         return BuildDto.fromEntity(savedBuild);
@@ -174,6 +222,8 @@ public class BuildService {
                         String.format("Build not found with ID: %d", id)
                 ));
 
+        Build.BuildStatus previousStatus = build.getStatus();
+
         // Update fields
         if (buildDto.getStatus() != null) {
             build.setStatus(Build.BuildStatus.valueOf(buildDto.getStatus()));
@@ -189,6 +239,7 @@ public class BuildService {
         }
 
         Build updatedBuild = buildRepository.save(build);
+        buildEventPublisher.updated(updatedBuild, previousStatus);
         log.info("Build updated successfully: {}", id);
 
         return BuildDto.fromEntity(updatedBuild);
@@ -204,13 +255,43 @@ public class BuildService {
     public void deleteBuild(Long id) {
         log.info("Deleting build with id: {}", id);
 
-        if (!buildRepository.existsById(id)) {
-            throw new IllegalArgumentException(
-                    String.format("Build not found with ID: %d", id)
-            );
-        }
+        Build build = buildRepository.findById(id)
+                .orElseThrow(() -> new IllegalArgumentException(
+                        String.format("Build not found with ID: %d", id)
+                ));
 
-        buildRepository.deleteById(id);
+        // Announced with the state it was deleted in, so clients can adjust their counts
+        buildEventPublisher.deleted(build);
+        buildRepository.delete(build);
         log.info("Build deleted successfully: {}", id);
     }
+
+    private List<BuildDto> listBuilds(BuildFilter filter) {
+        return buildRepository.findPage(filter, null, null, LIST_LIMIT).stream()
+                .map(BuildView::toDto)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Sort key of the last build of a page, passed to clients as an opaque string
+     */
+    record Cursor(LocalDateTime startedAt, Long id) {
+
+        String encode() {
+            String position = startedAt + "|" + id;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static Cursor decode(String cursor) {
+            try {
+                String[] position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|");
+                if (position.length == 2) {
+                    return new Cursor(LocalDateTime.parse(position[0]), Long.valueOf(position[1]));
+                }
+            } catch (IllegalArgumentException | DateTimeParseException e) {
+                // Reported below
+            }
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+    }
 }
@@ -0,0 +1,205 @@
+package com.peraton.cicd.service;
+
+import com.peraton.cicd.config.GitHubApiConfig;
+import com.peraton.cicd.dto.github.BuildStatusBatchResponse;
+import com.peraton.cicd.dto.github.BuildStatusDto;
+import com.peraton.cicd.exception.GitHubApiException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Latest build status of many repositories in one call.
+ *
+ * Lookups run concurrently on the bounded githubStatusExecutor, so a batch costs
+ * about one GitHub round trip of latency. Every repository gets its own result:
+ * failures, rejected lookups and lookups still pending at github.api.batch.timeout-ms
+ * are reported per repository instead of failing the whole batch.
+ *
+ * With github.api.graphql.enabled, repositories are looked up in GraphQL queries of
+ * github.api.graphql.batch-size instead of one REST call each; see {@link GitHubGraphQlClient}
+ * for how the reported run differs.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BuildStatusBatchService {
+
+    private final GitHubActionsService gitHubActionsService;
+    private final GitHubGraphQlClient gitHubGraphQlClient;
+    private final GitHubApiConfig gitHubApiConfig;
+    @Qualifier("githubStatusExecutor")
+    private final ThreadPoolTaskExecutor githubStatusExecutor;
+
+    /**
+     * Get the latest build status of each repository
+     *
+     * @param repositories "owner/repo" entries; duplicates are looked up once
+     * @return One result per distinct repository, in request order
+     * @throws IllegalArgumentException if the list is empty or exceeds github.api.batch.max-repositories
+     */
+    public BuildStatusBatchResponse getLatestBuildStatuses(List<String> repositories) {
+        Set<String> distinct = new LinkedHashSet<>();
+        if (repositories != null) {
+            repositories.stream()
+                    .filter(entry -> entry != null && !entry.isBlank())
+                    .map(String::trim)
+                    .forEach(distinct::add);
+        }
+
+        int maxRepositories = gitHubApiConfig.getBatch().getMaxRepositories();
+        if (distinct.isEmpty()) {
+            throw new IllegalArgumentException("At least one repository is required");
+        }
+        if (distinct.size() > maxRepositories) {
+            throw new IllegalArgumentException(String.format(
+                    "At most %d repositories can be requested at once, got %d", maxRepositories, distinct.size()));
+        }
+
+        log.info("Fetching latest build status for {} repositories", distinct.size());
+
+        List<String> keys = new ArrayList<>(distinct);
+        List<CompletableFuture<BuildStatusDto>> futures = gitHubApiConfig.getGraphql().isEnabled()
+                ? submitGraphQlBatches(keys)
+                : keys.stream().map(this::submit).toList();
+
+        awaitAll(futures, gitHubApiConfig.getBatch().getTimeoutMs());
+
+        List<BuildStatusBatchResponse.RepositoryBuildStatus> results = new ArrayList<>(keys.size());
+        int succeeded = 0;
+        for (int i = 0; i < keys.size(); i++) {
+            BuildStatusBatchResponse.RepositoryBuildStatus result = toResult(keys.get(i), futures.get(i));
+            if (result.getStatus() != null) {
+                succeeded++;
+            }
+            results.add(result);
+        }
+
+        return BuildStatusBatchResponse.builder()
+                .results(results)
+                .succeeded(succeeded)
+                .failed(results.size() - succeeded)
+                .build();
+    }
+
+    private CompletableFuture<BuildStatusDto> submit(String key) {
+        if (!isValidKey(key)) {
+            return CompletableFuture.failedFuture(new IllegalArgumentException("Expected owner/repo"));
+        }
+        String[] ownerAndRepo = key.split("/");
+
+        try {
+            return CompletableFuture.supplyAsync(
+                    () -> gitHubActionsService.getLatestBuildStatus(ownerAndRepo[0], ownerAndRepo[1]),
+                    githubStatusExecutor);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(new GitHubApiException(
+                    "Too many status lookups in progress", HttpStatus.SERVICE_UNAVAILABLE.value(), e));
+        }
+    }
+
+    /**
+     * One GraphQL query per batch; each repository's future completes from its batch
+     */
+    private List<CompletableFuture<BuildStatusDto>> submitGraphQlBatches(List<String> keys) {
+        int batchSize = Math.max(1, Math.min(100, gitHubApiConfig.getGraphql().getBatchSize()));
+        List<CompletableFuture<BuildStatusDto>> futures = new ArrayList<>(keys.size());
+
+        for (int start = 0; start < keys.size(); start += batchSize) {
+            List<String> batch = new ArrayList<>();
+            for (String key : keys.subList(start, Math.min(keys.size(), start + batchSize))) {
+                if (isValidKey(key)) {
+                    batch.add(key);
+                }
+            }
+
+            CompletableFuture<Map<String, Optional<BuildStatusDto>>> query;
+            try {
+                query = batch.isEmpty()
+                        ? CompletableFuture.completedFuture(Map.of())
+                        : CompletableFuture.supplyAsync(() -> gitHubGraphQlClient.getLatestRuns(batch), githubStatusExecutor);
+            } catch (RejectedExecutionException e) {
+                query = CompletableFuture.failedFuture(new GitHubApiException(
+                        "Too many status lookups in progress", HttpStatus.SERVICE_UNAVAILABLE.value(), e));
+            }
+
+            for (String key : keys.subList(start, Math.min(keys.size(), start + batchSize))) {
+                if (!isValidKey(key)) {
+                    futures.add(CompletableFuture.failedFuture(new IllegalArgumentException("Expected owner/repo")));
+                    continue;
+                }
+                futures.add(query.thenApply(results -> {
+                    Optional<BuildStatusDto> result = results.get(key);
+                    if (result == null) {
+                        throw new GitHubApiException("Repository not found or not accessible", HttpStatus.NOT_FOUND.value());
+                    }
+                    return result.orElseThrow(() -> new GitHubApiException(
+                            "No workflow runs found for repository", HttpStatus.NOT_FOUND.value()));
+                }));
+            }
+        }
+        return futures;
+    }
+
+    private static boolean isValidKey(String key) {
+        String[] ownerAndRepo = key.split("/");
+        return ownerAndRepo.length == 2 && !ownerAndRepo[0].isBlank() && !ownerAndRepo[1].isBlank();
+    }
+
+    private static void awaitAll(List<CompletableFuture<BuildStatusDto>> futures, long timeoutMs) {
+        try {
+            CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            log.warn("Batched status lookup timed out after {} ms, returning partial results", timeoutMs);
+        } catch (ExecutionException e) {
+            // Individual failures are reported per repository
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static BuildStatusBatchResponse.RepositoryBuildStatus toResult(String key, CompletableFuture<BuildStatusDto> future) {
+        BuildStatusBatchResponse.RepositoryBuildStatus.RepositoryBuildStatusBuilder result =
+                BuildStatusBatchResponse.RepositoryBuildStatus.builder().repository(key);
+
+        if (!future.isDone()) {
+            future.cancel(false);
+            return result.errorCode(HttpStatus.GATEWAY_TIMEOUT.value())
+                    .error("Timed out waiting for GitHub")
+                    .build();
+        }
+
+        try {
+            return result.status(future.join()).build();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            if (cause instanceof GitHubApiException apiException) {
+                int statusCode = apiException.getStatusCode() > 0
+                        ? apiException.getStatusCode()
+                        : HttpStatus.INTERNAL_SERVER_ERROR.value();
+                return result.errorCode(statusCode).error(apiException.getMessage()).build();
+            }
+            if (cause instanceof IllegalArgumentException) {
+                return result.errorCode(HttpStatus.BAD_REQUEST.value()).error(cause.getMessage()).build();
+            }
+            log.error("Unexpected error fetching build status for {}: {}", key, cause.getMessage(), cause);
+            return result.errorCode(HttpStatus.INTERNAL_SERVER_ERROR.value()).error(cause.getMessage()).build();
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package com.peraton.cicd.service;
+
+import com.peraton.cicd.config.SchedulingConfig;
+import com.peraton.cicd.dto.github.WorkflowRun;
+import com.peraton.cicd.dto.github.WorkflowRunsResponse;
+import com.peraton.cicd.exception.GitHubApiException;
+import com.peraton.cicd.model.Build;
+import com.peraton.cicd.repository.BuildRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Refreshes builds that are still PENDING or IN_PROGRESS. The sync only inserts
+ * new builds, so this stage is what moves them to their final status. Its cost
+ * is one GitHub call per in-flight build, independent of the build history size.
+ *
+ * A build whose run can't be found any more (deleted run, repository gone or renamed, or
+ * no run at all for its commit), or that has been in flight for longer than
+ * scheduler.status-refresh-max-age, is cancelled rather than polled forever. A 404 may
+ * also mean the token used has no access to the repository, so a missing run is looked
+ * up again by commit, and a repository only counts as gone once every token of
+ * {@link GitHubCredentialPool} has been refused.
+ *
+ * Every instance runs the refresh, but only for the repositories it can lease from
+ * {@link RepositorySyncQueue}, so each in-flight build is polled by one instance per
+ * cycle. Repositories leased elsewhere, e.g. while being synced, are refreshed next cycle.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@ConditionalOnProperty(prefix = "scheduler", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class BuildStatusRefreshService {
+
+    private static final List<Build.BuildStatus> ACTIVE_STATUSES =
+            List.of(Build.BuildStatus.PENDING, Build.BuildStatus.IN_PROGRESS);
+
+    private final BuildRepository buildRepository;
+    private final GitHubApiClient gitHubApiClient;
+    private final GitHubActionsService gitHubActionsService;
+    private final GitHubRepositoryResolver gitHubRepositoryResolver;
+    private final GitHubCredentialPool credentialPool;
+    private final RepositorySyncQueue repositorySyncQueue;
+    private final SchedulingConfig schedulingConfig;
+    @Qualifier("githubSyncExecutor")
+    private final ThreadPoolTaskExecutor githubSyncExecutor;
+
+    /**
+     * Scheduled task that polls GitHub for the current state of every in-flight build
+     */
+    @Scheduled(fixedDelayString = "${scheduler.status-refresh-rate:60000}",
+            initialDelayString = "${scheduler.status-refresh-rate:60000}")
+    public void refreshActiveBuilds() {
+        if (!schedulingConfig.isEnabled()) {
+            return;
+        }
+
+        List<Build> activeBuilds = buildRepository.findByStatusInWithRepository(ACTIVE_STATUSES);
+        if (activeBuilds.isEmpty()) {
+            log.debug("No in-flight builds to refresh");
+            return;
+        }
+
+        Set<Long> repositoryIds = activeBuilds.stream()
+                .map(build -> build.getRepository().getId())
+                .collect(Collectors.toSet());
+        Set<Long> leased = repositorySyncQueue.claimAll(repositoryIds);
+        try {
+            refresh(activeBuilds.stream()
+                    .filter(build -> leased.contains(build.getRepository().getId()))
+                    .toList(), activeBuilds.size());
+        } finally {
+            leased.forEach(this::releaseLease);
+        }
+    }
+
+    private void refresh(List<Build> builds, int activeCount) {
+        if (builds.size() < activeCount) {
+            log.info("Refreshing {} in-flight builds, {} belong to repositories leased by another sync or instance",
+                    builds.size(), activeCount - builds.size());
+        } else {
+            log.info("Refreshing {} in-flight builds", builds.size());
+        }
+
+        AtomicInteger updatedCount = new AtomicInteger();
+        AtomicInteger cancelledCount = new AtomicInteger();
+        AtomicInteger failureCount = new AtomicInteger();
+        // startedAt comes from GitHub in UTC
+        LocalDateTime startedBefore = LocalDateTime.now(ZoneOffset.UTC)
+                .minus(Duration.ofMillis(schedulingConfig.getStatusRefreshMaxAge()));
+
+        // Same time budget as a sync cycle, so a degraded GitHub can't stall the refresh
+        Instant deadline = Instant.now().plusMillis(schedulingConfig.getSyncDeadline());
+        CompletableFuture<?>[] futures = builds.stream()
+                .map(build -> CompletableFuture.runAsync(GitHubRequestContext.withDeadline(deadline, () -> {
+                    try {
+                        switch (refreshBuild(build, startedBefore)) {
+                            case UPDATED -> updatedCount.incrementAndGet();
+                            case CANCELLED -> cancelledCount.incrementAndGet();
+                            default -> { }
+                        }
+                    } catch (GitHubApiException e) {
+                        failureCount.incrementAndGet();
+                        log.warn("GitHub API error while refreshing build {}: {}", build.getId(), e.getMessage());
+                    } catch (Exception e) {
+                        failureCount.incrementAndGet();
+                        log.error("Unexpected error while refreshing build {}: {}", build.getId(), e.getMessage(), e);
+                    }
+                }), githubSyncExecutor))
+                .toArray(CompletableFuture[]::new);
+
+        CompletableFuture.allOf(futures).join();
+
+        log.info("In-flight build refresh completed. Updated: {}, Cancelled: {}, Failed: {}",
+                updatedCount.get(), cancelledCount.get(), failureCount.get());
+    }
+
+    private Outcome refreshBuild(Build build, LocalDateTime startedBefore) {
+        if (build.getStartedAt() != null && build.getStartedAt().isBefore(startedBefore)) {
+            return cancel(build, "still " + build.getStatus() + " after status-refresh-max-age");
+        }
+
+        Optional<String[]> ownerAndRepo = gitHubRepositoryResolver.resolve(build.getRepository());
+        if (ownerAndRepo.isEmpty()) {
+            log.warn("Could not resolve GitHub repository for build {}", build.getId());
+            return Outcome.UNCHANGED;
+        }
+
+        String owner = ownerAndRepo.get()[0];
+        String repo = ownerAndRepo.get()[1];
+
+        WorkflowRun run = null;
+        if (build.getRunId() != null) {
+            try {
+                run = gitHubApiClient.getWorkflowRun(owner, repo, build.getRunId());
+            } catch (GitHubApiException e) {
+                if (e.getStatusCode() != HttpStatus.NOT_FOUND.value()) {
+                    throw e;
+                }
+                log.debug("Workflow run {} of build {} not found, looking it up by commit", build.getRunId(), build.getId());
+            }
+        }
+
+        if (run == null) {
+            // Also how builds synced before run ids were stored are matched
+            WorkflowRunsResponse response;
+            try {
+                response = gitHubApiClient.getWorkflowRunsForCommit(owner, repo, build.getCommitSha());
+            } catch (GitHubApiException e) {
+                if (e.getStatusCode() != HttpStatus.NOT_FOUND.value()) {
+                    throw e;
+                }
+                if (credentialPool.isDeniedByEveryToken(owner, repo)) {
+                    return cancel(build, "repository " + owner + "/" + repo + " not found on GitHub with any token");
+                }
+                log.info("Repository {}/{} not found for build {} with one token, trying another next cycle",
+                        owner, repo, build.getId());
+                return Outcome.UNCHANGED;
+            }
+            if (response.getWorkflowRuns() == null || response.getWorkflowRuns().isEmpty()) {
+                return cancel(build, "no workflow run for commit " + build.getCommitSha());
+            }
+            run = response.getWorkflowRuns().get(0);
+        }
+
+        return gitHubActionsService.refreshBuildFromRun(build.getId(), run) ? Outcome.UPDATED : Outcome.UNCHANGED;
+    }
+
+    private void releaseLease(Long repositoryId) {
+        try {
+            repositorySyncQueue.release(repositoryId);
+        } catch (Exception e) {
+            log.warn("Could not release lease of repository {}, it expires on its own: {}", repositoryId, e.getMessage());
+        }
+    }
+
+    private Outcome cancel(Build build, String reason) {
+        return gitHubActionsService.cancelStaleBuild(build.getId(), reason) ? Outcome.CANCELLED : Outcome.UNCHANGED;
+    }
+
+    private enum Outcome {
+        UNCHANGED,
+        UPDATED,
+        CANCELLED
+    }
+}
@@ -0,0 +1,114 @@
+package com.peraton.cicd.service;
+
+import com.peraton.cicd.model.Build;
+import com.peraton.cicd.model.Repository;
+import com.peraton.cicd.model.RepositorySyncState;
+import com.peraton.cicd.repository.BuildRepository;
+import com.peraton.cicd.repository.RepositoryRepository;
+import com.peraton.cicd.repository.RepositorySyncStateRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Write stage of the workflow run sync.
+ *
+ * {@link GitHubActionsService#syncWorkflowRunsToDatabase} fetches and transforms runs
+ * without a transaction, so no pooled connection is held during GitHub round trips.
+ * This bean then applies the prepared batch in one short transaction: drop builds whose
+ * commit already exists, insert the rest, advance the high-water mark and store the ETag.
+ * The insert skips commits a webhook or backfill stores concurrently (unique index on
+ * repository_id, commit_sha), so a commit never gets two builds.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BuildSyncWriter {
+
+    private final RepositoryRepository repositoryRepository;
+    private final BuildRepository buildRepository;
+    private final RepositorySyncStateRepository repositorySyncStateRepository;
+    private final GitHubEtagCache gitHubEtagCache;
+    private final SeenCommitCache seenCommitCache;
+    private final BuildEventPublisher buildEventPublisher;
+
+    /**
+     * Apply a prepared sync batch
+     *
+     * @param batch Builds and sync state prepared outside the transaction
+     * @return Number of builds inserted
+     * @throws IllegalArgumentException if the repository no longer exists
+     */
+    @Transactional
+    public int write(SyncBatch batch) {
+        Long repositoryId = batch.repositoryId();
+        Repository repository = repositoryRepository.findById(repositoryId)
+                .orElseThrow(() -> new IllegalArgumentException("Repository not found with ID: " + repositoryId));
+
+        // Commits recently seen were already dropped in memory; the rest are resolved with
+        // a single query, since a webhook may have inserted them while the batch was fetched
+        List<String> candidateShas = batch.builds().stream().map(Build::getCommitSha).toList();
+        Set<String> existingShas = candidateShas.isEmpty()
+                ? Set.of()
+                : buildRepository.findExistingCommitShas(repositoryId, candidateShas);
+        seenCommitCache.markSeen(repositoryId, existingShas);
+
+        List<Build> newBuilds = new ArrayList<>();
+        List<String> newShas = new ArrayList<>();
+        for (Build build : batch.builds()) {
+            if (existingShas.contains(build.getCommitSha())) {
+                continue;
+            }
+            newBuilds.add(build);
+            newShas.add(build.getCommitSha());
+        }
+        List<Build> inserted = buildRepository.insertNew(repository, newBuilds);
+        if (inserted.size() < newBuilds.size()) {
+            log.debug("{} builds of repository {} were stored concurrently, skipped",
+                    newBuilds.size() - inserted.size(), repositoryId);
+        }
+        // Skipped or not, every one of these commits has a build once this commits
+        seenCommitCache.markSeenAfterCommit(repositoryId, newShas);
+        buildEventPublisher.created(inserted);
+
+        // Re-read here rather than reusing the copy read before the fetch: the mark only moves forward
+        RepositorySyncState syncState = repositorySyncStateRepository.findById(repositoryId)
+                .orElseGet(() -> new RepositorySyncState(repositoryId));
+        if (batch.lastRunId() != null
+                && (syncState.getLastRunId() == null || batch.lastRunId() > syncState.getLastRunId())) {
+            syncState.setLastRunId(batch.lastRunId());
+        }
+        if (batch.lastRunCreatedAt() != null && (syncState.getLastRunCreatedAt() == null
+                || batch.lastRunCreatedAt().isAfter(syncState.getLastRunCreatedAt()))) {
+            syncState.setLastRunCreatedAt(batch.lastRunCreatedAt());
+        }
+        syncState.setLastSyncedAt(LocalDateTime.now());
+        repositorySyncStateRepository.save(syncState);
+
+        // Stored in the same transaction as the builds, so a failed sync is retried in full
+        gitHubEtagCache.store(batch.requestUrl(), batch.etag(), batch.lastModified());
+
+        return inserted.size();
+    }
+
+    /**
+     * Result of the fetch/transform stage
+     *
+     * @param repositoryId Local repository ID in database
+     * @param builds New builds without a repository, one per commit, newest first
+     * @param lastRunId Highest run ID fetched, or null if none
+     * @param lastRunCreatedAt Latest run creation time fetched, or null if none
+     * @param requestUrl URL the first page was fetched from
+     * @param etag ETag of the first page
+     * @param lastModified Last-Modified of the first page
+     */
+    public record SyncBatch(Long repositoryId, List<Build> builds, Long lastRunId, LocalDateTime lastRunCreatedAt,
+                            String requestUrl, String etag, String lastModified) {
+    }
+}
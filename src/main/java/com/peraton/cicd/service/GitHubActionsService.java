@@ -6,15 +6,25 @@ import com.peraton.cicd.dto.github.WorkflowRunsResponse;
 import com.peraton.cicd.exception.GitHubApiException;
 import com.peraton.cicd.model.Build;
 import com.peraton.cicd.model.Repository;
+import com.peraton.cicd.model.RepositorySyncState;
 import com.peraton.cicd.repository.BuildRepository;
 import com.peraton.cicd.repository.RepositoryRepository;
+import com.peraton.cicd.repository.RepositorySyncStateRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 @Service
@@ -22,9 +32,17 @@ import java.util.stream.Collectors;
 @Slf4j
 public class GitHubActionsService {
 
+    private static final int SYNC_PAGE_SIZE = 100;
+
     private final GitHubApiClient gitHubApiClient;
     private final RepositoryRepository repositoryRepository;
     private final BuildRepository buildRepository;
+    private final GitHubEtagCache gitHubEtagCache;
+    private final RepositorySyncStateRepository repositorySyncStateRepository;
+    private final SeenCommitCache seenCommitCache;
+    private final BuildSyncWriter buildSyncWriter;
+    private final GitHubResponseCache gitHubResponseCache;
+    private final BuildEventPublisher buildEventPublisher;
 
     /**
      * Get the latest build status for a repository
@@ -35,6 +53,11 @@ public class GitHubActionsService {
      * @throws GitHubApiException if API call fails
      */
     public BuildStatusDto getLatestBuildStatus(String owner, String repo) {
+        return gitHubResponseCache.get(new GitHubResponseCache.Key("latest", owner, repo, null, null, 1),
+                () -> fetchLatestBuildStatus(owner, repo));
+    }
+
+    private BuildStatusDto fetchLatestBuildStatus(String owner, String repo) {
         log.info("Fetching latest build status for {}/{}", owner, repo);
 
         WorkflowRunsResponse response = gitHubApiClient.getWorkflowRuns(owner, repo, null, null, 1);
@@ -58,6 +81,11 @@ public class GitHubActionsService {
      * @throws GitHubApiException if API call fails
      */
     public BuildStatusDto getLatestBuildStatusForBranch(String owner, String repo, String branch) {
+        return gitHubResponseCache.get(new GitHubResponseCache.Key("latest", owner, repo, branch, null, 1),
+                () -> fetchLatestBuildStatusForBranch(owner, repo, branch));
+    }
+
+    private BuildStatusDto fetchLatestBuildStatusForBranch(String owner, String repo, String branch) {
         log.info("Fetching latest build status for {}/{} on branch {}", owner, repo, branch);
 
         WorkflowRunsResponse response = gitHubApiClient.getWorkflowRuns(owner, repo, branch, null, 1);
@@ -81,17 +109,8 @@ public class GitHubActionsService {
      * @throws GitHubApiException if API call fails
      */
     public List<BuildStatusDto> getAllWorkflowRuns(String owner, String repo, Integer perPage) {
-        log.info("Fetching all workflow runs for {}/{}", owner, repo);
-
-        WorkflowRunsResponse response = gitHubApiClient.getWorkflowRuns(owner, repo, null, null, perPage);
-
-        if (response.getWorkflowRuns() == null) {
-            return List.of();
-        }
-
-        return response.getWorkflowRuns().stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+        return gitHubResponseCache.get(new GitHubResponseCache.Key("runs", owner, repo, null, null, perPage),
+                () -> fetchWorkflowRuns(owner, repo, null, perPage));
     }
 
     /**
@@ -105,7 +124,16 @@ public class GitHubActionsService {
      * @throws GitHubApiException if API call fails
      */
     public List<BuildStatusDto> getWorkflowRunsByStatus(String owner, String repo, String status, Integer perPage) {
-        log.info("Fetching workflow runs for {}/{} with status {}", owner, repo, status);
+        return gitHubResponseCache.get(new GitHubResponseCache.Key("runs", owner, repo, null, status, perPage),
+                () -> fetchWorkflowRuns(owner, repo, status, perPage));
+    }
+
+    private List<BuildStatusDto> fetchWorkflowRuns(String owner, String repo, String status, Integer perPage) {
+        if (status != null) {
+            log.info("Fetching workflow runs for {}/{} with status {}", owner, repo, status);
+        } else {
+            log.info("Fetching all workflow runs for {}/{}", owner, repo);
+        }
 
         WorkflowRunsResponse response = gitHubApiClient.getWorkflowRuns(owner, repo, null, status, perPage);
 
@@ -113,56 +141,225 @@ public class GitHubActionsService {
             return List.of();
         }
 
+        // Shared by every caller served from the cache
         return response.getWorkflowRuns().stream()
                 .map(this::convertToDto)
-                .collect(Collectors.toList());
+                .toList();
     }
 
     /**
-     * Sync workflow runs to database for a repository
+     * Sync workflow runs to database for a repository.
+     *
+     * Only runs created since the repository's high-water mark are requested, and
+     * Link headers are followed until the already synced runs are reached, so a
+     * burst of more than one page between polls is never dropped.
+     *
+     * Not transactional: the runs are fetched and turned into builds first, then
+     * {@link BuildSyncWriter} applies them in one short write transaction.
      *
      * @param owner Repository owner
      * @param repo Repository name
      * @param repositoryId Local repository ID in database
      * @return Number of builds synced
      */
-    @Transactional
     public int syncWorkflowRunsToDatabase(String owner, String repo, Long repositoryId) {
         log.info("Syncing workflow runs for {}/{} to database", owner, repo);
 
-        Optional<Repository> repositoryOpt = repositoryRepository.findById(repositoryId);
-        if (repositoryOpt.isEmpty()) {
-            throw new IllegalArgumentException("Repository not found with ID: " + repositoryId);
-        }
-
-        Repository repository = repositoryOpt.get();
-        WorkflowRunsResponse response = gitHubApiClient.getWorkflowRuns(owner, repo, null, null, 50);
+        // Fetch stage: runs outside any transaction, so no connection is held while GitHub responds
+        RepositorySyncState syncState = repositorySyncStateRepository.findById(repositoryId)
+                .orElseGet(() -> new RepositorySyncState(repositoryId));
 
-        if (response.getWorkflowRuns() == null) {
+        NewRunCollector newRunCollector = new NewRunCollector(syncState.getLastRunId());
+        Optional<WorkflowRunsResponse> modified = gitHubApiClient.getWorkflowRunsIfModified(
+                owner, repo, syncState.getLastRunCreatedAt(), SYNC_PAGE_SIZE, newRunCollector);
+        if (modified.isEmpty()) {
+            log.info("No new workflow runs for {}/{} (not modified)", owner, repo);
             return 0;
         }
 
-        int syncedCount = 0;
-        for (WorkflowRun run : response.getWorkflowRuns()) {
-            // Check if build already exists
-            Optional<Build> existingBuild = buildRepository.findByCommitSha(run.getHeadSha());
-            if (existingBuild.isEmpty()) {
-                Build build = new Build();
-                build.setRepository(repository);
-                build.setCommitSha(run.getHeadSha());
-                build.setStatus(mapGitHubStatusToBuildStatus(run.getStatus(), run.getConclusion()));
-                build.setStartedAt(run.getRunStartedAt());
-                build.setCompletedAt(run.getUpdatedAt());
-
-                buildRepository.save(build);
-                syncedCount++;
+        WorkflowRunsResponse response = modified.get();
+        List<WorkflowRun> newRuns = collectNewRuns(response, newRunCollector);
+
+        // Transform stage: one build per commit, skipping commits recently seen in memory;
+        // the write stage checks the rest against the database
+        Set<String> pageShas = newRuns.stream()
+                .map(WorkflowRun::getHeadSha)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        Set<String> unseenShas = new HashSet<>(seenCommitCache.filterUnseen(repositoryId, pageShas));
+
+        List<Build> candidates = new ArrayList<>();
+        Long lastRunId = null;
+        LocalDateTime lastRunCreatedAt = null;
+        for (WorkflowRun run : newRuns) {
+            if (run.getId() != null && (lastRunId == null || run.getId() > lastRunId)) {
+                lastRunId = run.getId();
             }
+            if (run.getCreatedAt() != null && (lastRunCreatedAt == null || run.getCreatedAt().isAfter(lastRunCreatedAt))) {
+                lastRunCreatedAt = run.getCreatedAt();
+            }
+            if (run.getHeadSha() == null || !unseenShas.remove(run.getHeadSha())) {
+                continue;
+            }
+
+            candidates.add(toBuild(run));
         }
 
+        // Write stage: a single short transaction
+        int syncedCount = buildSyncWriter.write(new BuildSyncWriter.SyncBatch(repositoryId, candidates,
+                lastRunId, lastRunCreatedAt, response.getRequestUrl(), response.getEtag(), response.getLastModified()));
+
         log.info("Synced {} new builds to database", syncedCount);
         return syncedCount;
     }
 
+    /**
+     * Apply a workflow run received outside the scheduled sync (e.g. from a webhook)
+     * to the build for its commit, creating the build if it doesn't exist yet. If a sync
+     * or backfill stores that build at the same time, the run is applied to theirs.
+     * Deliveries for an older run of the same commit, or a non-final state arriving
+     * after the run already finished, are ignored. The high-water mark is left
+     * alone so polling still reconciles runs that never arrived.
+     *
+     * @param repositoryId Local repository ID in database
+     * @param run Workflow run
+     * @return true if a build was created or changed
+     */
+    @Transactional
+    public boolean applyWorkflowRun(Long repositoryId, WorkflowRun run) {
+        if (run.getHeadSha() == null) {
+            return false;
+        }
+
+        Optional<Build> buildOpt = buildRepository.findFirstByRepositoryIdAndCommitShaOrderByIdDesc(
+                repositoryId, run.getHeadSha());
+
+        if (buildOpt.isEmpty()) {
+            Repository repository = repositoryRepository.findById(repositoryId)
+                    .orElseThrow(() -> new IllegalArgumentException("Repository not found with ID: " + repositoryId));
+
+            // A sync or backfill may store the commit meanwhile; the insert then skips it
+            List<Build> inserted = buildRepository.insertNew(repository, List.of(toBuild(run)));
+            seenCommitCache.markSeenAfterCommit(repositoryId, List.of(run.getHeadSha()));
+            if (!inserted.isEmpty()) {
+                buildEventPublisher.created(inserted);
+                log.info("Created build for {} from workflow run {}", run.getHeadSha(), run.getId());
+                return true;
+            }
+
+            buildOpt = buildRepository.findFirstByRepositoryIdAndCommitShaOrderByIdDesc(repositoryId, run.getHeadSha());
+            if (buildOpt.isEmpty()) {
+                return false;
+            }
+            log.debug("Build for {} was stored concurrently, applying workflow run {} to it", run.getHeadSha(), run.getId());
+        }
+
+        Build build = buildOpt.get();
+        if (build.getRunId() != null && run.getId() != null) {
+            boolean olderRun = run.getId() < build.getRunId();
+            boolean staleState = run.getId().equals(build.getRunId())
+                    && build.getStatus().isTerminal()
+                    && !mapGitHubStatusToBuildStatus(run.getStatus(), run.getConclusion()).isTerminal();
+            if (olderRun || staleState) {
+                log.debug("Ignoring out-of-order workflow run {} for build {}", run.getId(), build.getId());
+                return false;
+            }
+        }
+
+        return refreshBuildFromRun(build.getId(), run);
+    }
+
+    /**
+     * Apply the current state of a workflow run to an existing build
+     *
+     * @param buildId Build ID
+     * @param run Workflow run fetched from GitHub
+     * @return true if the build's status or completion time changed
+     */
+    @Transactional
+    public boolean refreshBuildFromRun(Long buildId, WorkflowRun run) {
+        Optional<Build> buildOpt = buildRepository.findById(buildId);
+        if (buildOpt.isEmpty()) {
+            return false;
+        }
+
+        Build build = buildOpt.get();
+        Build.BuildStatus previousStatus = build.getStatus();
+        LocalDateTime previousCompletedAt = build.getCompletedAt();
+        applyRunStatus(build, run);
+
+        boolean changed = previousStatus != build.getStatus()
+                || !Objects.equals(previousCompletedAt, build.getCompletedAt());
+        if (changed) {
+            log.info("Build {} transitioned {} -> {}", buildId, previousStatus, build.getStatus());
+            buildEventPublisher.updated(build, previousStatus);
+        }
+        return changed;
+    }
+
+    /**
+     * Give up on an in-flight build that can no longer reach a final status, e.g. because
+     * its run was deleted on GitHub: it is marked CANCELLED, completed now (UTC)
+     *
+     * @param buildId Build ID
+     * @param reason Why the build is cancelled, for the log
+     * @return true if the build was still in flight and has been cancelled
+     */
+    @Transactional
+    public boolean cancelStaleBuild(Long buildId, String reason) {
+        Optional<Build> buildOpt = buildRepository.findById(buildId);
+        if (buildOpt.isEmpty() || buildOpt.get().getStatus().isTerminal()) {
+            return false;
+        }
+
+        Build build = buildOpt.get();
+        Build.BuildStatus previousStatus = build.getStatus();
+        build.setStatus(Build.BuildStatus.CANCELLED);
+        // Run timestamps from GitHub are stored in UTC
+        build.setCompletedAt(LocalDateTime.now(ZoneOffset.UTC));
+        log.warn("Cancelled build {} ({}): {}", buildId, previousStatus, reason);
+        buildEventPublisher.updated(build, previousStatus);
+        return true;
+    }
+
+    /**
+     * New build for a workflow run's commit, without a repository
+     */
+    Build toBuild(WorkflowRun run) {
+        Build build = new Build();
+        build.setCommitSha(run.getHeadSha());
+        build.setBranch(run.getHeadBranch());
+        build.setStartedAt(run.getRunStartedAt());
+        applyRunStatus(build, run);
+        return build;
+    }
+
+    /**
+     * Copy run id, status and completion time from a workflow run onto a build
+     */
+    private void applyRunStatus(Build build, WorkflowRun run) {
+        Build.BuildStatus status = mapGitHubStatusToBuildStatus(run.getStatus(), run.getConclusion());
+        build.setStatus(status);
+        if (run.getId() != null) {
+            build.setRunId(run.getId());
+        }
+        build.setCompletedAt(status.isTerminal() ? run.getUpdatedAt() : null);
+    }
+
+    /**
+     * Walk the pages of a workflow runs listing (newest first), streaming each run into
+     * the collector until it reaches a run at or below the high-water mark.
+     * Without a high-water mark only the first page is taken.
+     */
+    private List<WorkflowRun> collectNewRuns(WorkflowRunsResponse firstPage, NewRunCollector collector) {
+        WorkflowRunsResponse page = firstPage;
+        while (!collector.isReachedKnownRun() && collector.getLastRunId() != null && page.getNextPageUrl() != null) {
+            log.debug("Following next page of workflow runs: {}", page.getNextPageUrl());
+            page = gitHubApiClient.getWorkflowRunsPage(page.getNextPageUrl(), collector);
+        }
+        return collector.getRuns();
+    }
+
     /**
      * Convert WorkflowRun to BuildStatusDto
      */
@@ -203,4 +400,40 @@ public class GitHubActionsService {
         }
         return Build.BuildStatus.PENDING;
     }
+
+    /**
+     * Receives decoded runs of a listing one at a time and keeps those above the
+     * high-water mark; stops the decoder at the first run that was already synced
+     */
+    private static class NewRunCollector implements Predicate<WorkflowRun> {
+        private final Long lastRunId;
+        private final List<WorkflowRun> runs = new ArrayList<>();
+        private boolean reachedKnownRun;
+
+        NewRunCollector(Long lastRunId) {
+            this.lastRunId = lastRunId;
+        }
+
+        @Override
+        public boolean test(WorkflowRun run) {
+            if (lastRunId != null && run.getId() != null && run.getId() <= lastRunId) {
+                reachedKnownRun = true;
+                return false;
+            }
+            runs.add(run);
+            return true;
+        }
+
+        Long getLastRunId() {
+            return lastRunId;
+        }
+
+        List<WorkflowRun> getRuns() {
+            return runs;
+        }
+
+        boolean isReachedKnownRun() {
+            return reachedKnownRun;
+        }
+    }
 }
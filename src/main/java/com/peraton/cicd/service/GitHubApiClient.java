@@ -1,6 +1,7 @@
 package com.peraton.cicd.service;
 
 import com.peraton.cicd.config.GitHubApiConfig;
+import com.peraton.cicd.dto.github.WorkflowRun;
 import com.peraton.cicd.dto.github.WorkflowRunsResponse;
 import com.peraton.cicd.exception.GitHubApiException;
 import lombok.RequiredArgsConstructor;
@@ -12,14 +13,29 @@ import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
 
+import java.net.URI;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Predicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class GitHubApiClient {
 
+    private static final DateTimeFormatter GITHUB_TIMESTAMP = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss'Z'");
+    private static final Pattern NEXT_LINK_PATTERN = Pattern.compile("<([^>]+)>;\\s*rel=\"next\"");
+
     @Qualifier("githubRestTemplate")
     private final RestTemplate restTemplate;
     private final GitHubApiConfig gitHubApiConfig;
+    private final GitHubEtagCache gitHubEtagCache;
+    private final WorkflowRunDecoder workflowRunDecoder;
 
     /**
      * Fetch workflow runs for a given repository
@@ -50,23 +66,111 @@ public class GitHubApiClient {
         log.debug("Fetching workflow runs from GitHub API: {}", url);
 
         try {
-            HttpHeaders headers = createHeaders();
-            HttpEntity<String> entity = new HttpEntity<>(headers);
+            WorkflowRunsResponse body = fetchWorkflowRuns(expand(url), createHeaders(), null);
+            log.debug("Successfully fetched {} workflow runs", body.getTotalCount());
+            return body;
 
-            ResponseEntity<WorkflowRunsResponse> response = restTemplate.exchange(
-                    url,
-                    HttpMethod.GET,
-                    entity,
-                    WorkflowRunsResponse.class
+        } catch (HttpClientErrorException e) {
+            log.error("GitHub API error: {} - {}", e.getStatusCode(), e.getResponseBodyAsString());
+            throw new GitHubApiException(
+                    "Failed to fetch workflow runs: " + e.getMessage(),
+                    e.getStatusCode().value(),
+                    e
+            );
+        } catch (RestClientException e) {
+            log.error("Error calling GitHub API", e);
+            throw new GitHubApiException("Failed to connect to GitHub API: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Fetch the workflow runs triggered for a commit
+     *
+     * @param owner Repository owner
+     * @param repo Repository name
+     * @param headSha Commit SHA
+     * @return WorkflowRunsResponse containing the commit's workflow runs
+     * @throws GitHubApiException if API call fails
+     */
+    public WorkflowRunsResponse getWorkflowRunsForCommit(String owner, String repo, String headSha) {
+        String url = String.format("%s/repos/%s/%s/actions/runs?head_sha=%s",
+                gitHubApiConfig.getBaseUrl(), owner, repo, headSha);
+
+        log.debug("Fetching workflow runs for commit {} from GitHub API", headSha);
+
+        try {
+            return fetchWorkflowRuns(expand(url), createHeaders(), null);
+
+        } catch (HttpClientErrorException e) {
+            log.error("GitHub API error: {} - {}", e.getStatusCode(), e.getResponseBodyAsString());
+            throw new GitHubApiException(
+                    "Failed to fetch workflow runs: " + e.getMessage(),
+                    e.getStatusCode().value(),
+                    e
             );
+        } catch (RestClientException e) {
+            log.error("Error calling GitHub API", e);
+            throw new GitHubApiException("Failed to connect to GitHub API: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Fetch workflow runs with a conditional request, using the ETag / Last-Modified
+     * validators cached for the same URL. GitHub does not count 304 responses against
+     * the rate limit.
+     *
+     * The validators of a fresh response are returned on the response object and are
+     * not cached here; callers store them via {@link GitHubEtagCache} once the runs
+     * have been persisted.
+     *
+     * @param owner Repository owner
+     * @param repo Repository name
+     * @param createdSince Only return runs created at or after this UTC time (null for no filter)
+     * @param perPage Number of results per page (max 100)
+     * @return WorkflowRunsResponse, or empty if nothing changed since the last poll (304)
+     * @throws GitHubApiException if API call fails
+     */
+    public Optional<WorkflowRunsResponse> getWorkflowRunsIfModified(String owner, String repo,
+                                                                    LocalDateTime createdSince, Integer perPage) {
+        return getWorkflowRunsIfModified(owner, repo, createdSince, perPage, null);
+    }
+
+    /**
+     * Conditional fetch of workflow runs that streams each run to a consumer as it is
+     * decoded instead of collecting the page into {@link WorkflowRunsResponse#getWorkflowRuns()}
+     *
+     * @param runConsumer Receives runs in page order; returning false stops reading the page
+     *                    (null collects the runs into the response)
+     * @see #getWorkflowRunsIfModified(String, String, LocalDateTime, Integer)
+     */
+    public Optional<WorkflowRunsResponse> getWorkflowRunsIfModified(String owner, String repo,
+                                                                    LocalDateTime createdSince, Integer perPage,
+                                                                    Predicate<WorkflowRun> runConsumer) {
+        String url = buildWorkflowRunsUrl(owner, repo, null, null, perPage, createdSince);
+
+        log.debug("Fetching workflow runs (conditional) from GitHub API: {}", url);
 
-            if (response.getStatusCode().is2xxSuccessful() && response.getBody() != null) {
-                log.debug("Successfully fetched {} workflow runs", response.getBody().getTotalCount());
-                return response.getBody();
-            } else {
-                throw new GitHubApiException("Unexpected response from GitHub API", response.getStatusCode().value());
+        try {
+            HttpHeaders headers = createHeaders();
+            gitHubEtagCache.lookup(url).ifPresent(cached -> {
+                if (cached.getEtag() != null) {
+                    headers.setIfNoneMatch(cached.getEtag());
+                }
+                if (cached.getLastModified() != null) {
+                    headers.set(HttpHeaders.IF_MODIFIED_SINCE, cached.getLastModified());
+                }
+            });
+
+            WorkflowRunsResponse body = fetchWorkflowRuns(expand(url), headers, runConsumer);
+            if (body == null) {
+                log.debug("Workflow runs not modified since last poll: {}", url);
+                return Optional.empty();
             }
 
+            body.setRequestUrl(url);
+            log.debug("Successfully fetched {} workflow runs", body.getTotalCount());
+            return Optional.of(body);
+
         } catch (HttpClientErrorException e) {
             log.error("GitHub API error: {} - {}", e.getStatusCode(), e.getResponseBodyAsString());
             throw new GitHubApiException(
@@ -80,6 +184,62 @@ public class GitHubApiClient {
         }
     }
 
+    /**
+     * Fetch the next page of a workflow runs listing
+     *
+     * @param nextPageUrl URL taken from the previous page's Link header
+     * @return WorkflowRunsResponse for that page
+     * @throws GitHubApiException if API call fails
+     */
+    public WorkflowRunsResponse getWorkflowRunsPage(String nextPageUrl) {
+        return getWorkflowRunsPage(nextPageUrl, null);
+    }
+
+    /**
+     * Fetch the next page of a workflow runs listing, streaming each run to a consumer
+     *
+     * @param nextPageUrl URL taken from the previous page's Link header
+     * @param runConsumer Receives runs in page order; returning false stops reading the page
+     *                    (null collects the runs into the response)
+     * @return WorkflowRunsResponse for that page
+     * @throws GitHubApiException if API call fails
+     */
+    public WorkflowRunsResponse getWorkflowRunsPage(String nextPageUrl, Predicate<WorkflowRun> runConsumer) {
+        log.debug("Fetching workflow runs page from GitHub API: {}", nextPageUrl);
+
+        try {
+            // Link header URLs are already encoded, so pass them as a URI to avoid double encoding
+            WorkflowRunsResponse body = fetchWorkflowRuns(URI.create(nextPageUrl), createHeaders(), runConsumer);
+            body.setRequestUrl(nextPageUrl);
+            return body;
+
+        } catch (HttpClientErrorException e) {
+            log.error("GitHub API error: {} - {}", e.getStatusCode(), e.getResponseBodyAsString());
+            throw new GitHubApiException(
+                    "Failed to fetch workflow runs: " + e.getMessage(),
+                    e.getStatusCode().value(),
+                    e
+            );
+        } catch (RestClientException e) {
+            log.error("Error calling GitHub API", e);
+            throw new GitHubApiException("Failed to connect to GitHub API: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Fetch one page of a repository's workflow runs by page number, newest first
+     *
+     * @param owner Repository owner
+     * @param repo Repository name
+     * @param page Page number, starting at 1
+     * @param perPage Number of results per page (max 100)
+     * @return WorkflowRunsResponse for that page; fewer than perPage runs on the last page
+     * @throws GitHubApiException if API call fails
+     */
+    public WorkflowRunsResponse getWorkflowRunsPage(String owner, String repo, int page, int perPage) {
+        return getWorkflowRunsPage(buildWorkflowRunsUrl(owner, repo, null, null, Math.max(1, perPage)) + "&page=" + page);
+    }
+
     /**
      * Get a specific workflow run by ID
      *
@@ -89,29 +249,24 @@ public class GitHubApiClient {
      * @return WorkflowRun details
      * @throws GitHubApiException if API call fails
      */
-    public com.peraton.cicd.dto.github.WorkflowRun getWorkflowRun(String owner, String repo, Long runId) {
+    public WorkflowRun getWorkflowRun(String owner, String repo, Long runId) {
         String url = String.format("%s/repos/%s/%s/actions/runs/%d",
                 gitHubApiConfig.getBaseUrl(), owner, repo, runId);
 
         log.debug("Fetching workflow run {} from GitHub API", runId);
 
         try {
-            HttpHeaders headers = createHeaders();
-            HttpEntity<String> entity = new HttpEntity<>(headers);
-
-            ResponseEntity<com.peraton.cicd.dto.github.WorkflowRun> response = restTemplate.exchange(
-                    url,
+            WorkflowRun run = restTemplate.execute(
+                    expand(url),
                     HttpMethod.GET,
-                    entity,
-                    com.peraton.cicd.dto.github.WorkflowRun.class
+                    restTemplate.httpEntityCallback(new HttpEntity<>(createHeaders())),
+                    response -> {
+                        requireSuccess(response.getStatusCode());
+                        return workflowRunDecoder.decodeRun(response.getBody());
+                    }
             );
-
-            if (response.getStatusCode().is2xxSuccessful() && response.getBody() != null) {
-                log.debug("Successfully fetched workflow run {}", runId);
-                return response.getBody();
-            } else {
-                throw new GitHubApiException("Unexpected response from GitHub API", response.getStatusCode().value());
-            }
+            log.debug("Successfully fetched workflow run {}", runId);
+            return run;
 
         } catch (HttpClientErrorException e) {
             log.error("GitHub API error: {} - {}", e.getStatusCode(), e.getResponseBodyAsString());
@@ -126,7 +281,55 @@ public class GitHubApiClient {
         }
     }
 
+    /**
+     * Execute a workflow runs listing request and decode the body with {@link WorkflowRunDecoder}.
+     * Runs are collected into the response unless a consumer is given.
+     *
+     * @return the decoded page with its response metadata, or null on 304 Not Modified
+     */
+    private WorkflowRunsResponse fetchWorkflowRuns(URI uri, HttpHeaders headers, Predicate<WorkflowRun> runConsumer) {
+        return restTemplate.execute(
+                uri,
+                HttpMethod.GET,
+                restTemplate.httpEntityCallback(new HttpEntity<>(headers)),
+                response -> {
+                    if (response.getStatusCode().isSameCodeAs(HttpStatus.NOT_MODIFIED)) {
+                        return null;
+                    }
+                    requireSuccess(response.getStatusCode());
+
+                    WorkflowRunsResponse page = new WorkflowRunsResponse();
+                    List<WorkflowRun> runs = new ArrayList<>();
+                    page.setTotalCount(workflowRunDecoder.decodeRuns(response.getBody(),
+                            runConsumer != null ? runConsumer : runs::add));
+                    page.setWorkflowRuns(runs);
+                    page.setEtag(response.getHeaders().getETag());
+                    page.setLastModified(response.getHeaders().getFirst(HttpHeaders.LAST_MODIFIED));
+                    page.setNextPageUrl(extractNextPageUrl(response.getHeaders()));
+                    return page;
+                }
+        );
+    }
+
+    private static void requireSuccess(HttpStatusCode statusCode) {
+        if (!statusCode.is2xxSuccessful()) {
+            throw new GitHubApiException("Unexpected response from GitHub API", statusCode.value());
+        }
+    }
+
+    /**
+     * Encode a URL string the same way RestTemplate does for String URLs
+     */
+    private URI expand(String url) {
+        return restTemplate.getUriTemplateHandler().expand(url);
+    }
+
     private String buildWorkflowRunsUrl(String owner, String repo, String branch, String status, Integer perPage) {
+        return buildWorkflowRunsUrl(owner, repo, branch, status, perPage, null);
+    }
+
+    private String buildWorkflowRunsUrl(String owner, String repo, String branch, String status, Integer perPage,
+                                        LocalDateTime createdSince) {
         StringBuilder url = new StringBuilder(String.format(
                 "%s/repos/%s/%s/actions/runs",
                 gitHubApiConfig.getBaseUrl(), owner, repo
@@ -144,6 +347,11 @@ public class GitHubApiClient {
             hasParams = true;
         }
 
+        if (createdSince != null) {
+            url.append(hasParams ? "&" : "?").append("created=>=").append(createdSince.format(GITHUB_TIMESTAMP));
+            hasParams = true;
+        }
+
         if (perPage != null && perPage > 0) {
             url.append(hasParams ? "&" : "?").append("per_page=").append(Math.min(perPage, 100));
         }
@@ -151,9 +359,21 @@ public class GitHubApiClient {
         return url.toString();
     }
 
+    /**
+     * Extract the rel="next" URL from a GitHub Link header
+     */
+    private String extractNextPageUrl(HttpHeaders headers) {
+        String link = headers.getFirst(HttpHeaders.LINK);
+        if (link == null) {
+            return null;
+        }
+        Matcher matcher = NEXT_LINK_PATTERN.matcher(link);
+        return matcher.find() ? matcher.group(1) : null;
+    }
+
     private HttpHeaders createHeaders() {
         HttpHeaders headers = new HttpHeaders();
-        headers.set("Authorization", "Bearer " + gitHubApiConfig.getToken());
+        // Authorization is set per request from the credential pool, see RestTemplateConfig
         headers.setContentType(MediaType.APPLICATION_JSON);
         return headers;
     }
@@ -0,0 +1,214 @@
+package com.peraton.cicd.service;
+
+import com.peraton.cicd.config.GitHubApiConfig;
+import com.peraton.cicd.dto.github.CircuitBreakerStatusDto;
+import com.peraton.cicd.exception.GitHubApiException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Circuit breakers for outgoing GitHub API traffic.
+ *
+ * - per host: consecutive connection errors, timeouts and 5xx responses open it, and
+ *   every request to the host fails fast until resilience.open-ms has passed
+ * - per repository: consecutive 403/404 responses that are not rate limits open it, so a
+ *   deleted or inaccessible repository stops costing a request on every poll. Only responses
+ *   for the repository itself or its run listing count; a 404 for a single run just means
+ *   that run is gone
+ *
+ * An open breaker lets a single probe request through once its open period is over;
+ * the probe's outcome closes it again or restarts the open period.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class GitHubCircuitBreaker {
+
+    private final GitHubApiConfig gitHubApiConfig;
+
+    private final Map<String, Breaker> hosts = new ConcurrentHashMap<>();
+    private final Map<String, Breaker> repositories = new ConcurrentHashMap<>();
+
+    /**
+     * Admit a request, or fail fast while its host or repository breaker is open
+     *
+     * @param uri Request URI
+     * @throws GitHubApiException (503) if a breaker is open
+     */
+    public void beforeRequest(URI uri) {
+        Instant now = Instant.now();
+        String repositoryKey = GitHubCredentialPool.repositoryKey(uri);
+
+        Breaker repository = repositoryKey != null ? repositories.get(repositoryKey) : null;
+        if (repository != null && !repository.tryAcquire(now)) {
+            throw open("repository " + repositoryKey, repository);
+        }
+
+        Breaker host = host(uri);
+        if (!host.tryAcquire(now)) {
+            if (repository != null) {
+                repository.release();
+            }
+            throw open("host " + uri.getHost(), host);
+        }
+    }
+
+    /**
+     * Record the response of an admitted request
+     *
+     * @param uri Request URI
+     * @param statusCode HTTP status code
+     * @param rateLimited Whether a 403/429 was a rate limit rather than a permission error
+     */
+    public void onResponse(URI uri, int statusCode, boolean rateLimited) {
+        GitHubApiConfig.Resilience settings = gitHubApiConfig.getResilience();
+        Breaker host = host(uri);
+        if (statusCode >= 500) {
+            host.recordFailure(settings.getFailureThreshold(), settings.getOpenMs(), "host " + uri.getHost());
+        } else {
+            host.recordSuccess();
+        }
+
+        String repositoryKey = GitHubCredentialPool.repositoryKey(uri);
+        if (repositoryKey == null) {
+            return;
+        }
+
+        boolean denied = !rateLimited
+                && (statusCode == HttpStatus.FORBIDDEN.value() || statusCode == HttpStatus.NOT_FOUND.value())
+                && GitHubCredentialPool.isRepositoryLevel(uri);
+        if (denied) {
+            repositories.computeIfAbsent(repositoryKey, key -> new Breaker())
+                    .recordFailure(settings.getRepositoryFailureThreshold(), settings.getRepositoryOpenMs(),
+                            "repository " + repositoryKey);
+        } else if (statusCode < 400) {
+            // Healthy repositories don't keep an entry
+            repositories.remove(repositoryKey);
+        } else {
+            release(repositories.get(repositoryKey));
+        }
+    }
+
+    /**
+     * Record an admitted request that got no response (connection error, timeout)
+     */
+    public void onError(URI uri) {
+        GitHubApiConfig.Resilience settings = gitHubApiConfig.getResilience();
+        host(uri).recordFailure(settings.getFailureThreshold(), settings.getOpenMs(), "host " + uri.getHost());
+        release(repositoryBreaker(uri));
+    }
+
+    /**
+     * Record an admitted request that was never sent, e.g. rejected by the rate limit governor
+     */
+    public void onAborted(URI uri) {
+        host(uri).release();
+        release(repositoryBreaker(uri));
+    }
+
+    /**
+     * Host breakers and every repository breaker with recorded failures
+     */
+    public List<CircuitBreakerStatusDto> getStatus() {
+        List<CircuitBreakerStatusDto> status = new ArrayList<>();
+        hosts.forEach((key, breaker) -> status.add(breaker.snapshot("host " + key)));
+        repositories.forEach((key, breaker) -> status.add(breaker.snapshot("repository " + key)));
+        return status;
+    }
+
+    private Breaker host(URI uri) {
+        return hosts.computeIfAbsent(uri.getHost(), key -> new Breaker());
+    }
+
+    private Breaker repositoryBreaker(URI uri) {
+        String repositoryKey = GitHubCredentialPool.repositoryKey(uri);
+        return repositoryKey != null ? repositories.get(repositoryKey) : null;
+    }
+
+    private static void release(Breaker breaker) {
+        if (breaker != null) {
+            breaker.release();
+        }
+    }
+
+    private static GitHubApiException open(String name, Breaker breaker) {
+        return new GitHubApiException(String.format("GitHub circuit open for %s until %s", name, breaker.openUntil()),
+                HttpStatus.SERVICE_UNAVAILABLE.value());
+    }
+
+    /**
+     * State of one breaker; guarded by its own monitor
+     */
+    private static final class Breaker {
+        private enum State { CLOSED, OPEN, HALF_OPEN }
+
+        private State state = State.CLOSED;
+        private int consecutiveFailures;
+        private Instant openUntil = Instant.EPOCH;
+        private boolean probeInFlight;
+
+        synchronized boolean tryAcquire(Instant now) {
+            if (state == State.CLOSED) {
+                return true;
+            }
+            if (state == State.OPEN && now.isBefore(openUntil)) {
+                return false;
+            }
+            // Open period over: a single probe request decides whether to close again
+            if (probeInFlight) {
+                return false;
+            }
+            state = State.HALF_OPEN;
+            probeInFlight = true;
+            return true;
+        }
+
+        synchronized void recordSuccess() {
+            if (state != State.CLOSED) {
+                log.info("GitHub circuit closed after a successful probe");
+            }
+            state = State.CLOSED;
+            consecutiveFailures = 0;
+            probeInFlight = false;
+        }
+
+        synchronized void recordFailure(int threshold, long openMs, String name) {
+            consecutiveFailures++;
+            probeInFlight = false;
+            if (state == State.HALF_OPEN || consecutiveFailures >= threshold) {
+                state = State.OPEN;
+                openUntil = Instant.now().plusMillis(openMs);
+                log.warn("GitHub circuit opened for {} after {} consecutive failure(s), failing fast for {} s",
+                        name, consecutiveFailures, openMs / 1000);
+            }
+        }
+
+        synchronized void release() {
+            probeInFlight = false;
+        }
+
+        synchronized Instant openUntil() {
+            return openUntil;
+        }
+
+        synchronized CircuitBreakerStatusDto snapshot(String name) {
+            return CircuitBreakerStatusDto.builder()
+                    .name(name)
+                    .state(state.name())
+                    .consecutiveFailures(consecutiveFailures)
+                    .openUntil(state == State.CLOSED ? null : LocalDateTime.ofInstant(openUntil, ZoneOffset.UTC))
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package com.peraton.cicd.service;
+
+import com.peraton.cicd.config.GitHubApiConfig;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Pool of GitHub tokens that outgoing requests are spread across.
+ *
+ * Each token has its own rate limit budget in {@link GitHubRateLimitGovernor}. A request
+ * for a repository goes to the token it is pinned to; unpinned requests take the token
+ * with the most headroom left (minus requests in flight) and pin the repository to it.
+ * A 403/404 for the repository itself or its run listing unpins it and excludes that token
+ * for the repository, so repositories end up on a token that can access them. A 404 for a
+ * single run only means that run is gone and says nothing about the token.
+ */
+@Component
+@Slf4j
+public class GitHubCredentialPool {
+
+    private static final Pattern REPOSITORY_PATH = Pattern.compile("^/repos/([^/]+)/([^/]+)");
+    private static final Pattern REPOSITORY_LEVEL_PATH = Pattern.compile("^/repos/[^/]+/[^/]+(/actions/runs)?/?$");
+
+    private final GitHubRateLimitGovernor rateLimitGovernor;
+    private final List<Credential> credentials;
+
+    private final Map<String, Credential> pinnedCredentials = new ConcurrentHashMap<>();
+    private final Map<String, Set<String>> deniedCredentials = new ConcurrentHashMap<>();
+
+    public GitHubCredentialPool(GitHubApiConfig gitHubApiConfig, GitHubRateLimitGovernor rateLimitGovernor) {
+        this.rateLimitGovernor = rateLimitGovernor;
+
+        List<String> tokens = gitHubApiConfig.getTokens().stream()
+                .filter(token -> token != null && !token.isBlank())
+                .map(String::trim)
+                .toList();
+        if (tokens.isEmpty()) {
+            tokens = List.of(gitHubApiConfig.getToken() != null ? gitHubApiConfig.getToken() : "");
+        }
+
+        List<Credential> pool = new ArrayList<>();
+        for (int i = 0; i < tokens.size(); i++) {
+            pool.add(new Credential("token-" + (i + 1), tokens.get(i)));
+        }
+        this.credentials = Collections.unmodifiableList(pool);
+
+        log.info("GitHub credential pool initialized with {} token(s)", credentials.size());
+    }
+
+    /**
+     * Pick the credential for a request and count it as in flight until {@link #release}
+     *
+     * @param repositoryKey "owner/repo" the request targets, or null for non-repository calls
+     * @return Credential to send the request with
+     */
+    public Credential acquire(String repositoryKey) {
+        Credential credential = select(repositoryKey);
+        credential.inFlight().incrementAndGet();
+        return credential;
+    }
+
+    /**
+     * Record the outcome of a request sent with {@link #acquire}
+     *
+     * @param credential Credential the request was sent with
+     * @param uri Request URI
+     * @param statusCode HTTP status code, or 0 if no response was received
+     */
+    public void release(Credential credential, URI uri, int statusCode) {
+        credential.inFlight().decrementAndGet();
+        String repositoryKey = repositoryKey(uri);
+        if (repositoryKey == null) {
+            return;
+        }
+
+        boolean refused = statusCode == HttpStatus.FORBIDDEN.value() || statusCode == HttpStatus.NOT_FOUND.value();
+        if (refused && isRepositoryLevel(uri)) {
+            // Rate limited 403s carry Retry-After / X-RateLimit-Remaining: 0 and are paced by the governor;
+            // a token without access to the repository stops being picked for it
+            if (rateLimitGovernor.headroom(credential.id()) > 0) {
+                deniedCredentials.computeIfAbsent(repositoryKey, key -> ConcurrentHashMap.newKeySet()).add(credential.id());
+                pinnedCredentials.remove(repositoryKey, credential);
+                log.debug("{} has no access to {}, unpinned", credential.id(), repositoryKey);
+            }
+        } else if (statusCode >= 200 && statusCode < 400) {
+            pinnedCredentials.putIfAbsent(repositoryKey, credential);
+            Set<String> denied = deniedCredentials.get(repositoryKey);
+            if (denied != null) {
+                denied.remove(credential.id());
+            }
+        }
+    }
+
+    /**
+     * Whether every token of the pool was last refused access to a repository, i.e. the
+     * repository is most likely gone rather than out of reach of one token
+     *
+     * @param owner Repository owner
+     * @param repo Repository name
+     */
+    public boolean isDeniedByEveryToken(String owner, String repo) {
+        Set<String> denied = deniedCredentials.get((owner + "/" + repo).toLowerCase());
+        return denied != null && denied.size() >= credentials.size();
+    }
+
+    public int size() {
+        return credentials.size();
+    }
+
+    /**
+     * "owner/repo" of a GitHub API URL, or null if it doesn't target a repository
+     */
+    public static String repositoryKey(URI uri) {
+        Matcher matcher = REPOSITORY_PATH.matcher(uri.getPath());
+        return matcher.find() ? (matcher.group(1) + "/" + matcher.group(2)).toLowerCase() : null;
+    }
+
+    /**
+     * Whether a URL targets the repository itself or its run listing, so a 403/404 for it
+     * means the repository can't be reached rather than that a single run is gone
+     */
+    static boolean isRepositoryLevel(URI uri) {
+        return REPOSITORY_LEVEL_PATH.matcher(uri.getPath()).matches();
+    }
+
+    private Credential select(String repositoryKey) {
+        if (credentials.size() == 1) {
+            return credentials.get(0);
+        }
+
+        if (repositoryKey != null) {
+            Credential pinned = pinnedCredentials.get(repositoryKey);
+            if (pinned != null && rateLimitGovernor.headroom(pinned.id()) > 0) {
+                return pinned;
+            }
+        }
+
+        Set<String> denied = repositoryKey != null
+                ? deniedCredentials.getOrDefault(repositoryKey, Set.of())
+                : Set.of();
+        if (denied.size() >= credentials.size()) {
+            // Every token was refused: the repository is probably missing, start over
+            deniedCredentials.remove(repositoryKey);
+            denied = Set.of();
+        }
+
+        Credential best = null;
+        long bestScore = Long.MIN_VALUE;
+        for (Credential candidate : credentials) {
+            if (denied.contains(candidate.id())) {
+                continue;
+            }
+            // Least loaded: most requests left before the reset, minus those already in flight
+            long score = rateLimitGovernor.headroom(candidate.id()) - candidate.inFlight().get();
+            if (score > bestScore) {
+                best = candidate;
+                bestScore = score;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * One token of the pool
+     *
+     * @param id Stable label used in logs and rate limit status; never the token itself
+     * @param token Token value
+     * @param inFlight Requests currently sent with this token
+     */
+    public record Credential(String id, String token, AtomicInteger inFlight) {
+
+        Credential(String id, String token) {
+            this(id, token, new AtomicInteger());
+        }
+
+        @Override
+        public String toString() {
+            return id;
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.peraton.cicd.service;
+
+import com.peraton.cicd.model.EtagCacheEntry;
+import com.peraton.cicd.repository.EtagCacheEntryRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Persistent cache of ETag / Last-Modified validators for GitHub requests.
+ * Validators are kept in memory for lookups and written through to the database
+ * so conditional requests keep working after a restart.
+ *
+ * Entries are keyed by the request URL without its query, so each repository
+ * endpoint keeps a single entry that is overwritten as the sync's created>=
+ * watermark moves, instead of one entry per watermark. Validators are only sent
+ * for the exact URL they were returned for.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class GitHubEtagCache {
+
+    private static final int RETENTION_DAYS = 7;
+
+    private final EtagCacheEntryRepository etagCacheEntryRepository;
+    private final Map<String, EtagCacheEntry> entries = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void loadPersistedEntries() {
+        etagCacheEntryRepository.findAll()
+                .forEach(entry -> entries.put(entry.getCacheKey(), entry));
+        log.info("Loaded {} cached GitHub ETag validators", entries.size());
+    }
+
+    /**
+     * Get the cached validators for a request URL
+     *
+     * @param requestUrl Full GitHub API request URL
+     * @return Optional cache entry, empty if the validators were stored for another query
+     */
+    public Optional<EtagCacheEntry> lookup(String requestUrl) {
+        return Optional.ofNullable(entries.get(cacheKey(requestUrl)))
+                .filter(entry -> entry.getRequestUrl().equals(requestUrl));
+    }
+
+    /**
+     * Store validators for a request URL, replacing those of the same endpoint.
+     * When called inside a transaction the in-memory entry is only updated after
+     * commit, so a rolled back sync never turns the next poll into a 304 for data
+     * that was not persisted.
+     *
+     * @param requestUrl Full GitHub API request URL
+     * @param etag ETag response header (may be null)
+     * @param lastModified Last-Modified response header (may be null)
+     */
+    @Transactional
+    public void store(String requestUrl, String etag, String lastModified) {
+        if (requestUrl == null || (etag == null && lastModified == null)) {
+            return;
+        }
+
+        String cacheKey = cacheKey(requestUrl);
+        EtagCacheEntry entry = new EtagCacheEntry();
+        entry.setCacheKey(cacheKey);
+        entry.setRequestUrl(requestUrl);
+        entry.setEtag(etag);
+        entry.setLastModified(lastModified);
+        EtagCacheEntry saved = etagCacheEntryRepository.save(entry);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    entries.put(cacheKey, saved);
+                }
+            });
+        } else {
+            entries.put(cacheKey, saved);
+        }
+    }
+
+    /**
+     * Drop validators that have not been refreshed recently
+     */
+    @Scheduled(cron = "0 0 3 * * *")
+    @Transactional
+    public void evictExpiredEntries() {
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(RETENTION_DAYS);
+        int removed = etagCacheEntryRepository.deleteByUpdatedAtBefore(cutoff);
+        entries.values().removeIf(entry -> entry.getUpdatedAt() != null && entry.getUpdatedAt().isBefore(cutoff));
+        log.info("Evicted {} expired GitHub ETag validators", removed);
+    }
+
+    private static String cacheKey(String requestUrl) {
+        int query = requestUrl.indexOf('?');
+        return query >= 0 ? requestUrl.substring(0, query) : requestUrl;
+    }
+}
@@ -0,0 +1,189 @@
+package com.peraton.cicd.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.peraton.cicd.config.GitHubApiConfig;
+import com.peraton.cicd.dto.github.BuildStatusDto;
+import com.peraton.cicd.exception.GitHubApiException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import java.net.URI;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+/**
+ * GitHub GraphQL client that fetches the latest workflow run of many repositories in one query.
+ *
+ * Each repository is an aliased field of the same query, so N repositories cost one round
+ * trip and, for up to 100 repositories, a single point of the GraphQL rate limit. GraphQL has
+ * no repository-wide workflow run listing: the run reported is the latest GitHub Actions
+ * check suite on the head commit of the default branch.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class GitHubGraphQlClient {
+
+    // GitHub App ID of GitHub Actions; other apps' check suites have no workflow run
+    private static final int GITHUB_ACTIONS_APP_ID = 15368;
+    // GitHub owner and repository names; anything else can't be inlined into the query safely
+    private static final Pattern NAME_PATTERN = Pattern.compile("[A-Za-z0-9_.-]+");
+
+    private static final String LATEST_RUN_FRAGMENT = """
+            fragment latestRun on Repository {
+              name
+              nameWithOwner
+              defaultBranchRef {
+                name
+                target {
+                  ... on Commit {
+                    oid
+                    message
+                    author { name }
+                    checkSuites(last: 5, filterBy: {appId: %d}) {
+                      nodes {
+                        status
+                        conclusion
+                        workflowRun { databaseId runNumber url createdAt updatedAt }
+                      }
+                    }
+                  }
+                }
+              }
+            }
+            """.formatted(GITHUB_ACTIONS_APP_ID);
+
+    @Qualifier("githubRestTemplate")
+    private final RestTemplate restTemplate;
+    private final GitHubApiConfig gitHubApiConfig;
+
+    /**
+     * Fetch the latest workflow run of each repository in a single GraphQL query
+     *
+     * @param repositories "owner/repo" entries, at most github.api.graphql.batch-size
+     * @return Result per "owner/repo" as given: empty if the repository has no workflow runs;
+     *         repositories that were not found, are not accessible or have an invalid name are absent
+     * @throws GitHubApiException if the query fails as a whole
+     */
+    public Map<String, Optional<BuildStatusDto>> getLatestRuns(List<String> repositories) {
+        StringBuilder query = new StringBuilder("query {\n  rateLimit { cost remaining resetAt }\n");
+        Map<String, String> aliases = new HashMap<>();
+        for (String repository : repositories) {
+            String[] ownerAndRepo = repository.split("/");
+            if (ownerAndRepo.length != 2
+                    || !NAME_PATTERN.matcher(ownerAndRepo[0]).matches()
+                    || !NAME_PATTERN.matcher(ownerAndRepo[1]).matches()) {
+                log.debug("Skipping invalid repository name in GraphQL batch: {}", repository);
+                continue;
+            }
+            String alias = "r" + aliases.size();
+            aliases.put(alias, repository);
+            query.append(String.format("  %s: repository(owner: \"%s\", name: \"%s\") { ...latestRun }%n",
+                    alias, ownerAndRepo[0], ownerAndRepo[1]));
+        }
+        query.append("}\n").append(LATEST_RUN_FRAGMENT);
+
+        JsonNode body = execute(query.toString());
+        JsonNode data = body.path("data");
+        if (data.isMissingNode() || data.isNull()) {
+            throw new GitHubApiException("GitHub GraphQL query failed: " + body.path("errors").toString(),
+                    HttpStatus.BAD_GATEWAY.value());
+        }
+
+        JsonNode rateLimit = data.path("rateLimit");
+        log.debug("GraphQL query for {} repositories cost {} point(s), {} remaining",
+                repositories.size(), rateLimit.path("cost").asInt(), rateLimit.path("remaining").asInt());
+
+        Map<String, Optional<BuildStatusDto>> results = new HashMap<>();
+        aliases.forEach((alias, repository) -> {
+            JsonNode node = data.path(alias);
+            if (!node.isMissingNode() && !node.isNull()) {
+                results.put(repository, toBuildStatus(node));
+            }
+        });
+        return results;
+    }
+
+    private JsonNode execute(String query) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+
+        try {
+            ResponseEntity<JsonNode> response = restTemplate.exchange(
+                    graphQlUri(),
+                    HttpMethod.POST,
+                    new HttpEntity<>(Map.of("query", query), headers),
+                    JsonNode.class
+            );
+            if (response.getBody() == null) {
+                throw new GitHubApiException("Empty response from GitHub GraphQL API", HttpStatus.BAD_GATEWAY.value());
+            }
+            return response.getBody();
+        } catch (HttpClientErrorException e) {
+            log.error("GitHub GraphQL API error: {} - {}", e.getStatusCode(), e.getResponseBodyAsString());
+            throw new GitHubApiException("Failed to query GitHub GraphQL API: " + e.getMessage(),
+                    e.getStatusCode().value(), e);
+        } catch (RestClientException e) {
+            log.error("Error connecting to GitHub GraphQL API", e);
+            throw new GitHubApiException("Failed to connect to GitHub GraphQL API: " + e.getMessage(), e);
+        }
+    }
+
+    private URI graphQlUri() {
+        String url = gitHubApiConfig.getGraphql().getUrl();
+        return URI.create(url != null && !url.isBlank() ? url : gitHubApiConfig.getBaseUrl() + "/graphql");
+    }
+
+    private static Optional<BuildStatusDto> toBuildStatus(JsonNode repository) {
+        JsonNode branch = repository.path("defaultBranchRef");
+        JsonNode commit = branch.path("target");
+
+        // Check suites come oldest first
+        JsonNode suites = commit.path("checkSuites").path("nodes");
+        for (int i = suites.size() - 1; i >= 0; i--) {
+            JsonNode suite = suites.get(i);
+            JsonNode run = suite.path("workflowRun");
+            if (run.isNull() || run.isMissingNode()) {
+                continue;
+            }
+
+            return Optional.of(BuildStatusDto.builder()
+                    .runId(run.path("databaseId").asLong())
+                    .repositoryName(repository.path("name").asText(null))
+                    .branch(branch.path("name").asText(null))
+                    .commitSha(commit.path("oid").asText(null))
+                    .status(lowerCase(suite.path("status")))
+                    .conclusion(lowerCase(suite.path("conclusion")))
+                    .runNumber(run.path("runNumber").isInt() ? run.path("runNumber").asInt() : null)
+                    .startedAt(WorkflowRunDecoder.parseTimestamp(run.path("createdAt").asText("")))
+                    .updatedAt(WorkflowRunDecoder.parseTimestamp(run.path("updatedAt").asText("")))
+                    .htmlUrl(run.path("url").asText(null))
+                    .commitMessage(commit.path("message").asText(null))
+                    .authorName(commit.path("author").path("name").asText(null))
+                    .build());
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * GraphQL enums are upper case (IN_PROGRESS); the REST API and BuildStatusDto use lower case
+     */
+    private static String lowerCase(JsonNode value) {
+        return value.isTextual() ? value.asText().toLowerCase(Locale.ROOT) : null;
+    }
+}
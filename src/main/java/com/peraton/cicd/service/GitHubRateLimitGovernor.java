@@ -0,0 +1,292 @@
+package com.peraton.cicd.service;
+
+import com.peraton.cicd.config.GitHubApiConfig;
+import com.peraton.cicd.dto.github.RateLimitStatusDto;
+import com.peraton.cicd.exception.GitHubApiException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Central governor for all outgoing GitHub API traffic.
+ *
+ * Tracks the X-RateLimit-* and Retry-After headers of every response, per credential,
+ * and gates requests before they are sent:
+ * - INTERACTIVE requests only wait for Retry-After or an exhausted window, and fail fast
+ * - BACKGROUND requests draw from a token bucket refilled at
+ *   (remaining - interactiveReserve) / seconds-until-reset, so the sync spreads the
+ *   remaining quota over the window and always leaves the reserve for user-facing calls
+ *
+ * 304 Not Modified responses are not counted by GitHub, so their token is refunded.
+ * GraphQL queries draw from a separate, point-based limit and get their own budget
+ * per credential, see {@link #budgetKey}.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class GitHubRateLimitGovernor {
+
+    private final GitHubApiConfig gitHubApiConfig;
+
+    private final Map<String, Budget> budgets = new ConcurrentHashMap<>();
+
+    /**
+     * Block until a request with the current thread's priority may be sent with the credential
+     *
+     * @param credentialId Credential the request is sent with
+     * @throws GitHubApiException (429) if the wait would exceed the configured maximum
+     */
+    public void acquire(String credentialId) {
+        GitHubRequestContext.Priority priority = GitHubRequestContext.currentPriority();
+        GitHubApiConfig.RateLimit settings = gitHubApiConfig.getRateLimit();
+        long maxWait = priority == GitHubRequestContext.Priority.BACKGROUND
+                ? settings.getMaxBackgroundWaitMs()
+                : settings.getMaxInteractiveWaitMs();
+        Duration remainingTime = GitHubRequestContext.remainingTime();
+        if (remainingTime != null) {
+            maxWait = Math.min(maxWait, Math.max(0, remainingTime.toMillis()));
+        }
+        Budget budget = budget(credentialId);
+        long waited = 0;
+
+        while (true) {
+            long waitMillis;
+            synchronized (budget) {
+                waitMillis = budget.computeWaitMillis(priority, settings);
+                if (waitMillis <= 0) {
+                    budget.consume(priority);
+                    return;
+                }
+            }
+
+            if (waited + waitMillis > maxWait) {
+                throw new GitHubApiException(String.format(
+                        "GitHub rate limit budget exhausted for %s requests, retry in %d s",
+                        priority.name().toLowerCase(), Duration.ofMillis(waitMillis).toSeconds() + 1),
+                        HttpStatus.TOO_MANY_REQUESTS.value());
+            }
+
+            log.debug("Pacing {} GitHub request on {} for {} ms", priority, credentialId, waitMillis);
+            sleep(waitMillis);
+            waited += waitMillis;
+        }
+    }
+
+    /**
+     * Record the rate limit headers of a GitHub response
+     *
+     * @param credentialId Credential the request was sent with
+     * @param headers Response headers
+     * @param statusCode HTTP status code
+     */
+    public void onResponse(String credentialId, HttpHeaders headers, int statusCode) {
+        Budget budget = budget(credentialId);
+        synchronized (budget) {
+            budget.update(headers, statusCode, gitHubApiConfig.getRateLimit());
+        }
+    }
+
+    /**
+     * Requests the credential can still send at the current thread's priority before it
+     * has to wait for the reset; {@link Long#MAX_VALUE} while its budget is unknown
+     *
+     * @param credentialId Credential
+     * @return Remaining headroom, 0 while the credential is blocked
+     */
+    public long headroom(String credentialId) {
+        GitHubRequestContext.Priority priority = GitHubRequestContext.currentPriority();
+        Budget budget = budget(credentialId);
+        synchronized (budget) {
+            return budget.headroom(priority, gitHubApiConfig.getRateLimit());
+        }
+    }
+
+    /**
+     * Current view of the rate limit budget of every credential that has been used
+     */
+    public List<RateLimitStatusDto> getStatus() {
+        GitHubApiConfig.RateLimit settings = gitHubApiConfig.getRateLimit();
+        return budgets.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey())
+                .map(entry -> {
+                    synchronized (entry.getValue()) {
+                        return entry.getValue().snapshot(entry.getKey(), settings);
+                    }
+                })
+                .toList();
+    }
+
+    /**
+     * Budget a request is accounted against: GitHub limits REST and GraphQL separately
+     *
+     * @param credentialId Credential the request is sent with
+     * @param uri Request URI
+     * @return credentialId for REST calls, credentialId + "/graphql" for GraphQL queries
+     */
+    public static String budgetKey(String credentialId, URI uri) {
+        return uri.getPath().endsWith("/graphql") ? credentialId + "/graphql" : credentialId;
+    }
+
+    private Budget budget(String credentialId) {
+        return budgets.computeIfAbsent(credentialId, id -> new Budget());
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new GitHubApiException("Interrupted while waiting for GitHub rate limit", e);
+        }
+    }
+
+    /**
+     * Rate limit state of one credential; guarded by its own monitor
+     */
+    private static final class Budget {
+        private Integer limit;
+        private Integer remaining;
+        private Instant resetAt;
+        private Instant retryAfterUntil = Instant.EPOCH;
+        private double backgroundTokens = -1;
+        private long lastRefillNanos = System.nanoTime();
+
+        long computeWaitMillis(GitHubRequestContext.Priority priority, GitHubApiConfig.RateLimit settings) {
+            Instant now = Instant.now();
+
+            if (retryAfterUntil.isAfter(now)) {
+                return Duration.between(now, retryAfterUntil).toMillis();
+            }
+
+            // Nothing known yet, or the window has rolled over: let the request through to learn the budget
+            if (remaining == null || resetAt == null || !resetAt.isAfter(now)) {
+                return 0;
+            }
+
+            if (remaining <= floor(priority, settings)) {
+                return Duration.between(now, resetAt).toMillis() + 1000;
+            }
+
+            if (priority == GitHubRequestContext.Priority.BACKGROUND) {
+                double rate = refillBackgroundTokens(settings, now);
+                if (backgroundTokens < 1) {
+                    return (long) Math.ceil((1 - backgroundTokens) / rate * 1000);
+                }
+            }
+
+            return 0;
+        }
+
+        void consume(GitHubRequestContext.Priority priority) {
+            if (remaining != null) {
+                remaining--;
+            }
+            if (priority == GitHubRequestContext.Priority.BACKGROUND && backgroundTokens >= 1) {
+                backgroundTokens--;
+            }
+        }
+
+        void update(HttpHeaders headers, int statusCode, GitHubApiConfig.RateLimit settings) {
+            Integer headerLimit = parseInt(headers.getFirst("X-RateLimit-Limit"));
+            Integer headerRemaining = parseInt(headers.getFirst("X-RateLimit-Remaining"));
+            Integer headerReset = parseInt(headers.getFirst("X-RateLimit-Reset"));
+
+            if (headerLimit != null) {
+                limit = headerLimit;
+            }
+            if (headerRemaining != null) {
+                remaining = headerRemaining;
+            }
+            if (headerReset != null) {
+                resetAt = Instant.ofEpochSecond(headerReset);
+            }
+
+            Integer retryAfter = parseInt(headers.getFirst(HttpHeaders.RETRY_AFTER));
+            if (retryAfter != null) {
+                retryAfterUntil = Instant.now().plusSeconds(retryAfter);
+                log.warn("GitHub requested Retry-After {} s (status {})", retryAfter, statusCode);
+            }
+
+            if (statusCode == HttpStatus.NOT_MODIFIED.value()
+                    && GitHubRequestContext.currentPriority() == GitHubRequestContext.Priority.BACKGROUND) {
+                backgroundTokens = Math.min(settings.getBackgroundBurst(), backgroundTokens + 1);
+            }
+        }
+
+        long headroom(GitHubRequestContext.Priority priority, GitHubApiConfig.RateLimit settings) {
+            Instant now = Instant.now();
+            if (retryAfterUntil.isAfter(now)) {
+                return 0;
+            }
+            if (remaining == null || resetAt == null || !resetAt.isAfter(now)) {
+                return Long.MAX_VALUE;
+            }
+            return Math.max(0, remaining - floor(priority, settings));
+        }
+
+        RateLimitStatusDto snapshot(String credentialId, GitHubApiConfig.RateLimit settings) {
+            Instant now = Instant.now();
+            return RateLimitStatusDto.builder()
+                    .credential(credentialId)
+                    .limit(limit)
+                    .remaining(remaining)
+                    .resetAt(toLocalDateTime(resetAt))
+                    .interactiveReserve(settings.getInteractiveReserve())
+                    .backgroundRequestsPerMinute(remaining == null ? -1 : backgroundRatePerSecond(settings, now) * 60)
+                    .retryAfterUntil(retryAfterUntil.isAfter(now) ? toLocalDateTime(retryAfterUntil) : null)
+                    .build();
+        }
+
+        private int floor(GitHubRequestContext.Priority priority, GitHubApiConfig.RateLimit settings) {
+            return priority == GitHubRequestContext.Priority.BACKGROUND ? settings.getInteractiveReserve() : 0;
+        }
+
+        private double refillBackgroundTokens(GitHubApiConfig.RateLimit settings, Instant now) {
+            long nowNanos = System.nanoTime();
+            double rate = backgroundRatePerSecond(settings, now);
+            if (backgroundTokens < 0) {
+                backgroundTokens = settings.getBackgroundBurst();
+            } else {
+                double elapsedSeconds = (nowNanos - lastRefillNanos) / 1_000_000_000.0;
+                backgroundTokens = Math.min(settings.getBackgroundBurst(), backgroundTokens + elapsedSeconds * rate);
+            }
+            lastRefillNanos = nowNanos;
+            return rate;
+        }
+
+        private double backgroundRatePerSecond(GitHubApiConfig.RateLimit settings, Instant now) {
+            if (remaining == null || resetAt == null) {
+                return 0;
+            }
+            long secondsUntilReset = Math.max(1, Duration.between(now, resetAt).toSeconds());
+            int budget = Math.max(0, remaining - settings.getInteractiveReserve());
+            return (double) budget / secondsUntilReset;
+        }
+
+        private static Integer parseInt(String value) {
+            if (value == null || value.isBlank()) {
+                return null;
+            }
+            try {
+                return Integer.valueOf(value.trim());
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+
+        private static LocalDateTime toLocalDateTime(Instant instant) {
+            return instant == null ? null : LocalDateTime.ofInstant(instant, ZoneOffset.UTC);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.peraton.cicd.service;
+
+import com.peraton.cicd.config.SchedulingConfig;
+import com.peraton.cicd.model.Repository;
+import com.peraton.cicd.repository.RepositoryRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+
+/**
+ * Resolves the GitHub owner/repo pair of a local repository, preferring the
+ * scheduler configuration and falling back to the repository's GitHub URL.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class GitHubRepositoryResolver {
+
+    private final SchedulingConfig schedulingConfig;
+    private final RepositoryRepository repositoryRepository;
+
+    /**
+     * Resolve owner and repo name for a repository
+     *
+     * @param repository Local repository
+     * @return Optional [owner, repo] pair
+     */
+    public Optional<String[]> resolve(Repository repository) {
+        for (SchedulingConfig.MonitoredRepository monitoredRepo : schedulingConfig.getRepositories()) {
+            if (repository.getId() != null && repository.getId().equals(monitoredRepo.getId())) {
+                return Optional.of(new String[]{monitoredRepo.getOwner(), monitoredRepo.getRepo()});
+            }
+        }
+        return Optional.ofNullable(extractOwnerAndRepo(repository.getGithubUrl()));
+    }
+
+    /**
+     * Find the local repository ID for a GitHub owner/repo pair, checking the
+     * scheduler configuration first and then the repositories' GitHub URLs (an indexed lookup)
+     *
+     * @param owner Repository owner
+     * @param repo Repository name
+     * @return Optional local repository ID
+     */
+    public Optional<Long> findRepositoryId(String owner, String repo) {
+        for (SchedulingConfig.MonitoredRepository monitoredRepo : schedulingConfig.getRepositories()) {
+            if (monitoredRepo.getId() != null
+                    && owner.equalsIgnoreCase(monitoredRepo.getOwner())
+                    && repo.equalsIgnoreCase(monitoredRepo.getRepo())) {
+                return Optional.of(monitoredRepo.getId());
+            }
+        }
+
+        return repositoryRepository.findIdByGithubOwnerAndRepo(owner, repo);
+    }
+
+    /**
+     * Extract owner and repo name from GitHub URL
+     * Examples:
+     * - https://github.com/owner/repo -> [owner, repo]
+     * - https://github.com/owner/repo.git -> [owner, repo]
+     */
+    public static String[] extractOwnerAndRepo(String githubUrl) {
+        if (githubUrl == null || githubUrl.isEmpty()) {
+            return null;
+        }
+
+        try {
+            // Remove .git suffix if present
+            String url = githubUrl.replaceAll("\\.git$", "");
+
+            // Extract from URL
+            String[] urlParts = url.split("/");
+            if (urlParts.length >= 2) {
+                String owner = urlParts[urlParts.length - 2];
+                String repo = urlParts[urlParts.length - 1];
+                return new String[]{owner, repo};
+            }
+        } catch (Exception e) {
+            log.error("Error parsing GitHub URL: {}", githubUrl, e);
+        }
+
+        return null;
+    }
+}
@@ -0,0 +1,71 @@
+package com.peraton.cicd.service;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Thread-bound context for outgoing GitHub requests. Requests default to
+ * INTERACTIVE (user-facing /api/github calls); scheduler work runs as
+ * BACKGROUND so the rate limit governor can pace it behind user traffic.
+ * Work bounded by a time budget (a sync cycle) also carries its deadline.
+ */
+public final class GitHubRequestContext {
+
+    public enum Priority {
+        INTERACTIVE,
+        BACKGROUND
+    }
+
+    private static final ThreadLocal<Priority> PRIORITY = ThreadLocal.withInitial(() -> Priority.INTERACTIVE);
+    private static final ThreadLocal<Instant> DEADLINE = new ThreadLocal<>();
+
+    private GitHubRequestContext() {
+    }
+
+    public static Priority currentPriority() {
+        return PRIORITY.get();
+    }
+
+    /**
+     * Wrap a task so every GitHub request it makes is issued as BACKGROUND
+     */
+    public static Runnable background(Runnable task) {
+        return () -> {
+            Priority previous = PRIORITY.get();
+            PRIORITY.set(Priority.BACKGROUND);
+            try {
+                task.run();
+            } finally {
+                PRIORITY.set(previous);
+            }
+        };
+    }
+
+    /**
+     * Wrap a task so every GitHub request it makes has to finish by the deadline
+     */
+    public static Runnable withDeadline(Instant deadline, Runnable task) {
+        return () -> {
+            Instant previous = DEADLINE.get();
+            DEADLINE.set(deadline);
+            try {
+                task.run();
+            } finally {
+                DEADLINE.set(previous);
+            }
+        };
+    }
+
+    /**
+     * Time left until the current thread's deadline, or null if it has none
+     */
+    public static Duration remainingTime() {
+        Instant deadline = DEADLINE.get();
+        return deadline != null ? Duration.between(Instant.now(), deadline) : null;
+    }
+
+    public static boolean deadlineExceeded() {
+        Duration remaining = remainingTime();
+        return remaining != null && (remaining.isNegative() || remaining.isZero());
+    }
+}
@@ -0,0 +1,190 @@
+package com.peraton.cicd.service;
+
+import com.peraton.cicd.config.GitHubApiConfig;
+import com.peraton.cicd.dto.github.GitHubCacheStatsDto;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Short-lived LRU cache in front of the live /api/github lookups.
+ *
+ * - fresh entries (younger than cache.ttl-ms) are served without calling GitHub
+ * - stale entries (up to cache.stale-ms past the TTL) are served immediately while
+ *   one background refresh runs on the githubStatusExecutor
+ * - on a miss, concurrent callers for the same key share a single upstream request
+ *
+ * Failures are never cached; every caller waiting on a failed load gets the exception.
+ */
+@Component
+@Slf4j
+public class GitHubResponseCache {
+
+    private final GitHubApiConfig gitHubApiConfig;
+    private final ThreadPoolTaskExecutor refreshExecutor;
+
+    private final Map<Key, Entry> entries;
+    private final Map<Key, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong staleHits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final AtomicLong loadFailures = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public GitHubResponseCache(GitHubApiConfig gitHubApiConfig,
+                               @Qualifier("githubStatusExecutor") ThreadPoolTaskExecutor refreshExecutor) {
+        this.gitHubApiConfig = gitHubApiConfig;
+        this.refreshExecutor = refreshExecutor;
+        int maxEntries = Math.max(1, gitHubApiConfig.getCache().getMaxEntries());
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+                if (size() > maxEntries) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Get the cached value for a key, loading it from GitHub when needed
+     *
+     * @param key Request key
+     * @param loader Upstream call; runs at most once at a time per key
+     * @return Cached or freshly loaded value
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(Key key, Supplier<T> loader) {
+        GitHubApiConfig.Cache settings = gitHubApiConfig.getCache();
+        if (settings.getTtlMs() <= 0) {
+            return loader.get();
+        }
+
+        long now = System.currentTimeMillis();
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.get(key);
+        }
+
+        if (entry != null) {
+            long age = now - entry.loadedAt();
+            if (age < settings.getTtlMs()) {
+                hits.incrementAndGet();
+                return (T) entry.value();
+            }
+            if (age < settings.getTtlMs() + settings.getStaleMs()) {
+                staleHits.incrementAndGet();
+                refreshInBackground(key, loader);
+                return (T) entry.value();
+            }
+        }
+
+        misses.incrementAndGet();
+        return (T) load(key, loader, true);
+    }
+
+    public GitHubCacheStatsDto getStats() {
+        long hitCount = hits.get() + staleHits.get();
+        long requests = hitCount + misses.get();
+        int size;
+        synchronized (entries) {
+            size = entries.size();
+        }
+        return GitHubCacheStatsDto.builder()
+                .size(size)
+                .maxEntries(gitHubApiConfig.getCache().getMaxEntries())
+                .hits(hits.get())
+                .staleHits(staleHits.get())
+                .misses(misses.get())
+                .coalesced(coalesced.get())
+                .loadFailures(loadFailures.get())
+                .evictions(evictions.get())
+                .hitRatio(requests == 0 ? 0 : (double) hitCount / requests)
+                .build();
+    }
+
+    private void refreshInBackground(Key key, Supplier<?> loader) {
+        if (inFlight.containsKey(key)) {
+            return;
+        }
+        try {
+            refreshExecutor.execute(() -> {
+                try {
+                    load(key, loader, false);
+                } catch (RuntimeException e) {
+                    log.debug("Background refresh of {} failed, keeping the stale entry: {}", key, e.getMessage());
+                }
+            });
+        } catch (TaskRejectedException e) {
+            log.debug("Background refresh of {} skipped, executor is busy", key);
+        }
+    }
+
+    private Object load(Key key, Supplier<?> loader, boolean countCoalesced) {
+        CompletableFuture<Object> pending = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(key, pending);
+        if (existing != null) {
+            if (countCoalesced) {
+                coalesced.incrementAndGet();
+            }
+            return await(existing);
+        }
+
+        try {
+            Object value = loader.get();
+            synchronized (entries) {
+                entries.put(key, new Entry(value, System.currentTimeMillis()));
+            }
+            pending.complete(value);
+            return value;
+        } catch (RuntimeException e) {
+            loadFailures.incrementAndGet();
+            pending.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, pending);
+        }
+    }
+
+    private static Object await(CompletableFuture<Object> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Cache key of a live lookup; null components mean "not filtered"
+     *
+     * @param kind Lookup type, e.g. "latest" or "runs"
+     */
+    public record Key(String kind, String owner, String repo, String branch, String status, Integer perPage) {
+
+        public Key {
+            // GitHub owner and repository names are case-insensitive
+            owner = owner != null ? owner.toLowerCase() : null;
+            repo = repo != null ? repo.toLowerCase() : null;
+        }
+    }
+
+    private record Entry(Object value, long loadedAt) {
+    }
+}
@@ -0,0 +1,120 @@
+package com.peraton.cicd.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.peraton.cicd.config.GitHubWebhookConfig;
+import com.peraton.cicd.dto.github.WorkflowRun;
+import com.peraton.cicd.dto.github.WorkflowRunEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.Optional;
+
+/**
+ * Receives GitHub workflow_run webhook deliveries.
+ *
+ * Deliveries are verified and queued by the controller thread, then applied to
+ * builds on a single background thread so events for the same run are applied
+ * in the order they arrived.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class GitHubWebhookService {
+
+    private static final String SIGNATURE_PREFIX = "sha256=";
+
+    private final GitHubWebhookConfig gitHubWebhookConfig;
+    private final GitHubActionsService gitHubActionsService;
+    private final GitHubRepositoryResolver gitHubRepositoryResolver;
+    private final RepositoryPollScheduler repositoryPollScheduler;
+    @Qualifier("githubWebhookExecutor")
+    private final ThreadPoolTaskExecutor githubWebhookExecutor;
+    private final ObjectMapper objectMapper;
+
+    public boolean isConfigured() {
+        return gitHubWebhookConfig.getSecret() != null && !gitHubWebhookConfig.getSecret().isBlank();
+    }
+
+    /**
+     * Verify the X-Hub-Signature-256 header against the raw request body
+     *
+     * @param payload Raw request body
+     * @param signatureHeader Header value, "sha256=" followed by the hex HMAC
+     * @return true if the signature matches the configured secret
+     */
+    public boolean isValidSignature(byte[] payload, String signatureHeader) {
+        if (!isConfigured() || signatureHeader == null || !signatureHeader.startsWith(SIGNATURE_PREFIX)) {
+            return false;
+        }
+
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(gitHubWebhookConfig.getSecret().getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+            byte[] expected = mac.doFinal(payload);
+            byte[] actual = HexFormat.of().parseHex(signatureHeader.substring(SIGNATURE_PREFIX.length()));
+            return MessageDigest.isEqual(expected, actual);
+        } catch (IllegalArgumentException e) {
+            return false;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 not available", e);
+        }
+    }
+
+    /**
+     * Queue a verified workflow_run delivery for processing
+     *
+     * @param deliveryId X-GitHub-Delivery header, for logging
+     * @param payload Raw request body
+     * @return false if the queue is full
+     */
+    public boolean enqueue(String deliveryId, byte[] payload) {
+        try {
+            githubWebhookExecutor.execute(() -> process(deliveryId, payload));
+            return true;
+        } catch (TaskRejectedException e) {
+            log.warn("Webhook queue full, refusing delivery {}", deliveryId);
+            return false;
+        }
+    }
+
+    private void process(String deliveryId, byte[] payload) {
+        try {
+            WorkflowRunEvent event = objectMapper.readValue(payload, WorkflowRunEvent.class);
+            WorkflowRun run = event.getWorkflowRun();
+            if (run == null || event.getRepository() == null || event.getRepository().getFullName() == null) {
+                log.warn("Ignoring webhook delivery {} without workflow_run or repository", deliveryId);
+                return;
+            }
+
+            String[] ownerAndRepo = event.getRepository().getFullName().split("/", 2);
+            Optional<Long> repositoryId = ownerAndRepo.length == 2
+                    ? gitHubRepositoryResolver.findRepositoryId(ownerAndRepo[0], ownerAndRepo[1])
+                    : Optional.empty();
+            if (repositoryId.isEmpty()) {
+                log.debug("Ignoring webhook delivery {} for unmonitored repository {}",
+                        deliveryId, event.getRepository().getFullName());
+                return;
+            }
+
+            // Relaxes polling of the repository on every instance, not just this one
+            repositoryPollScheduler.recordWebhookDelivery(repositoryId.get());
+            boolean changed = gitHubActionsService.applyWorkflowRun(repositoryId.get(), run);
+            log.info("Applied workflow_run {} ({}) for {}: {}", run.getId(), event.getAction(),
+                    event.getRepository().getFullName(), changed ? "updated" : "unchanged");
+
+        } catch (Exception e) {
+            // Polling reconciles anything a failed delivery missed
+            log.error("Failed to process webhook delivery {}: {}", deliveryId, e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.peraton.cicd.service;
+
+import com.peraton.cicd.config.GitHubWebhookConfig;
+import com.peraton.cicd.config.SchedulingConfig;
+import com.peraton.cicd.model.Build;
+import com.peraton.cicd.model.RepositorySyncState;
+import com.peraton.cicd.repository.BuildRepository;
+import com.peraton.cicd.repository.RepositorySyncStateRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Per-repository polling schedule.
+ *
+ * After every sync the next poll time of a repository is derived from its activity:
+ * - active: running builds, or a run within polling.active-window, polls every polling.active-interval
+ * - quiet: a run within polling.idle-after polls every scheduler.github-sync-rate
+ * - idle: the interval doubles on every quiet poll, up to polling.idle-interval
+ * - failing: jittered exponential backoff from polling.active-interval, up to polling.max-backoff
+ *
+ * Repositories that delivered a webhook within polling.idle-after are only reconciled,
+ * at no less than github.webhook.reconciliation-interval. Deliveries are recorded in
+ * repository_sync_state as well, so it doesn't matter which instance received them.
+ *
+ * The schedule is stored in repository_sync_state, so it survives restarts and is shared
+ * by all instances; RepositorySyncQueue claims the repositories whose next poll is due.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RepositoryPollScheduler {
+
+    private static final Set<Build.BuildStatus> RUNNING_STATUSES =
+            EnumSet.of(Build.BuildStatus.PENDING, Build.BuildStatus.IN_PROGRESS);
+
+    private final RepositorySyncStateRepository syncStateRepository;
+    private final BuildRepository buildRepository;
+    private final SchedulingConfig schedulingConfig;
+    private final GitHubWebhookConfig gitHubWebhookConfig;
+
+    /**
+     * Schedule the next poll after a successful sync
+     *
+     * @param repositoryId Repository ID
+     */
+    @Transactional
+    public void recordSuccess(Long repositoryId) {
+        SchedulingConfig.Polling polling = schedulingConfig.getPolling();
+        RepositorySyncState state = loadState(repositoryId);
+
+        long interval;
+        if (isActive(state, polling)) {
+            interval = polling.getActiveInterval();
+        } else if (isQuiet(state, polling)) {
+            interval = schedulingConfig.getGithubSyncRate();
+        } else {
+            long previous = state.getPollIntervalMs() != null ? state.getPollIntervalMs() : schedulingConfig.getGithubSyncRate();
+            interval = Math.min(polling.getIdleInterval(), Math.max(schedulingConfig.getGithubSyncRate(), previous * 2));
+        }
+
+        if (webhookWithin(state, polling.getIdleAfter())) {
+            interval = Math.max(interval, gitHubWebhookConfig.getReconciliationInterval());
+        }
+
+        state.setConsecutiveFailures(0);
+        state.setPollIntervalMs(interval);
+        state.setNextPollAt(LocalDateTime.now().plus(Duration.ofMillis(withJitter(interval, polling.getJitter()))));
+        syncStateRepository.save(state);
+
+        log.debug("Repository {} polled again in ~{} s", repositoryId, interval / 1000);
+    }
+
+    /**
+     * Note a webhook delivery for the repository, which relaxes its polling from the next sync on
+     *
+     * @param repositoryId Repository ID
+     */
+    @Transactional
+    public void recordWebhookDelivery(Long repositoryId) {
+        syncStateRepository.recordWebhook(repositoryId, LocalDateTime.now());
+    }
+
+    /**
+     * Back off after a failed sync
+     *
+     * @param repositoryId Repository ID
+     */
+    @Transactional
+    public void recordFailure(Long repositoryId) {
+        SchedulingConfig.Polling polling = schedulingConfig.getPolling();
+        RepositorySyncState state = loadState(repositoryId);
+
+        int failures = state.getConsecutiveFailures() + 1;
+        long backoff = polling.getActiveInterval() << Math.min(failures, 20);
+        backoff = Math.min(polling.getMaxBackoff(), backoff);
+
+        // Equal jitter: half fixed, half random, so failing repositories don't retry in lockstep
+        long delay = backoff / 2 + ThreadLocalRandom.current().nextLong(backoff / 2 + 1);
+
+        state.setConsecutiveFailures(failures);
+        state.setNextPollAt(LocalDateTime.now().plus(Duration.ofMillis(delay)));
+        syncStateRepository.save(state);
+
+        log.debug("Repository {} failed {} time(s) in a row, retrying in {} s", repositoryId, failures, delay / 1000);
+    }
+
+    private RepositorySyncState loadState(Long repositoryId) {
+        return syncStateRepository.findById(repositoryId)
+                .orElseGet(() -> new RepositorySyncState(repositoryId));
+    }
+
+    private boolean isActive(RepositorySyncState state, SchedulingConfig.Polling polling) {
+        return ranWithin(state, polling.getActiveWindow())
+                || buildRepository.existsByRepositoryIdAndStatusIn(state.getRepositoryId(), RUNNING_STATUSES);
+    }
+
+    private boolean isQuiet(RepositorySyncState state, SchedulingConfig.Polling polling) {
+        return ranWithin(state, polling.getIdleAfter());
+    }
+
+    private boolean ranWithin(RepositorySyncState state, long windowMs) {
+        // Run timestamps come from GitHub in UTC
+        return state.getLastRunCreatedAt() != null
+                && state.getLastRunCreatedAt().isAfter(LocalDateTime.now(ZoneOffset.UTC).minus(Duration.ofMillis(windowMs)));
+    }
+
+    private boolean webhookWithin(RepositorySyncState state, long windowMs) {
+        return state.getLastWebhookAt() != null
+                && state.getLastWebhookAt().isAfter(LocalDateTime.now().minus(Duration.ofMillis(windowMs)));
+    }
+
+    private static long withJitter(long interval, double jitter) {
+        if (jitter <= 0) {
+            return interval;
+        }
+        double factor = 1 + ThreadLocalRandom.current().nextDouble(-jitter, jitter);
+        return Math.max(1000, (long) (interval * factor));
+    }
+}
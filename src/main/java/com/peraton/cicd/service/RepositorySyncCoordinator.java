@@ -0,0 +1,83 @@
+package com.peraton.cicd.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Single-flight guard around {@link GitHubActionsService#syncWorkflowRunsToDatabase}.
+ *
+ * Scheduled polls, manual triggers and sync jobs all go through here, so at most one
+ * sync per repository runs at a time; a caller arriving while one is running waits for
+ * it and gets its result instead of fetching and inserting the same runs again.
+ * Across instances the repository's lease in {@link RepositorySyncQueue} does the same:
+ * a sync that doesn't already hold it takes it for the duration of the sync.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RepositorySyncCoordinator {
+
+    private final GitHubActionsService gitHubActionsService;
+    private final RepositorySyncQueue repositorySyncQueue;
+
+    private final Map<Long, CompletableFuture<Integer>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * Sync a repository on the calling thread, or join the sync already running for it
+     *
+     * @param owner Repository owner
+     * @param repo Repository name
+     * @param repositoryId Local repository ID in database
+     * @return Number of builds synced by the sync that ran
+     * @throws IllegalStateException if another instance is syncing the repository
+     */
+    public int sync(String owner, String repo, Long repositoryId) {
+        if (repositoryId == null) {
+            return gitHubActionsService.syncWorkflowRunsToDatabase(owner, repo, null);
+        }
+
+        CompletableFuture<Integer> pending = new CompletableFuture<>();
+        CompletableFuture<Integer> existing = inFlight.putIfAbsent(repositoryId, pending);
+        if (existing != null) {
+            log.info("Sync of {}/{} already running, waiting for it", owner, repo);
+            return await(existing);
+        }
+
+        try {
+            // Scheduled syncs already hold the lease and release it themselves
+            boolean leased = repositorySyncQueue.acquire(repositoryId);
+            int syncedCount;
+            try {
+                syncedCount = gitHubActionsService.syncWorkflowRunsToDatabase(owner, repo, repositoryId);
+            } finally {
+                if (leased) {
+                    repositorySyncQueue.release(repositoryId);
+                }
+            }
+            pending.complete(syncedCount);
+            return syncedCount;
+        } catch (RuntimeException e) {
+            pending.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(repositoryId, pending);
+        }
+    }
+
+    private static int await(CompletableFuture<Integer> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.peraton.cicd.service;
+
+import com.peraton.cicd.config.SchedulingConfig;
+import com.peraton.cicd.model.RepositorySyncState;
+import com.peraton.cicd.repository.RepositorySyncStateRepository;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Database-backed work queue of per-repository sync tasks, shared by every instance of the app.
+ *
+ * Each repository_sync_state row is a task. An instance claims due rows with
+ * FOR UPDATE SKIP LOCKED and stamps them with a lease (its instance ID and an expiry),
+ * so concurrent claims never wait on each other and never take the same repository.
+ * The lease is released once the next poll is scheduled. A lease whose holder crashed
+ * expires after scheduler.lease.duration and the repository is claimed again.
+ */
+@Service
+@Slf4j
+public class RepositorySyncQueue {
+
+    private final RepositorySyncStateRepository syncStateRepository;
+    private final SchedulingConfig schedulingConfig;
+
+    @Getter
+    private final String instanceId;
+
+    public RepositorySyncQueue(RepositorySyncStateRepository syncStateRepository, SchedulingConfig schedulingConfig) {
+        this.syncStateRepository = syncStateRepository;
+        this.schedulingConfig = schedulingConfig;
+
+        String configured = schedulingConfig.getInstanceId();
+        this.instanceId = configured != null && !configured.isBlank() ? configured : defaultInstanceId();
+        log.info("Sync queue instance ID: {}", instanceId);
+    }
+
+    /**
+     * Lease the due repositories among the given ones, at most scheduler.lease.batch-size
+     *
+     * @param repositoryIds Candidate repository IDs
+     * @return IDs leased to this instance; repositories never synced are due immediately
+     */
+    @Transactional
+    public Set<Long> claimDue(Collection<Long> repositoryIds) {
+        return claim(repositoryIds, false, Math.max(1, schedulingConfig.getLease().getBatchSize()));
+    }
+
+    /**
+     * Lease every given repository regardless of its schedule, except those leased by another sync
+     *
+     * @param repositoryIds Candidate repository IDs
+     * @return IDs leased to this instance
+     */
+    @Transactional
+    public Set<Long> claimAll(Collection<Long> repositoryIds) {
+        return claim(repositoryIds, true, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Lease a single repository for a sync outside the scheduled cycle
+     *
+     * @param repositoryId Repository ID
+     * @return true if leased now and to be released by the caller, false if this instance already holds the lease
+     * @throws IllegalStateException if another instance holds the lease
+     */
+    @Transactional
+    public boolean acquire(Long repositoryId) {
+        if (!claim(List.of(repositoryId), true, 1).isEmpty()) {
+            return true;
+        }
+
+        String owner = syncStateRepository.findLeaseOwner(repositoryId);
+        if (instanceId.equals(owner)) {
+            return false;
+        }
+        throw new IllegalStateException(String.format(
+                "Repository %d is already being synced by instance %s", repositoryId, owner));
+    }
+
+    /**
+     * Release this instance's lease on a repository; a lease since taken over by another instance is left alone
+     *
+     * @param repositoryId Repository ID
+     */
+    @Transactional
+    public void release(Long repositoryId) {
+        syncStateRepository.releaseLease(repositoryId, instanceId);
+    }
+
+    private Set<Long> claim(Collection<Long> repositoryIds, boolean force, int limit) {
+        if (repositoryIds.isEmpty()) {
+            return Set.of();
+        }
+
+        // Every repository needs a row to be leased; new repositories don't have one yet
+        Set<Long> missing = new HashSet<>(repositoryIds);
+        syncStateRepository.findAllById(repositoryIds).stream()
+                .map(RepositorySyncState::getRepositoryId)
+                .forEach(missing::remove);
+        missing.forEach(syncStateRepository::insertIfAbsent);
+
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime expiresAt = now.plus(Duration.ofMillis(schedulingConfig.getLease().getDuration()));
+        List<Long> claimed = syncStateRepository.claimLeases(repositoryIds, force, now, instanceId, expiresAt, limit);
+
+        log.debug("Claimed {} of {} repositories for sync", claimed.size(), repositoryIds.size());
+        return new HashSet<>(claimed);
+    }
+
+    private static String defaultInstanceId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            host = "unknown";
+        }
+        // Suffix keeps IDs unique for several instances on one host and across restarts
+        return host + "-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+}
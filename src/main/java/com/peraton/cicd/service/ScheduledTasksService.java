@@ -6,188 +6,329 @@ import com.peraton.cicd.model.Repository;
 import com.peraton.cicd.repository.RepositoryRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Service;
 
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
-@ConditionalOnProperty(prefix = "scheduler", name = "enabled", havingValue = "true", matchIfMissing = true)
 public class ScheduledTasksService {
 
-    private final GitHubActionsService gitHubActionsService;
+    private final RepositorySyncCoordinator repositorySyncCoordinator;
     private final RepositoryRepository repositoryRepository;
     private final SchedulingConfig schedulingConfig;
+    @Qualifier("githubSyncExecutor")
+    private final ThreadPoolTaskExecutor githubSyncExecutor;
+    private final RepositoryPollScheduler repositoryPollScheduler;
+    private final RepositorySyncQueue repositorySyncQueue;
 
     /**
-     * Scheduled task that polls GitHub API every 5 minutes
-     * and saves new builds to the database
+     * Scheduled task that checks every few seconds which repositories are due
+     * and syncs only those. Each repository's poll interval adapts to its
+     * activity, see RepositoryPollScheduler. With several instances running,
+     * each due repository is synced by the instance that leases it, see RepositorySyncQueue.
      */
-    @Scheduled(fixedRateString = "${scheduler.github-sync-rate:300000}") // Default: 5 minutes (300000ms)
+    @Scheduled(fixedDelayString = "${scheduler.polling.tick-rate:15000}") // Default: 15 seconds
     public void syncGitHubBuildsScheduled() {
         if (!schedulingConfig.isEnabled()) {
             log.debug("Scheduler is disabled, skipping GitHub sync");
             return;
         }
 
-        log.info("========================================");
-        log.info("Starting scheduled GitHub builds sync at {}", LocalDateTime.now());
-        log.info("========================================");
+        syncRepositories(false);
+    }
 
-        int totalSynced = 0;
-        int successCount = 0;
-        int failureCount = 0;
+    /**
+     * Sync monitored repositories and log a summary of the cycle
+     *
+     * @param force Sync every repository, ignoring its polling schedule
+     * @return Summary of the cycle
+     */
+    private SyncSummary syncRepositories(boolean force) {
+        SyncSummary summary = new SyncSummary();
+        List<SyncTarget> targets;
 
         try {
-            // Get configured repositories from application.yml
-            List<SchedulingConfig.MonitoredRepository> configuredRepos = schedulingConfig.getRepositories();
+            targets = claim(findTargets(), force, summary);
+        } catch (Exception e) {
+            log.error("Critical error while selecting repositories to sync: {}", e.getMessage(), e);
+            summary.recordFailure();
+            return summary;
+        }
 
-            if (configuredRepos.isEmpty()) {
-                log.warn("No repositories configured for scheduled sync. Add repositories in application.yml under 'scheduler.repositories'");
-                syncAllRepositories();
-                return;
-            }
+        if (targets.isEmpty()) {
+            log.debug("No repositories due for sync");
+            return summary;
+        }
 
-            // Sync configured repositories
-            for (SchedulingConfig.MonitoredRepository monitoredRepo : configuredRepos) {
-                if (!monitoredRepo.isEnabled()) {
-                    log.debug("Skipping disabled repository: {}/{}", monitoredRepo.getOwner(), monitoredRepo.getRepo());
-                    continue;
-                }
-
-                try {
-                    log.info("Syncing repository: {}/{} (ID: {})",
-                            monitoredRepo.getOwner(), monitoredRepo.getRepo(), monitoredRepo.getId());
-
-                    int syncedCount = gitHubActionsService.syncWorkflowRunsToDatabase(
-                            monitoredRepo.getOwner(),
-                            monitoredRepo.getRepo(),
-                            monitoredRepo.getId()
-                    );
-
-                    totalSynced += syncedCount;
-                    successCount++;
-
-                    log.info("Successfully synced {} new builds for {}/{}",
-                            syncedCount, monitoredRepo.getOwner(), monitoredRepo.getRepo());
-
-                } catch (GitHubApiException e) {
-                    failureCount++;
-                    log.error("GitHub API error while syncing {}/{}: {}",
-                            monitoredRepo.getOwner(), monitoredRepo.getRepo(), e.getMessage());
-                } catch (IllegalArgumentException e) {
-                    failureCount++;
-                    log.error("Repository configuration error for {}/{}: {}",
-                            monitoredRepo.getOwner(), monitoredRepo.getRepo(), e.getMessage());
-                } catch (Exception e) {
-                    failureCount++;
-                    log.error("Unexpected error while syncing {}/{}: {}",
-                            monitoredRepo.getOwner(), monitoredRepo.getRepo(), e.getMessage(), e);
-                }
-            }
+        log.info("========================================");
+        log.info("Starting scheduled GitHub builds sync at {}", LocalDateTime.now());
+        log.info("========================================");
 
+        try {
+            syncInParallel(targets, summary);
         } catch (Exception e) {
             log.error("Critical error during scheduled sync: {}", e.getMessage(), e);
         } finally {
             log.info("========================================");
             log.info("Scheduled GitHub sync completed at {}", LocalDateTime.now());
-            log.info("Total builds synced: {}", totalSynced);
-            log.info("Successful repositories: {}", successCount);
-            log.info("Failed repositories: {}", failureCount);
+            log.info("Total builds synced: {}", summary.getTotalSynced());
+            log.info("Successful repositories: {}", summary.getSuccessCount());
+            log.info("Failed repositories: {}", summary.getFailureCount());
+            if (summary.getDeferredCount() > 0) {
+                log.info("Deferred repositories (cycle deadline): {}", summary.getDeferredCount());
+            }
+            if (summary.getSkippedCount() > 0) {
+                log.info("Skipped repositories (already being synced): {}", summary.getSkippedCount());
+            }
             log.info("========================================");
         }
+        return summary;
     }
 
     /**
-     * Fallback method to sync all repositories in database when no config is provided
+     * Repositories configured in application.yml, or every repository in the
+     * database when none are configured
      */
-    private void syncAllRepositories() {
-        log.info("Attempting to sync all repositories from database");
+    private List<SyncTarget> findTargets() {
+        List<SchedulingConfig.MonitoredRepository> configuredRepos = schedulingConfig.getRepositories();
 
+        if (configuredRepos.isEmpty()) {
+            log.debug("No repositories configured under 'scheduler.repositories', using all repositories from database");
+            return findDatabaseTargets();
+        }
+
+        List<SyncTarget> targets = new ArrayList<>();
+        for (SchedulingConfig.MonitoredRepository monitoredRepo : configuredRepos) {
+            if (!monitoredRepo.isEnabled()) {
+                log.debug("Skipping disabled repository: {}/{}", monitoredRepo.getOwner(), monitoredRepo.getRepo());
+                continue;
+            }
+            targets.add(new SyncTarget(monitoredRepo.getOwner(), monitoredRepo.getRepo(), monitoredRepo.getId()));
+        }
+        return targets;
+    }
+
+    /**
+     * Fallback target list built from the repositories in the database
+     */
+    private List<SyncTarget> findDatabaseTargets() {
         List<Repository> allRepositories = repositoryRepository.findAll();
 
         if (allRepositories.isEmpty()) {
-            log.warn("No repositories found in database. Please add repositories first.");
-            return;
+            log.debug("No repositories found in database. Please add repositories first.");
+            return List.of();
         }
 
-        int totalSynced = 0;
-        int successCount = 0;
-        int failureCount = 0;
-
+        List<SyncTarget> targets = new ArrayList<>();
         for (Repository repository : allRepositories) {
-            try {
-                // Extract owner and repo from GitHub URL
-                String[] parts = extractOwnerAndRepo(repository.getGithubUrl());
-                if (parts == null) {
-                    log.warn("Could not extract owner/repo from URL: {}", repository.getGithubUrl());
-                    continue;
-                }
+            // Extract owner and repo from GitHub URL
+            String[] parts = GitHubRepositoryResolver.extractOwnerAndRepo(repository.getGithubUrl());
+            if (parts == null) {
+                log.warn("Could not extract owner/repo from URL: {}", repository.getGithubUrl());
+                continue;
+            }
+            targets.add(new SyncTarget(parts[0], parts[1], repository.getId()));
+        }
+        return targets;
+    }
 
-                String owner = parts[0];
-                String repo = parts[1];
+    /**
+     * Lease the targets to sync in this cycle: the due ones, or with force all of them.
+     * Repositories already leased, by this or another instance, are left to that sync;
+     * with force they are counted as skipped.
+     */
+    private List<SyncTarget> claim(List<SyncTarget> targets, boolean force, SyncSummary summary) {
+        List<Long> repositoryIds = targets.stream()
+                .map(SyncTarget::repositoryId)
+                .filter(Objects::nonNull)
+                .toList();
+        Set<Long> claimed = force
+                ? repositorySyncQueue.claimAll(repositoryIds)
+                : repositorySyncQueue.claimDue(repositoryIds);
+
+        if (force && claimed.size() < repositoryIds.size()) {
+            int skipped = repositoryIds.size() - claimed.size();
+            summary.recordSkipped(skipped);
+            log.info("{} repositories are already being synced, skipped", skipped);
+        }
 
-                log.info("Syncing repository: {}/{} (ID: {})", owner, repo, repository.getId());
+        return targets.stream()
+                .filter(target -> target.repositoryId() == null || claimed.contains(target.repositoryId()))
+                .toList();
+    }
 
-                int syncedCount = gitHubActionsService.syncWorkflowRunsToDatabase(
-                        owner,
-                        repo,
-                        repository.getId()
-                );
+    /**
+     * Sync the given repositories on the bounded sync executor and wait for all of them.
+     * Each repository runs in isolation: a failure is counted and logged, never propagated.
+     * The whole cycle shares the scheduler.sync-deadline budget.
+     */
+    private void syncInParallel(List<SyncTarget> targets, SyncSummary summary) {
+        if (targets.isEmpty()) {
+            return;
+        }
 
-                totalSynced += syncedCount;
-                successCount++;
+        log.info("Syncing {} repositories with parallelism {}",
+                targets.size(), githubSyncExecutor.getMaxPoolSize());
 
-                log.info("Successfully synced {} new builds for {}/{}", syncedCount, owner, repo);
+        Instant deadline = Instant.now().plusMillis(schedulingConfig.getSyncDeadline());
+        CompletableFuture<?>[] futures = targets.stream()
+                .map(target -> CompletableFuture.runAsync(
+                        GitHubRequestContext.withDeadline(deadline, () -> syncRepository(target, summary)),
+                        githubSyncExecutor))
+                .toArray(CompletableFuture[]::new);
 
-            } catch (Exception e) {
-                failureCount++;
-                log.error("Error syncing repository {}: {}", repository.getName(), e.getMessage());
-            }
-        }
+        CompletableFuture.allOf(futures).join();
+    }
 
-        log.info("Database repository sync completed. Synced: {}, Success: {}, Failed: {}",
-                totalSynced, successCount, failureCount);
+    private void syncRepository(SyncTarget target, SyncSummary summary) {
+        try {
+            syncLeasedRepository(target, summary);
+        } finally {
+            releaseLease(target);
+        }
     }
 
-    /**
-     * Extract owner and repo name from GitHub URL
-     * Examples:
-     * - https://github.com/owner/repo -> [owner, repo]
-     * - https://github.com/owner/repo.git -> [owner, repo]
-     */
-    private String[] extractOwnerAndRepo(String githubUrl) {
-        if (githubUrl == null || githubUrl.isEmpty()) {
-            return null;
+    private void syncLeasedRepository(SyncTarget target, SyncSummary summary) {
+        if (GitHubRequestContext.deadlineExceeded()) {
+            // Not reached in this cycle; the repository stays due and is picked up on the next tick
+            summary.recordDeferred();
+            return;
         }
 
         try {
-            // Remove .git suffix if present
-            String url = githubUrl.replaceAll("\\.git$", "");
-
-            // Extract from URL
-            String[] urlParts = url.split("/");
-            if (urlParts.length >= 2) {
-                String owner = urlParts[urlParts.length - 2];
-                String repo = urlParts[urlParts.length - 1];
-                return new String[]{owner, repo};
+            log.info("Syncing repository: {}/{} (ID: {})", target.owner(), target.repo(), target.repositoryId());
+
+            int syncedCount = repositorySyncCoordinator.sync(
+                    target.owner(),
+                    target.repo(),
+                    target.repositoryId()
+            );
+
+            summary.recordSuccess(syncedCount);
+            scheduleNextPoll(target, true);
+
+            log.info("Successfully synced {} new builds for {}/{}", syncedCount, target.owner(), target.repo());
+
+        } catch (GitHubApiException e) {
+            summary.recordFailure();
+            scheduleNextPoll(target, false);
+            log.error("GitHub API error while syncing {}/{}: {}",
+                    target.owner(), target.repo(), e.getMessage());
+        } catch (IllegalArgumentException e) {
+            summary.recordFailure();
+            scheduleNextPoll(target, false);
+            log.error("Repository configuration error for {}/{}: {}",
+                    target.owner(), target.repo(), e.getMessage());
+        } catch (Exception e) {
+            summary.recordFailure();
+            scheduleNextPoll(target, false);
+            log.error("Unexpected error while syncing {}/{}: {}",
+                    target.owner(), target.repo(), e.getMessage(), e);
+        }
+    }
+
+    private void scheduleNextPoll(SyncTarget target, boolean success) {
+        if (target.repositoryId() == null) {
+            return;
+        }
+        try {
+            if (success) {
+                repositoryPollScheduler.recordSuccess(target.repositoryId());
+            } else {
+                repositoryPollScheduler.recordFailure(target.repositoryId());
             }
         } catch (Exception e) {
-            log.error("Error parsing GitHub URL: {}", githubUrl, e);
+            log.warn("Could not update polling schedule for {}/{}: {}", target.owner(), target.repo(), e.getMessage());
         }
+    }
 
-        return null;
+    /**
+     * Release the lease only after the next poll is scheduled, so no instance claims the repository again meanwhile
+     */
+    private void releaseLease(SyncTarget target) {
+        if (target.repositoryId() == null) {
+            return;
+        }
+        try {
+            repositorySyncQueue.release(target.repositoryId());
+        } catch (Exception e) {
+            log.warn("Could not release sync lease of {}/{}, it expires on its own: {}",
+                    target.owner(), target.repo(), e.getMessage());
+        }
     }
 
     /**
-     * Manual trigger method for testing purposes
+     * Sync every repository regardless of its schedule; runs even when the scheduler is disabled.
+     * Repositories already being synced, by this or another instance, are skipped rather
+     * than waited for; their running sync fetches the same runs. The summary counts them.
+     *
+     * @return Summary of the cycle
      */
-    public void triggerManualSync() {
+    public SyncSummary triggerManualSync() {
         log.info("Manual sync triggered");
-        syncGitHubBuildsScheduled();
+        return syncRepositories(true);
+    }
+
+    private record SyncTarget(String owner, String repo, Long repositoryId) {
+    }
+
+    /**
+     * Thread-safe aggregate of per-repository results for one sync cycle
+     */
+    static class SyncSummary {
+        private final AtomicInteger totalSynced = new AtomicInteger();
+        private final AtomicInteger successCount = new AtomicInteger();
+        private final AtomicInteger failureCount = new AtomicInteger();
+        private final AtomicInteger deferredCount = new AtomicInteger();
+        private final AtomicInteger skippedCount = new AtomicInteger();
+
+        void recordSuccess(int syncedCount) {
+            totalSynced.addAndGet(syncedCount);
+            successCount.incrementAndGet();
+        }
+
+        void recordFailure() {
+            failureCount.incrementAndGet();
+        }
+
+        void recordDeferred() {
+            deferredCount.incrementAndGet();
+        }
+
+        void recordSkipped(int count) {
+            skippedCount.addAndGet(count);
+        }
+
+        int getTotalSynced() {
+            return totalSynced.get();
+        }
+
+        int getSuccessCount() {
+            return successCount.get();
+        }
+
+        int getFailureCount() {
+            return failureCount.get();
+        }
+
+        int getDeferredCount() {
+            return deferredCount.get();
+        }
+
+        int getSkippedCount() {
+            return skippedCount.get();
+        }
     }
 }
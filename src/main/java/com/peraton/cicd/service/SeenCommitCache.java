@@ -0,0 +1,80 @@
+package com.peraton.cicd.service;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Per-repository LRU of commit SHAs already known to be stored as builds.
+ * Lets the sync path skip the database lookup for runs it has seen recently.
+ * Only ever holds SHAs that exist in the database, so a hit is always safe to skip.
+ */
+@Component
+public class SeenCommitCache {
+
+    private static final int MAX_ENTRIES_PER_REPOSITORY = 1000;
+
+    private final Map<Long, Map<String, Boolean>> seenByRepository = new ConcurrentHashMap<>();
+
+    /**
+     * Filter out the commit SHAs recently seen for a repository
+     *
+     * @param repositoryId Repository ID
+     * @param commitShas Candidate commit SHAs
+     * @return SHAs not found in the cache
+     */
+    public List<String> filterUnseen(Long repositoryId, Collection<String> commitShas) {
+        Map<String, Boolean> seen = seenFor(repositoryId);
+        synchronized (seen) {
+            return commitShas.stream()
+                    .filter(sha -> seen.get(sha) == null)
+                    .collect(Collectors.toList());
+        }
+    }
+
+    /**
+     * Record commit SHAs that are committed to the database
+     */
+    public void markSeen(Long repositoryId, Collection<String> commitShas) {
+        Map<String, Boolean> seen = seenFor(repositoryId);
+        synchronized (seen) {
+            commitShas.forEach(sha -> seen.put(sha, Boolean.TRUE));
+        }
+    }
+
+    /**
+     * Record commit SHAs once the current transaction commits, or immediately if
+     * there is no transaction
+     */
+    public void markSeenAfterCommit(Long repositoryId, Collection<String> commitShas) {
+        if (commitShas.isEmpty()) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    markSeen(repositoryId, commitShas);
+                }
+            });
+        } else {
+            markSeen(repositoryId, commitShas);
+        }
+    }
+
+    private Map<String, Boolean> seenFor(Long repositoryId) {
+        return seenByRepository.computeIfAbsent(repositoryId, id -> new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                return size() > MAX_ENTRIES_PER_REPOSITORY;
+            }
+        });
+    }
+}
@@ -0,0 +1,238 @@
+package com.peraton.cicd.service;
+
+import com.peraton.cicd.config.SchedulingConfig;
+import com.peraton.cicd.dto.SyncJobDto;
+import com.peraton.cicd.dto.SyncRequest;
+import com.peraton.cicd.dto.SyncResponse;
+import com.peraton.cicd.exception.GitHubApiException;
+import com.peraton.cicd.exception.ResourceNotFoundException;
+import com.peraton.cicd.model.Repository;
+import com.peraton.cicd.repository.RepositoryRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Asynchronous sync jobs behind POST /api/builds/sync and POST /api/scheduler/trigger-sync.
+ *
+ * A job is queued on the syncJobExecutor and returned right away; its state is polled by ID.
+ * Triggers are single-flight per target: while a job for a repository (or for all
+ * repositories) is queued or running, another trigger for it returns that job instead of
+ * starting a second one. Overlap with scheduled polls is prevented one level down, in
+ * {@link RepositorySyncCoordinator}.
+ *
+ * Finished jobs are kept for polling until scheduler.jobs.retention newer jobs push them out.
+ */
+@Service
+@Slf4j
+public class SyncJobService {
+
+    private static final String TYPE_REPOSITORY = "REPOSITORY";
+    private static final String TYPE_ALL = "ALL";
+
+    private final BuildService buildService;
+    private final ScheduledTasksService scheduledTasksService;
+    private final RepositoryRepository repositoryRepository;
+    private final ThreadPoolTaskExecutor syncJobExecutor;
+
+    private final Map<String, SyncJob> activeJobs = new ConcurrentHashMap<>();
+    private final Map<String, SyncJob> jobs;
+
+    public SyncJobService(BuildService buildService,
+                          ScheduledTasksService scheduledTasksService,
+                          RepositoryRepository repositoryRepository,
+                          SchedulingConfig schedulingConfig,
+                          @Qualifier("syncJobExecutor") ThreadPoolTaskExecutor syncJobExecutor) {
+        this.buildService = buildService;
+        this.scheduledTasksService = scheduledTasksService;
+        this.repositoryRepository = repositoryRepository;
+        this.syncJobExecutor = syncJobExecutor;
+        int retention = Math.max(1, schedulingConfig.getJobs().getRetention());
+        this.jobs = new LinkedHashMap<>(16, 0.75f, false) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, SyncJob> eldest) {
+                return size() > retention;
+            }
+        };
+    }
+
+    /**
+     * Queue a sync of one repository
+     *
+     * @param syncRequest Sync request containing owner, repo, and repositoryId
+     * @return The new job, or the job already queued or running for the repository
+     * @throws IllegalArgumentException if repository not found
+     * @throws GitHubApiException (503) if the job queue is full
+     */
+    public SyncJobDto submitRepositorySync(SyncRequest syncRequest) {
+        Long repositoryId = syncRequest.getRepositoryId();
+        Repository repository = repositoryRepository.findById(repositoryId)
+                .orElseThrow(() -> new IllegalArgumentException(
+                        String.format("Repository not found with ID: %d", repositoryId)));
+
+        return submit("repository:" + repositoryId, new SyncJob(TYPE_REPOSITORY, repositoryId, repository.getName()), job -> {
+            SyncResponse response = buildService.syncBuildsFromGitHub(syncRequest);
+            job.succeed(response.getSyncedCount(), 0, 0, response.getMessage());
+        });
+    }
+
+    /**
+     * Queue a sync of every monitored repository, regardless of its polling schedule
+     *
+     * @return The new job, or the full sync job already queued or running
+     * @throws GitHubApiException (503) if the job queue is full
+     */
+    public SyncJobDto submitFullSync() {
+        return submit("all", new SyncJob(TYPE_ALL, null, null), job -> {
+            ScheduledTasksService.SyncSummary summary = scheduledTasksService.triggerManualSync();
+            String message = String.format(
+                    "Synced %d builds: %d repositories succeeded, %d failed, %d deferred, %d skipped (already being synced)",
+                    summary.getTotalSynced(), summary.getSuccessCount(), summary.getFailureCount(),
+                    summary.getDeferredCount(), summary.getSkippedCount());
+            job.succeed(summary.getTotalSynced(), summary.getFailureCount(), summary.getSkippedCount(), message);
+        });
+    }
+
+    /**
+     * @throws ResourceNotFoundException if the job is unknown or no longer retained
+     */
+    public SyncJobDto getJob(String jobId) {
+        SyncJob job;
+        synchronized (jobs) {
+            job = jobs.get(jobId);
+        }
+        if (job == null) {
+            throw new ResourceNotFoundException("Sync job", "id", jobId);
+        }
+        return job.snapshot();
+    }
+
+    /**
+     * Retained jobs, newest first
+     */
+    public List<SyncJobDto> getRecentJobs() {
+        List<SyncJob> retained;
+        synchronized (jobs) {
+            retained = new ArrayList<>(jobs.values());
+        }
+        Collections.reverse(retained);
+        return retained.stream().map(SyncJob::snapshot).toList();
+    }
+
+    private SyncJobDto submit(String key, SyncJob candidate, Consumer<SyncJob> work) {
+        // A job that already finished but isn't unregistered yet doesn't absorb the trigger
+        SyncJob job = activeJobs.compute(key, (k, active) -> active == null || active.isFinished() ? candidate : active);
+        if (job != candidate) {
+            log.info("Sync of {} already {} as job {}, merging trigger", key, job.snapshot().getStatus(), job.id);
+            return job.snapshot();
+        }
+
+        synchronized (jobs) {
+            jobs.put(job.id, job);
+        }
+        try {
+            syncJobExecutor.execute(() -> run(key, candidate, work));
+        } catch (TaskRejectedException e) {
+            activeJobs.remove(key, job);
+            synchronized (jobs) {
+                jobs.remove(job.id);
+            }
+            throw new GitHubApiException("Too many sync jobs queued", HttpStatus.SERVICE_UNAVAILABLE.value(), e);
+        }
+
+        log.info("Queued sync job {} for {}", job.id, key);
+        return job.snapshot();
+    }
+
+    private void run(String key, SyncJob job, Consumer<SyncJob> work) {
+        job.start();
+        try {
+            work.accept(job);
+            log.info("Sync job {} for {} completed", job.id, key);
+        } catch (RuntimeException e) {
+            log.error("Sync job {} for {} failed: {}", job.id, key, e.getMessage());
+            job.fail(e.getMessage());
+        } finally {
+            activeJobs.remove(key, job);
+        }
+    }
+
+    /**
+     * Mutable state of one job; guarded by its own monitor
+     */
+    private static final class SyncJob {
+        private final String id = UUID.randomUUID().toString();
+        private final String type;
+        private final Long repositoryId;
+        private final String repositoryName;
+        private final LocalDateTime submittedAt = LocalDateTime.now();
+
+        private String status = "QUEUED";
+        private int syncedCount;
+        private int failedRepositories;
+        private int skippedRepositories;
+        private String message;
+        private LocalDateTime startedAt;
+        private LocalDateTime completedAt;
+
+        SyncJob(String type, Long repositoryId, String repositoryName) {
+            this.type = type;
+            this.repositoryId = repositoryId;
+            this.repositoryName = repositoryName;
+        }
+
+        synchronized void start() {
+            status = "RUNNING";
+            startedAt = LocalDateTime.now();
+        }
+
+        synchronized void succeed(int syncedCount, int failedRepositories, int skippedRepositories, String message) {
+            this.status = "SUCCEEDED";
+            this.syncedCount = syncedCount;
+            this.failedRepositories = failedRepositories;
+            this.skippedRepositories = skippedRepositories;
+            this.message = message;
+            this.completedAt = LocalDateTime.now();
+        }
+
+        synchronized void fail(String message) {
+            this.status = "FAILED";
+            this.message = message;
+            this.completedAt = LocalDateTime.now();
+        }
+
+        synchronized boolean isFinished() {
+            return completedAt != null;
+        }
+
+        synchronized SyncJobDto snapshot() {
+            return SyncJobDto.builder()
+                    .jobId(id)
+                    .type(type)
+                    .repositoryId(repositoryId)
+                    .repositoryName(repositoryName)
+                    .status(status)
+                    .syncedCount(syncedCount)
+                    .failedRepositories(failedRepositories)
+                    .skippedRepositories(skippedRepositories)
+                    .message(message)
+                    .submittedAt(submittedAt)
+                    .startedAt(startedAt)
+                    .completedAt(completedAt)
+                    .build();
+        }
+    }
+}
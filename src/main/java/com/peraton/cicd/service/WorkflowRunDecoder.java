@@ -0,0 +1,224 @@
+package com.peraton.cicd.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.peraton.cicd.dto.github.WorkflowRun;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.function.Predicate;
+
+/**
+ * Streaming decoder for GitHub workflow run payloads.
+ *
+ * Run objects carry large nested sections (actor, head_repository, pull_requests,
+ * ...) of which only a few fields are used. Instead of binding the whole tree,
+ * the decoder reads the fields mapped on {@link WorkflowRun} token by token,
+ * skips everything else without materializing it, and hands each run to the
+ * caller as soon as it is complete.
+ */
+@Component
+public class WorkflowRunDecoder {
+
+    private final JsonFactory jsonFactory;
+
+    public WorkflowRunDecoder(ObjectMapper objectMapper) {
+        this.jsonFactory = objectMapper.getFactory();
+    }
+
+    /**
+     * Decode a workflow runs listing, passing each run to the consumer in document order
+     *
+     * @param body Response body of GET /repos/{owner}/{repo}/actions/runs
+     * @param consumer Receives each run; returning false stops decoding the rest of the page
+     * @return total_count of the listing, or null if it was not read
+     */
+    public Integer decodeRuns(InputStream body, Predicate<WorkflowRun> consumer) throws IOException {
+        Integer totalCount = null;
+
+        try (JsonParser parser = jsonFactory.createParser(body)) {
+            expect(parser.nextToken(), JsonToken.START_OBJECT);
+
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+
+                if ("total_count".equals(field) && value == JsonToken.VALUE_NUMBER_INT) {
+                    totalCount = parser.getIntValue();
+                } else if ("workflow_runs".equals(field) && value == JsonToken.START_ARRAY) {
+                    while (parser.nextToken() == JsonToken.START_OBJECT) {
+                        if (!consumer.test(readRun(parser))) {
+                            return totalCount;
+                        }
+                    }
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+        return totalCount;
+    }
+
+    /**
+     * Decode a single workflow run
+     *
+     * @param body Response body of GET /repos/{owner}/{repo}/actions/runs/{run_id}
+     */
+    public WorkflowRun decodeRun(InputStream body) throws IOException {
+        try (JsonParser parser = jsonFactory.createParser(body)) {
+            expect(parser.nextToken(), JsonToken.START_OBJECT);
+            return readRun(parser);
+        }
+    }
+
+    private WorkflowRun readRun(JsonParser parser) throws IOException {
+        WorkflowRun run = new WorkflowRun();
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if (value == JsonToken.VALUE_NULL) {
+                continue;
+            }
+
+            switch (field) {
+                case "id" -> run.setId(parser.getLongValue());
+                case "name" -> run.setName(parser.getText());
+                case "head_branch" -> run.setHeadBranch(parser.getText());
+                case "head_sha" -> run.setHeadSha(parser.getText());
+                case "status" -> run.setStatus(parser.getText());
+                case "conclusion" -> run.setConclusion(parser.getText());
+                case "workflow_id" -> run.setWorkflowId(parser.getLongValue());
+                case "run_number" -> run.setRunNumber(parser.getIntValue());
+                case "run_attempt" -> run.setRunAttempt(parser.getIntValue());
+                case "created_at" -> run.setCreatedAt(parseTimestamp(parser.getText()));
+                case "updated_at" -> run.setUpdatedAt(parseTimestamp(parser.getText()));
+                case "run_started_at" -> run.setRunStartedAt(parseTimestamp(parser.getText()));
+                case "html_url" -> run.setHtmlUrl(parser.getText());
+                case "jobs_url" -> run.setJobsUrl(parser.getText());
+                case "logs_url" -> run.setLogsUrl(parser.getText());
+                case "repository" -> run.setRepository(readRepository(parser));
+                case "head_commit" -> run.setHeadCommit(readCommit(parser));
+                default -> parser.skipChildren();
+            }
+        }
+        return run;
+    }
+
+    private WorkflowRun.Repository readRepository(JsonParser parser) throws IOException {
+        WorkflowRun.Repository repository = new WorkflowRun.Repository();
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            if (parser.nextToken() == JsonToken.VALUE_NULL) {
+                continue;
+            }
+
+            switch (field) {
+                case "id" -> repository.setId(parser.getLongValue());
+                case "name" -> repository.setName(parser.getText());
+                case "full_name" -> repository.setFullName(parser.getText());
+                case "html_url" -> repository.setHtmlUrl(parser.getText());
+                default -> parser.skipChildren();
+            }
+        }
+        return repository;
+    }
+
+    private WorkflowRun.Commit readCommit(JsonParser parser) throws IOException {
+        WorkflowRun.Commit commit = new WorkflowRun.Commit();
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            if (parser.nextToken() == JsonToken.VALUE_NULL) {
+                continue;
+            }
+
+            switch (field) {
+                case "id" -> commit.setId(parser.getText());
+                case "message" -> commit.setMessage(parser.getText());
+                case "timestamp" -> commit.setTimestamp(parser.getText());
+                case "author" -> commit.setAuthor(readAuthor(parser));
+                default -> parser.skipChildren();
+            }
+        }
+        return commit;
+    }
+
+    private WorkflowRun.Author readAuthor(JsonParser parser) throws IOException {
+        WorkflowRun.Author author = new WorkflowRun.Author();
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            if (parser.nextToken() == JsonToken.VALUE_NULL) {
+                continue;
+            }
+
+            switch (field) {
+                case "name" -> author.setName(parser.getText());
+                case "email" -> author.setEmail(parser.getText());
+                default -> parser.skipChildren();
+            }
+        }
+        return author;
+    }
+
+    /**
+     * GitHub timestamps are UTC ("2025-10-25T10:30:00Z"); stored as UTC LocalDateTime,
+     * matching the databind mapping of {@link WorkflowRun}.
+     * The fixed-width form is read digit by digit: formatter-based parsing allocates
+     * more than the rest of the run combined.
+     */
+    static LocalDateTime parseTimestamp(String text) {
+        if (text.length() == 20 && text.charAt(4) == '-' && text.charAt(7) == '-' && text.charAt(10) == 'T'
+                && text.charAt(13) == ':' && text.charAt(16) == ':' && text.charAt(19) == 'Z') {
+            int year = digits(text, 0, 4);
+            int month = digits(text, 5, 7);
+            int day = digits(text, 8, 10);
+            int hour = digits(text, 11, 13);
+            int minute = digits(text, 14, 16);
+            int second = digits(text, 17, 19);
+            if (year >= 0 && month >= 0 && day >= 0 && hour >= 0 && minute >= 0 && second >= 0) {
+                try {
+                    return LocalDateTime.of(year, month, day, hour, minute, second);
+                } catch (DateTimeException e) {
+                    return null;
+                }
+            }
+        }
+
+        try {
+            return text.endsWith("Z")
+                    ? LocalDateTime.ofInstant(Instant.parse(text), ZoneOffset.UTC)
+                    : LocalDateTime.parse(text);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    private static int digits(String text, int start, int end) {
+        int value = 0;
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    private static void expect(JsonToken actual, JsonToken expected) throws IOException {
+        if (actual != expected) {
+            throw new IOException("Unexpected JSON token " + actual + ", expected " + expected);
+        }
+    }
+}
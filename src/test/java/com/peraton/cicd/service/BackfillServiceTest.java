@@ -0,0 +1,311 @@
+package com.peraton.cicd.service;
+
+import com.peraton.cicd.dto.BackfillProgressDto;
+import com.peraton.cicd.model.Build;
+import com.peraton.cicd.model.Repository;
+import com.peraton.cicd.model.RepositoryBackfill;
+import com.peraton.cicd.repository.BuildRepository;
+import com.peraton.cicd.repository.RepositoryBackfillRepository;
+import com.peraton.cicd.repository.RepositoryRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.client.ExpectedCount;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.test.web.client.RequestMatcher;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.startsWith;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.queryParam;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+/**
+ * Runs backfills against a stubbed GitHub API and the application's database. Pages hold
+ * two runs and are fetched two at a time, so a five page history takes three windows.
+ */
+@SpringBootTest(properties = {
+        "scheduler.enabled=false",
+        "github.api.base-url=https://github.test",
+        "github.api.backfill.parallelism=2",
+        "github.api.backfill.page-size=2",
+        "github.api.backfill.max-pages=10",
+        "github.api.backfill.rate-limit-pause-ms=50"
+})
+class BackfillServiceTest {
+
+    private static final int TOTAL_RUNS = 9;
+
+    @Autowired
+    private BackfillService backfillService;
+    @Autowired
+    private BackfillWriter backfillWriter;
+    @Autowired
+    private RepositoryRepository repositoryRepository;
+    @Autowired
+    private RepositoryBackfillRepository backfillRepository;
+    @Autowired
+    private BuildRepository buildRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    @Qualifier("githubRestTemplate")
+    private RestTemplate githubRestTemplate;
+
+    private MockRestServiceServer server;
+    private Repository repository;
+    private String name;
+
+    @BeforeEach
+    void setUp() {
+        server = MockRestServiceServer.bindTo(githubRestTemplate).ignoreExpectOrder(true).build();
+        name = "backfill-" + UUID.randomUUID().toString().substring(0, 8);
+
+        repository = new Repository();
+        repository.setName(name);
+        repository.setGithubUrl("https://github.com/acme/" + name);
+        repository = repositoryRepository.save(repository);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM builds WHERE repository_id = ?", repository.getId());
+        jdbcTemplate.update("DELETE FROM repository_backfill WHERE repository_id = ?", repository.getId());
+        jdbcTemplate.update("DELETE FROM repositories WHERE id = ?", repository.getId());
+    }
+
+    @Test
+    void backfillsEveryWindowAndRetriesAfterRateLimit() {
+        expectPage(1);
+        expectPage(2);
+        // Page 3 runs out of budget once; the whole window is fetched again after the pause
+        server.expect(ExpectedCount.once(), pageRequest(3)).andRespond(withStatus(HttpStatus.TOO_MANY_REQUESTS));
+        expectPage(3);
+        server.expect(ExpectedCount.times(2), pageRequest(4)).andRespond(withSuccess(pageBody(4), MediaType.APPLICATION_JSON));
+        expectPage(5);
+        expectPage(6);
+
+        BackfillProgressDto progress = awaitFinished(backfillService.start(repository.getId()));
+
+        server.verify();
+        assertThat(progress.getStatus()).isEqualTo("COMPLETED");
+        assertThat(progress.getPagesCompleted()).isEqualTo(5);
+        assertThat(progress.getRunsFetched()).isEqualTo(TOTAL_RUNS);
+        assertThat(progress.getBuildsInserted()).isEqualTo(TOTAL_RUNS);
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM builds WHERE repository_id = ?",
+                Long.class, repository.getId())).isEqualTo(TOTAL_RUNS);
+    }
+
+    @Test
+    void resumesAfterLastCompletedPage() {
+        RepositoryBackfill checkpoint = new RepositoryBackfill();
+        checkpoint.setRepositoryId(repository.getId());
+        checkpoint.setStatus(RepositoryBackfill.BackfillStatus.FAILED);
+        checkpoint.setPagesCompleted(2);
+        checkpoint.setRunsFetched(4);
+        checkpoint.setStartedAt(LocalDateTime.now());
+        backfillRepository.save(checkpoint);
+
+        // Pages 1 and 2 are not expected, so fetching them fails the test
+        expectPage(3);
+        expectPage(4);
+        expectPage(5);
+        expectPage(6);
+
+        BackfillProgressDto progress = awaitFinished(backfillService.start(repository.getId()));
+
+        server.verify();
+        assertThat(progress.getStatus()).isEqualTo("COMPLETED");
+        assertThat(progress.getPagesCompleted()).isEqualTo(5);
+        assertThat(progress.getRunsFetched()).isEqualTo(TOTAL_RUNS);
+        assertThat(progress.getBuildsInserted()).isEqualTo(5);
+    }
+
+    @Test
+    void copiedBuildsDoNotReuseIdsReservedByJpa() {
+        // Reserves a block of builds_id_seq in Hibernate's pooled optimizer
+        Build before = buildRepository.save(build("jpa-before"));
+        for (int page = 1; page <= 6; page++) {
+            expectPage(page);
+        }
+
+        awaitFinished(backfillService.start(repository.getId()));
+        // Taken from the same in-memory block as the first one
+        Build after = buildRepository.save(build("jpa-after"));
+
+        List<Long> ids = jdbcTemplate.queryForList("SELECT id FROM builds WHERE repository_id = ?",
+                Long.class, repository.getId());
+        assertThat(ids).hasSize(TOTAL_RUNS + 2)
+                .contains(before.getId(), after.getId())
+                .doesNotHaveDuplicates();
+    }
+
+    @Test
+    void skipsCommitsStoredByConcurrentTransaction() throws Exception {
+        RepositoryBackfill checkpoint = new RepositoryBackfill();
+        checkpoint.setRepositoryId(repository.getId());
+        checkpoint.setStatus(RepositoryBackfill.BackfillStatus.RUNNING);
+        checkpoint.setStartedAt(LocalDateTime.now());
+        backfillRepository.save(checkpoint);
+
+        // A webhook inserts sha-9 and hasn't committed when the window is written
+        CountDownLatch inserted = new CountDownLatch(1);
+        CountDownLatch commit = new CountDownLatch(1);
+        CompletableFuture<Void> webhook = CompletableFuture.runAsync(() ->
+                new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                    buildRepository.save(build("sha-9"));
+                    buildRepository.flush();
+                    inserted.countDown();
+                    await(commit);
+                }));
+        assertThat(inserted.await(5, TimeUnit.SECONDS)).isTrue();
+
+        CompletableFuture<Integer> window = CompletableFuture.supplyAsync(() ->
+                backfillWriter.writeWindow(repository.getId(), List.of(build("sha-9"), build("sha-8")), 1, 2, null));
+        awaitLockWait();
+        commit.countDown();
+
+        webhook.get(5, TimeUnit.SECONDS);
+        assertThat(window.get(5, TimeUnit.SECONDS)).isEqualTo(1);
+        assertThat(jdbcTemplate.queryForList("SELECT commit_sha FROM builds WHERE repository_id = ?",
+                String.class, repository.getId())).containsExactlyInAnyOrder("sha-9", "sha-8");
+    }
+
+    @Test
+    void doesNotStartWhileAnotherInstanceIsRunningIt() {
+        RepositoryBackfill checkpoint = new RepositoryBackfill();
+        checkpoint.setRepositoryId(repository.getId());
+        checkpoint.setStatus(RepositoryBackfill.BackfillStatus.RUNNING);
+        checkpoint.setPagesCompleted(3);
+        checkpoint.setStartedAt(LocalDateTime.now());
+        backfillRepository.save(checkpoint);
+
+        BackfillProgressDto progress = backfillService.start(repository.getId());
+
+        server.verify();
+        assertThat(progress.getStatus()).isEqualTo("RUNNING");
+        assertThat(progress.getPagesCompleted()).isEqualTo(3);
+    }
+
+    @Test
+    void takesOverStaleRunningBackfill() {
+        RepositoryBackfill checkpoint = new RepositoryBackfill();
+        checkpoint.setRepositoryId(repository.getId());
+        checkpoint.setStatus(RepositoryBackfill.BackfillStatus.RUNNING);
+        checkpoint.setPagesCompleted(4);
+        checkpoint.setRunsFetched(8);
+        checkpoint.setStartedAt(LocalDateTime.now().minusHours(2));
+        backfillRepository.save(checkpoint);
+        // updated_at is set on every save, so age it directly
+        jdbcTemplate.update("UPDATE repository_backfill SET updated_at = ? WHERE repository_id = ?",
+                LocalDateTime.now().minusHours(1), repository.getId());
+        expectPage(5);
+        expectPage(6);
+
+        BackfillProgressDto progress = awaitFinished(backfillService.start(repository.getId()));
+
+        server.verify();
+        assertThat(progress.getStatus()).isEqualTo("COMPLETED");
+        assertThat(progress.getPagesCompleted()).isEqualTo(5);
+    }
+
+    private BackfillProgressDto awaitFinished(BackfillProgressDto started) {
+        long deadline = System.currentTimeMillis() + 30000;
+        BackfillProgressDto progress = started;
+        while ("RUNNING".equals(progress.getStatus())) {
+            assertThat(System.currentTimeMillis()).as("backfill finished in time").isLessThan(deadline);
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+            progress = backfillService.getProgress(repository.getId());
+        }
+        return progress;
+    }
+
+    private void awaitLockWait() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (System.currentTimeMillis() < deadline) {
+            Long waiting = jdbcTemplate.queryForObject("SELECT count(*) FROM pg_stat_activity "
+                    + "WHERE datname = current_database() AND wait_event_type = 'Lock'", Long.class);
+            if (waiting != null && waiting > 0) {
+                return;
+            }
+            Thread.sleep(20);
+        }
+        throw new AssertionError("Backfill never waited for the concurrent insert");
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void expectPage(int page) {
+        server.expect(ExpectedCount.once(), pageRequest(page))
+                .andRespond(withSuccess(pageBody(page), MediaType.APPLICATION_JSON));
+    }
+
+    private RequestMatcher pageRequest(int page) {
+        return request -> {
+            requestTo(startsWith("https://github.test/repos/acme/" + name + "/actions/runs")).match(request);
+            method(HttpMethod.GET).match(request);
+            queryParam("page", String.valueOf(page)).match(request);
+        };
+    }
+
+    /**
+     * Runs 1..9 newest first, two per page: pages 1-4 are full, page 5 is the last, page 6 is empty
+     */
+    private static String pageBody(int page) {
+        StringBuilder runs = new StringBuilder();
+        for (int index = (page - 1) * 2; index < Math.min(page * 2, TOTAL_RUNS); index++) {
+            int runNumber = TOTAL_RUNS - index;
+            if (runs.length() > 0) {
+                runs.append(',');
+            }
+            runs.append("""
+                    {"id": %d, "name": "CI", "head_branch": "main", "head_sha": "sha-%d",
+                     "status": "completed", "conclusion": "success", "run_number": %d,
+                     "created_at": "2026-01-01T00:%02d:00Z", "updated_at": "2026-01-01T00:%02d:30Z",
+                     "run_started_at": "2026-01-01T00:%02d:05Z"}
+                    """.formatted(1000 + runNumber, runNumber, runNumber, runNumber, runNumber, runNumber));
+        }
+        return "{\"total_count\": " + TOTAL_RUNS + ", \"workflow_runs\": [" + runs + "]}";
+    }
+
+    private Build build(String commitSha) {
+        Build build = new Build();
+        build.setRepository(repository);
+        build.setStatus(Build.BuildStatus.SUCCESS);
+        build.setCommitSha(commitSha);
+        build.setStartedAt(LocalDateTime.now());
+        return build;
+    }
+}
@@ -0,0 +1,150 @@
+package com.peraton.cicd.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.peraton.cicd.dto.BuildFilter;
+import com.peraton.cicd.model.Build;
+import com.peraton.cicd.model.Repository;
+import com.peraton.cicd.repository.BuildRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class BuildExportServiceTest {
+
+    private static final LocalDateTime STARTED_AT = LocalDateTime.of(2025, 10, 25, 10, 30, 15);
+    private static final LocalDateTime COMPLETED_AT = LocalDateTime.of(2025, 10, 25, 10, 35, 0);
+
+    private BuildRepository buildRepository;
+    private ObjectMapper objectMapper;
+    private BuildExportService exportService;
+
+    @BeforeEach
+    void setUp() {
+        buildRepository = mock(BuildRepository.class);
+        // Dates as ISO strings, like spring.jackson.serialization in application.yml
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        exportService = new BuildExportService(buildRepository, objectMapper);
+    }
+
+    @Test
+    void writesCsvHeaderAndPlainFieldsUnquoted() throws IOException {
+        streamBuilds(build(1L, "web", "main", Build.BuildStatus.SUCCESS, COMPLETED_AT));
+
+        String csv = export(BuildExportService.ExportFormat.CSV);
+
+        assertThat(csv).isEqualTo("""
+                id,repository_id,repository_name,status,commit_sha,branch,started_at,completed_at
+                1,10,web,SUCCESS,abc123,main,2025-10-25T10:30:15,2025-10-25T10:35
+                """);
+    }
+
+    @Test
+    void quotesFieldsWithDelimitersQuotesAndLineBreaks() throws IOException {
+        streamBuilds(
+                build(1L, "web,api", "main", Build.BuildStatus.SUCCESS, COMPLETED_AT),
+                build(2L, "web", "feature/\"quoted\"", Build.BuildStatus.FAILED, COMPLETED_AT),
+                build(3L, "web", "line\nbreak", Build.BuildStatus.SUCCESS, COMPLETED_AT),
+                build(4L, "web", "carriage\rreturn", Build.BuildStatus.SUCCESS, COMPLETED_AT));
+
+        String csv = export(BuildExportService.ExportFormat.CSV);
+
+        assertThat(csv).contains("\n1,10,\"web,api\",SUCCESS,abc123,main,");
+        assertThat(csv).contains("\n2,10,web,FAILED,abc123,\"feature/\"\"quoted\"\"\",");
+        assertThat(csv).contains("\n3,10,web,SUCCESS,abc123,\"line\nbreak\",");
+        assertThat(csv).contains("\n4,10,web,SUCCESS,abc123,\"carriage\rreturn\",");
+    }
+
+    @Test
+    void writesNullFieldsAsEmpty() throws IOException {
+        streamBuilds(build(1L, "web", null, Build.BuildStatus.IN_PROGRESS, null));
+
+        String csv = export(BuildExportService.ExportFormat.CSV);
+
+        assertThat(csv).endsWith("\n1,10,web,IN_PROGRESS,abc123,,2025-10-25T10:30:15,\n");
+    }
+
+    @Test
+    void writesOneJsonObjectPerLine() throws IOException {
+        streamBuilds(
+                build(1L, "web", "line\nbreak", Build.BuildStatus.SUCCESS, COMPLETED_AT),
+                build(2L, "api", null, Build.BuildStatus.PENDING, null));
+
+        String ndjson = export(BuildExportService.ExportFormat.NDJSON);
+
+        String[] lines = ndjson.split("\n");
+        assertThat(lines).hasSize(2);
+        JsonNode first = objectMapper.readTree(lines[0]);
+        assertThat(first.path("id").asLong()).isEqualTo(1L);
+        assertThat(first.path("branch").asText()).isEqualTo("line\nbreak");
+        assertThat(first.path("startedAt").asText()).isEqualTo("2025-10-25T10:30:15");
+        assertThat(objectMapper.readTree(lines[1]).path("repositoryName").asText()).isEqualTo("api");
+    }
+
+    @Test
+    void countsBuildsAndClosesStream() throws IOException {
+        AtomicBoolean closed = new AtomicBoolean();
+        when(buildRepository.streamBuilds(any())).thenReturn(Stream.of(
+                        build(1L, "web", "main", Build.BuildStatus.SUCCESS, COMPLETED_AT),
+                        build(2L, "web", "main", Build.BuildStatus.SUCCESS, COMPLETED_AT))
+                .onClose(() -> closed.set(true)));
+
+        long count = exportService.exportBuilds(new BuildFilter(), BuildExportService.ExportFormat.CSV,
+                new ByteArrayOutputStream());
+
+        assertThat(count).isEqualTo(2);
+        assertThat(closed).isTrue();
+    }
+
+    @Test
+    void writesOnlyHeaderWhenNothingMatches() throws IOException {
+        streamBuilds();
+
+        assertThat(export(BuildExportService.ExportFormat.CSV))
+                .isEqualTo("id,repository_id,repository_name,status,commit_sha,branch,started_at,completed_at\n");
+        streamBuilds();
+        assertThat(export(BuildExportService.ExportFormat.NDJSON)).isEmpty();
+    }
+
+    private void streamBuilds(Build... builds) {
+        when(buildRepository.streamBuilds(any())).thenReturn(Stream.of(builds));
+    }
+
+    private String export(BuildExportService.ExportFormat format) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.exportBuilds(new BuildFilter(), format, out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    private static Build build(Long id, String repositoryName, String branch, Build.BuildStatus status,
+                               LocalDateTime completedAt) {
+        Repository repository = new Repository();
+        repository.setId(10L);
+        repository.setName(repositoryName);
+
+        Build build = new Build();
+        build.setId(id);
+        build.setRepository(repository);
+        build.setStatus(status);
+        build.setCommitSha("abc123");
+        build.setBranch(branch);
+        build.setStartedAt(STARTED_AT);
+        build.setCompletedAt(completedAt);
+        return build;
+    }
+}
@@ -0,0 +1,54 @@
+package com.peraton.cicd.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BuildServiceCursorTest {
+
+    @Test
+    void roundTripsPosition() {
+        BuildService.Cursor cursor = new BuildService.Cursor(LocalDateTime.of(2025, 10, 25, 10, 30, 15), 42L);
+
+        assertThat(BuildService.Cursor.decode(cursor.encode())).isEqualTo(cursor);
+    }
+
+    @Test
+    void roundTripsWholeMinutesAndFractionalSeconds() {
+        // LocalDateTime.toString leaves out zero seconds and keeps nanoseconds
+        BuildService.Cursor wholeMinute = new BuildService.Cursor(LocalDateTime.of(2025, 10, 25, 10, 30), 7L);
+        BuildService.Cursor nanos = new BuildService.Cursor(LocalDateTime.of(2025, 10, 25, 10, 30, 0, 123_456_789), 8L);
+
+        assertThat(BuildService.Cursor.decode(wholeMinute.encode())).isEqualTo(wholeMinute);
+        assertThat(BuildService.Cursor.decode(nanos.encode())).isEqualTo(nanos);
+    }
+
+    @Test
+    void encodesUrlSafeWithoutPadding() {
+        String encoded = new BuildService.Cursor(LocalDateTime.of(2025, 10, 25, 10, 30, 15), Long.MAX_VALUE).encode();
+
+        assertThat(encoded).matches("[A-Za-z0-9_-]+");
+    }
+
+    @Test
+    void rejectsInvalidCursors() {
+        assertThatThrownBy(() -> BuildService.Cursor.decode("not base64!"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Invalid cursor: not base64!");
+        assertThatThrownBy(() -> BuildService.Cursor.decode(encode("2025-10-25T10:30:15")))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> BuildService.Cursor.decode(encode("yesterday|42")))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> BuildService.Cursor.decode(encode("2025-10-25T10:30:15|x")))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static String encode(String position) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+}
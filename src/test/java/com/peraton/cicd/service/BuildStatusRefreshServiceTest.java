@@ -0,0 +1,165 @@
+package com.peraton.cicd.service;
+
+import com.peraton.cicd.config.GitHubApiConfig;
+import com.peraton.cicd.config.SchedulingConfig;
+import com.peraton.cicd.dto.github.WorkflowRun;
+import com.peraton.cicd.dto.github.WorkflowRunsResponse;
+import com.peraton.cicd.exception.GitHubApiException;
+import com.peraton.cicd.model.Build;
+import com.peraton.cicd.model.Repository;
+import com.peraton.cicd.repository.BuildRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.net.URI;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BuildStatusRefreshServiceTest {
+
+    private static final long RUN_ID = 41L;
+
+    private BuildRepository buildRepository;
+    private GitHubApiClient gitHubApiClient;
+    private GitHubActionsService gitHubActionsService;
+    private GitHubCredentialPool credentialPool;
+    private ThreadPoolTaskExecutor executor;
+    private BuildStatusRefreshService refreshService;
+    private Build build;
+
+    @BeforeEach
+    void setUp() {
+        buildRepository = mock(BuildRepository.class);
+        gitHubApiClient = mock(GitHubApiClient.class);
+        gitHubActionsService = mock(GitHubActionsService.class);
+        RepositorySyncQueue syncQueue = mock(RepositorySyncQueue.class);
+        when(syncQueue.claimAll(any())).thenReturn(Set.of(1L));
+
+        GitHubApiConfig gitHubApiConfig = new GitHubApiConfig();
+        gitHubApiConfig.setTokens(List.of("first", "second"));
+        credentialPool = new GitHubCredentialPool(gitHubApiConfig, new GitHubRateLimitGovernor(gitHubApiConfig));
+
+        GitHubRepositoryResolver resolver = mock(GitHubRepositoryResolver.class);
+        when(resolver.resolve(any())).thenReturn(Optional.of(new String[]{"acme", "web"}));
+
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.initialize();
+
+        refreshService = new BuildStatusRefreshService(buildRepository, gitHubApiClient, gitHubActionsService,
+                resolver, credentialPool, syncQueue, new SchedulingConfig(), executor);
+
+        Repository repository = new Repository();
+        repository.setId(1L);
+        build = new Build();
+        build.setId(7L);
+        build.setRepository(repository);
+        build.setStatus(Build.BuildStatus.IN_PROGRESS);
+        build.setCommitSha("sha-1");
+        build.setRunId(RUN_ID);
+        build.setStartedAt(LocalDateTime.now(ZoneOffset.UTC).minusMinutes(5));
+        when(buildRepository.findByStatusInWithRepository(any())).thenReturn(List.of(build));
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    void refreshesFromRunLookup() {
+        WorkflowRun run = new WorkflowRun();
+        when(gitHubApiClient.getWorkflowRun("acme", "web", RUN_ID)).thenReturn(run);
+
+        refreshService.refreshActiveBuilds();
+
+        verify(gitHubActionsService).refreshBuildFromRun(7L, run);
+        verify(gitHubActionsService, never()).cancelStaleBuild(any(), anyString());
+    }
+
+    @Test
+    void looksUpMissingRunByCommit() {
+        WorkflowRun rerun = new WorkflowRun();
+        when(gitHubApiClient.getWorkflowRun("acme", "web", RUN_ID)).thenThrow(notFound());
+        when(gitHubApiClient.getWorkflowRunsForCommit("acme", "web", "sha-1")).thenReturn(runs(rerun));
+
+        refreshService.refreshActiveBuilds();
+
+        verify(gitHubActionsService).refreshBuildFromRun(7L, rerun);
+        verify(gitHubActionsService, never()).cancelStaleBuild(any(), anyString());
+    }
+
+    @Test
+    void cancelsBuildWithoutRunForItsCommit() {
+        when(gitHubApiClient.getWorkflowRun("acme", "web", RUN_ID)).thenThrow(notFound());
+        when(gitHubApiClient.getWorkflowRunsForCommit("acme", "web", "sha-1")).thenReturn(runs());
+
+        refreshService.refreshActiveBuilds();
+
+        verify(gitHubActionsService).cancelStaleBuild(eq(7L), anyString());
+    }
+
+    @Test
+    void keepsBuildWhileAnotherTokenMayHaveAccess() {
+        when(gitHubApiClient.getWorkflowRun("acme", "web", RUN_ID)).thenThrow(notFound());
+        when(gitHubApiClient.getWorkflowRunsForCommit("acme", "web", "sha-1")).thenAnswer(invocation -> {
+            deny(credentialPool.acquire("acme/web"));
+            throw notFound();
+        });
+
+        refreshService.refreshActiveBuilds();
+
+        verify(gitHubActionsService, never()).cancelStaleBuild(any(), anyString());
+    }
+
+    @Test
+    void cancelsBuildOnceEveryTokenWasRefused() {
+        deny(credentialPool.acquire("acme/web"));
+        when(gitHubApiClient.getWorkflowRun("acme", "web", RUN_ID)).thenThrow(notFound());
+        when(gitHubApiClient.getWorkflowRunsForCommit("acme", "web", "sha-1")).thenAnswer(invocation -> {
+            deny(credentialPool.acquire("acme/web"));
+            throw notFound();
+        });
+
+        refreshService.refreshActiveBuilds();
+
+        verify(gitHubActionsService).cancelStaleBuild(eq(7L), anyString());
+    }
+
+    @Test
+    void cancelsBuildPastMaxAgeWithoutLookup() {
+        build.setStartedAt(LocalDateTime.now(ZoneOffset.UTC).minusDays(3));
+
+        refreshService.refreshActiveBuilds();
+
+        verify(gitHubActionsService).cancelStaleBuild(eq(7L), anyString());
+        verify(gitHubApiClient, never()).getWorkflowRun(anyString(), anyString(), any());
+    }
+
+    private void deny(GitHubCredentialPool.Credential credential) {
+        credentialPool.release(credential, URI.create("https://api.github.com/repos/acme/web/actions/runs"), 404);
+    }
+
+    private static GitHubApiException notFound() {
+        return new GitHubApiException("Not Found", 404);
+    }
+
+    private static WorkflowRunsResponse runs(WorkflowRun... runs) {
+        WorkflowRunsResponse response = new WorkflowRunsResponse();
+        response.setWorkflowRuns(List.of(runs));
+        return response;
+    }
+}
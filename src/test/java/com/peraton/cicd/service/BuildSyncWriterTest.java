@@ -0,0 +1,142 @@
+package com.peraton.cicd.service;
+
+import com.peraton.cicd.model.Build;
+import com.peraton.cicd.model.Repository;
+import com.peraton.cicd.repository.RepositoryRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Writes sync batches to the application's database, including while another transaction
+ * inserts a build for the same commit, as a webhook or backfill would.
+ */
+@SpringBootTest(properties = "scheduler.enabled=false")
+class BuildSyncWriterTest {
+
+    @Autowired
+    private BuildSyncWriter buildSyncWriter;
+    @Autowired
+    private RepositoryRepository repositoryRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Repository repository;
+
+    @BeforeEach
+    void setUp() {
+        String name = "sync-writer-" + UUID.randomUUID().toString().substring(0, 8);
+        repository = new Repository();
+        repository.setName(name);
+        repository.setGithubUrl("https://github.com/acme/" + name);
+        repository = repositoryRepository.save(repository);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM builds WHERE repository_id = ?", repository.getId());
+        jdbcTemplate.update("DELETE FROM repository_sync_state WHERE repository_id = ?", repository.getId());
+        jdbcTemplate.update("DELETE FROM repositories WHERE id = ?", repository.getId());
+    }
+
+    @Test
+    void insertsNewCommitsAndSkipsStoredOnes() {
+        insertBuild("sha-1");
+
+        int inserted = buildSyncWriter.write(batch("sha-1", "sha-2", "sha-3"));
+
+        assertThat(inserted).isEqualTo(2);
+        assertThat(buildCount("sha-1")).isEqualTo(1);
+        assertThat(buildCount("sha-2")).isEqualTo(1);
+        assertThat(buildCount("sha-3")).isEqualTo(1);
+    }
+
+    @Test
+    void skipsCommitInsertedByConcurrentTransaction() throws Exception {
+        CountDownLatch inserted = new CountDownLatch(1);
+        CountDownLatch commit = new CountDownLatch(1);
+        CompletableFuture<Void> webhook = CompletableFuture.runAsync(() ->
+                new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                    insertBuild("sha-1");
+                    inserted.countDown();
+                    await(commit);
+                }));
+        assertThat(inserted.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // Doesn't see the uncommitted build when it checks, then waits on the unique index
+        CompletableFuture<Integer> sync = CompletableFuture.supplyAsync(() ->
+                buildSyncWriter.write(batch("sha-1", "sha-2")));
+        awaitLockWait();
+        commit.countDown();
+
+        webhook.get(5, TimeUnit.SECONDS);
+        assertThat(sync.get(5, TimeUnit.SECONDS)).isEqualTo(1);
+        assertThat(buildCount("sha-1")).isEqualTo(1);
+        assertThat(buildCount("sha-2")).isEqualTo(1);
+    }
+
+    @Test
+    void insertsCommitOnceWhenBatchRepeatsIt() {
+        assertThat(buildSyncWriter.write(batch("sha-1", "sha-1"))).isEqualTo(1);
+        assertThat(buildCount("sha-1")).isEqualTo(1);
+    }
+
+    private BuildSyncWriter.SyncBatch batch(String... commitShas) {
+        List<Build> builds = Arrays.stream(commitShas).map(sha -> {
+            Build build = new Build();
+            build.setCommitSha(sha);
+            build.setStatus(Build.BuildStatus.SUCCESS);
+            build.setStartedAt(LocalDateTime.of(2025, 10, 25, 10, 30));
+            return build;
+        }).toList();
+        return new BuildSyncWriter.SyncBatch(repository.getId(), builds, null, null, null, null, null);
+    }
+
+    private void insertBuild(String commitSha) {
+        jdbcTemplate.update("INSERT INTO builds (id, repository_id, status, commit_sha, started_at) "
+                + "VALUES (nextval('builds_id_seq'), ?, 'IN_PROGRESS', ?, now())", repository.getId(), commitSha);
+    }
+
+    private long buildCount(String commitSha) {
+        return jdbcTemplate.queryForObject("SELECT count(*) FROM builds WHERE repository_id = ? AND commit_sha = ?",
+                Long.class, repository.getId(), commitSha);
+    }
+
+    private void awaitLockWait() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (System.currentTimeMillis() < deadline) {
+            Long waiting = jdbcTemplate.queryForObject("SELECT count(*) FROM pg_stat_activity "
+                    + "WHERE datname = current_database() AND wait_event_type = 'Lock'", Long.class);
+            if (waiting != null && waiting > 0) {
+                return;
+            }
+            Thread.sleep(20);
+        }
+        throw new AssertionError("Sync never waited for the concurrent insert");
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
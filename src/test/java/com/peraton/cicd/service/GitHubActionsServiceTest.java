@@ -0,0 +1,119 @@
+package com.peraton.cicd.service;
+
+import com.peraton.cicd.dto.github.WorkflowRun;
+import com.peraton.cicd.model.Repository;
+import com.peraton.cicd.repository.RepositoryRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Applies webhook workflow runs against the application's database
+ */
+@SpringBootTest(properties = "scheduler.enabled=false")
+class GitHubActionsServiceTest {
+
+    @Autowired
+    private GitHubActionsService gitHubActionsService;
+    @Autowired
+    private RepositoryRepository repositoryRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Repository repository;
+
+    @BeforeEach
+    void setUp() {
+        String name = "webhook-" + UUID.randomUUID().toString().substring(0, 8);
+        repository = new Repository();
+        repository.setName(name);
+        repository.setGithubUrl("https://github.com/acme/" + name);
+        repository = repositoryRepository.save(repository);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM builds WHERE repository_id = ?", repository.getId());
+        jdbcTemplate.update("DELETE FROM repositories WHERE id = ?", repository.getId());
+    }
+
+    @Test
+    void createsBuildForNewCommit() {
+        assertThat(gitHubActionsService.applyWorkflowRun(repository.getId(), run(41L, "queued", null))).isTrue();
+
+        assertThat(jdbcTemplate.queryForObject("SELECT status FROM builds WHERE repository_id = ? AND commit_sha = 'sha-1'",
+                String.class, repository.getId())).isEqualTo("PENDING");
+    }
+
+    @Test
+    void appliesRunToBuildStoredByConcurrentSync() throws Exception {
+        CountDownLatch inserted = new CountDownLatch(1);
+        CountDownLatch commit = new CountDownLatch(1);
+        CompletableFuture<Void> sync = CompletableFuture.runAsync(() ->
+                new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                    jdbcTemplate.update("INSERT INTO builds (id, repository_id, status, commit_sha, run_id, started_at) "
+                            + "VALUES (nextval('builds_id_seq'), ?, 'IN_PROGRESS', 'sha-1', 41, now())", repository.getId());
+                    inserted.countDown();
+                    await(commit);
+                }));
+        assertThat(inserted.await(5, TimeUnit.SECONDS)).isTrue();
+
+        CompletableFuture<Boolean> webhook = CompletableFuture.supplyAsync(() ->
+                gitHubActionsService.applyWorkflowRun(repository.getId(), run(41L, "completed", "success")));
+        awaitLockWait();
+        commit.countDown();
+
+        sync.get(5, TimeUnit.SECONDS);
+        assertThat(webhook.get(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(jdbcTemplate.queryForList("SELECT status FROM builds WHERE repository_id = ? AND commit_sha = 'sha-1'",
+                String.class, repository.getId())).containsExactly("SUCCESS");
+    }
+
+    private static WorkflowRun run(Long id, String status, String conclusion) {
+        WorkflowRun run = new WorkflowRun();
+        run.setId(id);
+        run.setHeadSha("sha-1");
+        run.setHeadBranch("main");
+        run.setStatus(status);
+        run.setConclusion(conclusion);
+        run.setRunStartedAt(LocalDateTime.of(2025, 10, 25, 10, 30));
+        run.setUpdatedAt(LocalDateTime.of(2025, 10, 25, 10, 35));
+        return run;
+    }
+
+    private void awaitLockWait() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (System.currentTimeMillis() < deadline) {
+            Long waiting = jdbcTemplate.queryForObject("SELECT count(*) FROM pg_stat_activity "
+                    + "WHERE datname = current_database() AND wait_event_type = 'Lock'", Long.class);
+            if (waiting != null && waiting > 0) {
+                return;
+            }
+            Thread.sleep(20);
+        }
+        throw new AssertionError("Webhook never waited for the concurrent insert");
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.peraton.cicd.service;
+
+import com.peraton.cicd.config.GitHubApiConfig;
+import com.peraton.cicd.exception.GitHubApiException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class GitHubCircuitBreakerTest {
+
+    private static final URI RUN_LISTING = URI.create("https://api.github.com/repos/acme/web/actions/runs?per_page=100");
+    private static final URI SINGLE_RUN = URI.create("https://api.github.com/repos/acme/web/actions/runs/42");
+
+    private GitHubCircuitBreaker circuitBreaker;
+
+    @BeforeEach
+    void setUp() {
+        GitHubApiConfig config = new GitHubApiConfig();
+        config.getResilience().setRepositoryFailureThreshold(3);
+        config.getResilience().setRepositoryOpenMs(600000);
+        circuitBreaker = new GitHubCircuitBreaker(config);
+    }
+
+    @Test
+    void repeatedNotFoundOnRunListingOpensRepositoryBreaker() {
+        for (int i = 0; i < 3; i++) {
+            circuitBreaker.beforeRequest(RUN_LISTING);
+            circuitBreaker.onResponse(RUN_LISTING, 404, false);
+        }
+
+        assertThatThrownBy(() -> circuitBreaker.beforeRequest(RUN_LISTING))
+                .isInstanceOf(GitHubApiException.class)
+                .hasMessageContaining("repository acme/web");
+    }
+
+    @Test
+    void notFoundOnSingleRunDoesNotCount() {
+        for (int i = 0; i < 5; i++) {
+            circuitBreaker.beforeRequest(SINGLE_RUN);
+            circuitBreaker.onResponse(SINGLE_RUN, 404, false);
+        }
+
+        assertThatCode(() -> circuitBreaker.beforeRequest(RUN_LISTING)).doesNotThrowAnyException();
+    }
+
+    @Test
+    void rateLimitedForbiddenDoesNotCount() {
+        for (int i = 0; i < 5; i++) {
+            circuitBreaker.beforeRequest(RUN_LISTING);
+            circuitBreaker.onResponse(RUN_LISTING, 403, true);
+        }
+
+        assertThatCode(() -> circuitBreaker.beforeRequest(RUN_LISTING)).doesNotThrowAnyException();
+    }
+}
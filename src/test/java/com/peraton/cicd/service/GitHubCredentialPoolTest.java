@@ -0,0 +1,152 @@
+package com.peraton.cicd.service;
+
+import com.peraton.cicd.config.GitHubApiConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+
+import java.net.URI;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GitHubCredentialPoolTest {
+
+    private static final String REPOSITORY = "acme/web";
+    private static final URI RUN_LISTING = URI.create("https://api.github.com/repos/acme/web/actions/runs");
+    private static final URI SINGLE_RUN = URI.create("https://api.github.com/repos/acme/web/actions/runs/41");
+
+    private GitHubRateLimitGovernor governor;
+    private GitHubCredentialPool pool;
+
+    @BeforeEach
+    void setUp() {
+        GitHubApiConfig config = new GitHubApiConfig();
+        config.setTokens(List.of("first", "second", " "));
+        governor = new GitHubRateLimitGovernor(config);
+        pool = new GitHubCredentialPool(config, governor);
+    }
+
+    @Test
+    void ignoresBlankTokens() {
+        assertThat(pool.size()).isEqualTo(2);
+    }
+
+    @Test
+    void picksTokenWithMostHeadroom() {
+        remaining("token-1", 100);
+        remaining("token-2", 4000);
+
+        assertThat(pool.acquire(REPOSITORY).id()).isEqualTo("token-2");
+    }
+
+    @Test
+    void countsRequestsInFlight() {
+        GitHubCredentialPool.Credential first = pool.acquire("acme/one");
+        GitHubCredentialPool.Credential second = pool.acquire("acme/two");
+
+        assertThat(second).isNotEqualTo(first);
+
+        pool.release(first, URI.create("https://api.github.com/repos/acme/one"), 200);
+        assertThat(pool.acquire("acme/three")).isEqualTo(first);
+    }
+
+    @Test
+    void pinsRepositoryToTokenOfFirstSuccess() {
+        remaining("token-1", 100);
+        remaining("token-2", 4000);
+        GitHubCredentialPool.Credential credential = pool.acquire(REPOSITORY);
+        pool.release(credential, RUN_LISTING, 200);
+
+        // Now token-1 is the least loaded, but the repository stays on its token
+        remaining("token-1", 4500);
+
+        assertThat(pool.acquire(REPOSITORY).id()).isEqualTo("token-2");
+        assertThat(pool.acquire("acme/other").id()).isEqualTo("token-1");
+    }
+
+    @Test
+    void leavesPinnedTokenWithoutHeadroom() {
+        remaining("token-1", 100);
+        remaining("token-2", 4000);
+        pool.release(pool.acquire(REPOSITORY), RUN_LISTING, 200);
+
+        remaining("token-2", 0);
+
+        assertThat(pool.acquire(REPOSITORY).id()).isEqualTo("token-1");
+    }
+
+    @Test
+    void avoidsTokenDeniedAccessToRepository() {
+        remaining("token-1", 100);
+        remaining("token-2", 4000);
+        GitHubCredentialPool.Credential denied = pool.acquire(REPOSITORY);
+        pool.release(denied, RUN_LISTING, 404);
+
+        assertThat(pool.acquire(REPOSITORY).id()).isEqualTo("token-1");
+        // Other repositories still use it
+        assertThat(pool.acquire("acme/other").id()).isEqualTo("token-2");
+    }
+
+    @Test
+    void keepsTokenWhenSingleRunIsNotFound() {
+        remaining("token-1", 100);
+        remaining("token-2", 4000);
+        pool.release(pool.acquire(REPOSITORY), RUN_LISTING, 200);
+
+        // The run was deleted, the repository is still there
+        pool.release(pool.acquire(REPOSITORY), SINGLE_RUN, 404);
+        pool.release(pool.acquire(REPOSITORY), SINGLE_RUN, 404);
+
+        assertThat(pool.isDeniedByEveryToken("acme", "web")).isFalse();
+        assertThat(pool.acquire(REPOSITORY).id()).isEqualTo("token-2");
+    }
+
+    @Test
+    void startsOverOnceEveryTokenWasDenied() {
+        remaining("token-1", 100);
+        remaining("token-2", 4000);
+        pool.release(pool.acquire(REPOSITORY), RUN_LISTING, 404);
+        pool.release(pool.acquire(REPOSITORY), RUN_LISTING, 404);
+
+        assertThat(pool.acquire(REPOSITORY).id()).isEqualTo("token-2");
+    }
+
+    @Test
+    void reportsRepositoryDeniedByEveryToken() {
+        pool.release(pool.acquire(REPOSITORY), RUN_LISTING, 404);
+        assertThat(pool.isDeniedByEveryToken("acme", "web")).isFalse();
+
+        pool.release(pool.acquire(REPOSITORY), RUN_LISTING, 404);
+        assertThat(pool.isDeniedByEveryToken("Acme", "Web")).isTrue();
+    }
+
+    @Test
+    void forgetsDenialAfterSuccess() {
+        GitHubApiConfig config = new GitHubApiConfig();
+        config.setToken("only");
+        GitHubCredentialPool single = new GitHubCredentialPool(config, governor);
+
+        single.release(single.acquire(REPOSITORY), RUN_LISTING, 404);
+        assertThat(single.isDeniedByEveryToken("acme", "web")).isTrue();
+
+        single.release(single.acquire(REPOSITORY), RUN_LISTING, 200);
+        assertThat(single.isDeniedByEveryToken("acme", "web")).isFalse();
+    }
+
+    @Test
+    void keysRepositoriesCaseInsensitively() {
+        assertThat(GitHubCredentialPool.repositoryKey(URI.create("https://api.github.com/repos/Acme/Web/actions/runs")))
+                .isEqualTo("acme/web");
+        assertThat(GitHubCredentialPool.repositoryKey(URI.create("https://api.github.com/rate_limit"))).isNull();
+    }
+
+    private void remaining(String credentialId, int remaining) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("X-RateLimit-Limit", "5000");
+        headers.set("X-RateLimit-Remaining", String.valueOf(remaining));
+        headers.set("X-RateLimit-Reset", String.valueOf(Instant.now().getEpochSecond() + 3600));
+        governor.onResponse(credentialId, headers, 200);
+    }
+}
@@ -0,0 +1,62 @@
+package com.peraton.cicd.service;
+
+import com.peraton.cicd.model.EtagCacheEntry;
+import com.peraton.cicd.repository.EtagCacheEntryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class GitHubEtagCacheTest {
+
+    private static final String FIRST_SYNC =
+            "https://api.github.com/repos/acme/web/actions/runs?created=>=2025-10-25T10:00:00Z&per_page=100";
+    private static final String NEXT_SYNC =
+            "https://api.github.com/repos/acme/web/actions/runs?created=>=2025-10-25T10:30:00Z&per_page=100";
+
+    private EtagCacheEntryRepository repository;
+    private GitHubEtagCache cache;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(EtagCacheEntryRepository.class);
+        when(repository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        cache = new GitHubEtagCache(repository);
+    }
+
+    @Test
+    void returnsValidatorsForSameUrl() {
+        cache.store(FIRST_SYNC, "\"abc\"", null);
+
+        assertThat(cache.lookup(FIRST_SYNC)).map(EtagCacheEntry::getEtag).contains("\"abc\"");
+    }
+
+    @Test
+    void replacesEntryWhenWatermarkMoves() {
+        cache.store(FIRST_SYNC, "\"abc\"", null);
+        cache.store(NEXT_SYNC, "\"def\"", null);
+
+        ArgumentCaptor<EtagCacheEntry> saved = ArgumentCaptor.forClass(EtagCacheEntry.class);
+        verify(repository, times(2)).save(saved.capture());
+        assertThat(saved.getAllValues()).extracting(EtagCacheEntry::getCacheKey)
+                .containsOnly("https://api.github.com/repos/acme/web/actions/runs");
+
+        // Validators of another query are never sent
+        assertThat(cache.lookup(FIRST_SYNC)).isEmpty();
+        assertThat(cache.lookup(NEXT_SYNC)).map(EtagCacheEntry::getEtag).contains("\"def\"");
+    }
+
+    @Test
+    void keepsRepositoriesApart() {
+        cache.store(FIRST_SYNC, "\"abc\"", null);
+        cache.store("https://api.github.com/repos/acme/api/actions/runs?per_page=100", "\"xyz\"", null);
+
+        assertThat(cache.lookup(FIRST_SYNC)).isPresent();
+    }
+}
@@ -0,0 +1,155 @@
+package com.peraton.cicd.service;
+
+import com.peraton.cicd.config.GitHubApiConfig;
+import com.peraton.cicd.dto.github.BuildStatusDto;
+import com.peraton.cicd.exception.GitHubApiException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.hamcrest.Matchers.allOf;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.not;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.content;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+class GitHubGraphQlClientTest {
+
+    private MockRestServiceServer server;
+    private GitHubGraphQlClient client;
+
+    @BeforeEach
+    void setUp() {
+        RestTemplate restTemplate = new RestTemplate();
+        server = MockRestServiceServer.bindTo(restTemplate).build();
+
+        GitHubApiConfig config = new GitHubApiConfig();
+        config.setBaseUrl("https://github.test");
+        client = new GitHubGraphQlClient(restTemplate, config);
+    }
+
+    @Test
+    void mapsAliasesBackToRepositories() {
+        server.expect(requestTo("https://github.test/graphql"))
+                .andExpect(method(HttpMethod.POST))
+                // The invalid name is left out and doesn't use up an alias
+                .andExpect(content().string(allOf(
+                        containsString("r0: repository(owner: \\\"acme\\\", name: \\\"web\\\")"),
+                        containsString("r1: repository(owner: \\\"acme\\\", name: \\\"api\\\")"),
+                        containsString("r2: repository(owner: \\\"acme\\\", name: \\\"gone\\\")"),
+                        not(containsString("r3:")))))
+                .andRespond(withSuccess("""
+                        {
+                          "data": {
+                            "rateLimit": {"cost": 1, "remaining": 4999, "resetAt": "2025-10-25T11:00:00Z"},
+                            "r0": {
+                              "name": "web",
+                              "nameWithOwner": "acme/web",
+                              "defaultBranchRef": {
+                                "name": "main",
+                                "target": {
+                                  "oid": "a1b2c3",
+                                  "message": "Fix build",
+                                  "author": {"name": "Octo Cat"},
+                                  "checkSuites": {"nodes": [
+                                    {"status": "COMPLETED", "conclusion": "FAILURE",
+                                     "workflowRun": {"databaseId": 41, "runNumber": 7, "url": "https://github.com/acme/web/actions/runs/41",
+                                                     "createdAt": "2025-10-25T10:00:00Z", "updatedAt": "2025-10-25T10:05:00Z"}},
+                                    {"status": "IN_PROGRESS", "conclusion": null,
+                                     "workflowRun": {"databaseId": 42, "runNumber": 8, "url": "https://github.com/acme/web/actions/runs/42",
+                                                     "createdAt": "2025-10-25T10:30:00Z", "updatedAt": "2025-10-25T10:31:00Z"}}
+                                  ]}
+                                }
+                              }
+                            },
+                            "r1": {
+                              "name": "api",
+                              "nameWithOwner": "acme/api",
+                              "defaultBranchRef": {"name": "main", "target": {"oid": "d4e5f6", "checkSuites": {"nodes": []}}}
+                            },
+                            "r2": null
+                          },
+                          "errors": [
+                            {"type": "NOT_FOUND", "path": ["r2"], "message": "Could not resolve to a Repository with the name 'acme/gone'."}
+                          ]
+                        }
+                        """, MediaType.APPLICATION_JSON));
+
+        Map<String, Optional<BuildStatusDto>> results =
+                client.getLatestRuns(List.of("acme/web", "not valid/repo", "acme/api", "acme/gone"));
+
+        server.verify();
+        assertThat(results).containsOnlyKeys("acme/web", "acme/api");
+        assertThat(results.get("acme/api")).isEmpty();
+
+        BuildStatusDto latest = results.get("acme/web").orElseThrow();
+        assertThat(latest.getRunId()).isEqualTo(42L);
+        assertThat(latest.getRunNumber()).isEqualTo(8);
+        assertThat(latest.getRepositoryName()).isEqualTo("web");
+        assertThat(latest.getBranch()).isEqualTo("main");
+        assertThat(latest.getCommitSha()).isEqualTo("a1b2c3");
+        assertThat(latest.getStatus()).isEqualTo("in_progress");
+        assertThat(latest.getConclusion()).isNull();
+        assertThat(latest.getStartedAt()).isEqualTo(LocalDateTime.of(2025, 10, 25, 10, 30));
+        assertThat(latest.getHtmlUrl()).isEqualTo("https://github.com/acme/web/actions/runs/42");
+        assertThat(latest.getCommitMessage()).isEqualTo("Fix build");
+        assertThat(latest.getAuthorName()).isEqualTo("Octo Cat");
+    }
+
+    @Test
+    void skipsCheckSuitesWithoutWorkflowRun() {
+        server.expect(requestTo("https://github.test/graphql"))
+                .andRespond(withSuccess("""
+                        {
+                          "data": {
+                            "r0": {
+                              "name": "web",
+                              "defaultBranchRef": {
+                                "name": "main",
+                                "target": {
+                                  "oid": "a1b2c3",
+                                  "checkSuites": {"nodes": [
+                                    {"status": "COMPLETED", "conclusion": "SUCCESS",
+                                     "workflowRun": {"databaseId": 41, "runNumber": 7}},
+                                    {"status": "QUEUED", "conclusion": null, "workflowRun": null}
+                                  ]}
+                                }
+                              }
+                            }
+                          }
+                        }
+                        """, MediaType.APPLICATION_JSON));
+
+        BuildStatusDto latest = client.getLatestRuns(List.of("acme/web")).get("acme/web").orElseThrow();
+
+        assertThat(latest.getRunId()).isEqualTo(41L);
+        assertThat(latest.getStatus()).isEqualTo("completed");
+        assertThat(latest.getConclusion()).isEqualTo("success");
+        assertThat(latest.getStartedAt()).isNull();
+    }
+
+    @Test
+    void failsWhenQueryReturnsNoData() {
+        server.expect(requestTo("https://github.test/graphql"))
+                .andRespond(withSuccess("""
+                        {"errors": [{"message": "Something went wrong while executing your query."}]}
+                        """, MediaType.APPLICATION_JSON));
+
+        assertThatThrownBy(() -> client.getLatestRuns(List.of("acme/web")))
+                .isInstanceOf(GitHubApiException.class)
+                .hasMessageContaining("Something went wrong")
+                .satisfies(e -> assertThat(((GitHubApiException) e).getStatusCode()).isEqualTo(502));
+    }
+}
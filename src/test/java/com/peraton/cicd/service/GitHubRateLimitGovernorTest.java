@@ -0,0 +1,133 @@
+package com.peraton.cicd.service;
+
+import com.peraton.cicd.config.GitHubApiConfig;
+import com.peraton.cicd.exception.GitHubApiException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class GitHubRateLimitGovernorTest {
+
+    private static final String CREDENTIAL = "token-1";
+
+    private GitHubRateLimitGovernor governor;
+
+    @BeforeEach
+    void setUp() {
+        GitHubApiConfig config = new GitHubApiConfig();
+        config.getRateLimit().setInteractiveReserve(100);
+        config.getRateLimit().setBackgroundBurst(3);
+        // Fail instead of waiting, so a test sees every time the governor would pace
+        config.getRateLimit().setMaxBackgroundWaitMs(0);
+        config.getRateLimit().setMaxInteractiveWaitMs(0);
+        governor = new GitHubRateLimitGovernor(config);
+    }
+
+    @Test
+    void letsRequestsThroughWhileBudgetIsUnknown() {
+        for (int i = 0; i < 10; i++) {
+            assertThatCode(() -> background(() -> governor.acquire(CREDENTIAL))).doesNotThrowAnyException();
+        }
+        assertThat(governor.headroom(CREDENTIAL)).isEqualTo(Long.MAX_VALUE);
+    }
+
+    @Test
+    void pacesBackgroundRequestsAfterBurst() {
+        // About one background request every 4 seconds, so the bucket can't refill mid-test on a slow machine
+        governor.onResponse(CREDENTIAL, rateLimitHeaders(1100, 3600), 200);
+
+        background(() -> {
+            for (int i = 0; i < 3; i++) {
+                governor.acquire(CREDENTIAL);
+            }
+        });
+
+        assertThatThrownBy(() -> background(() -> governor.acquire(CREDENTIAL)))
+                .isInstanceOf(GitHubApiException.class)
+                .hasMessageContaining("background");
+    }
+
+    @Test
+    void refillsBucketOverTime() throws InterruptedException {
+        governor.onResponse(CREDENTIAL, rateLimitHeaders(1100, 10), 200);
+        background(() -> {
+            for (int i = 0; i < 3; i++) {
+                governor.acquire(CREDENTIAL);
+            }
+        });
+
+        // At 100 tokens per second the bucket holds a few tokens again after 50 ms
+        Thread.sleep(50);
+
+        assertThatCode(() -> background(() -> governor.acquire(CREDENTIAL))).doesNotThrowAnyException();
+    }
+
+    @Test
+    void refundsTokenOfNotModifiedResponse() {
+        governor.onResponse(CREDENTIAL, rateLimitHeaders(1100, 3600), 200);
+        background(() -> {
+            for (int i = 0; i < 3; i++) {
+                governor.acquire(CREDENTIAL);
+            }
+            governor.onResponse(CREDENTIAL, new HttpHeaders(), 304);
+        });
+
+        assertThatCode(() -> background(() -> governor.acquire(CREDENTIAL))).doesNotThrowAnyException();
+    }
+
+    @Test
+    void keepsInteractiveReserveFromBackgroundRequests() {
+        governor.onResponse(CREDENTIAL, rateLimitHeaders(100, 3600), 200);
+
+        assertThatThrownBy(() -> background(() -> governor.acquire(CREDENTIAL)))
+                .isInstanceOf(GitHubApiException.class);
+        assertThat(backgroundHeadroom()).isZero();
+
+        assertThatCode(() -> governor.acquire(CREDENTIAL)).doesNotThrowAnyException();
+        assertThat(governor.headroom(CREDENTIAL)).isEqualTo(99);
+    }
+
+    @Test
+    void blocksEveryPriorityDuringRetryAfter() {
+        HttpHeaders headers = rateLimitHeaders(4000, 3600);
+        headers.set(HttpHeaders.RETRY_AFTER, "60");
+        governor.onResponse(CREDENTIAL, headers, 403);
+
+        assertThatThrownBy(() -> governor.acquire(CREDENTIAL))
+                .isInstanceOf(GitHubApiException.class)
+                .hasMessageContaining("interactive");
+        assertThat(governor.headroom(CREDENTIAL)).isZero();
+    }
+
+    @Test
+    void keepsSeparateBudgetsPerCredential() {
+        governor.onResponse(CREDENTIAL, rateLimitHeaders(0, 3600), 200);
+
+        assertThatThrownBy(() -> governor.acquire(CREDENTIAL)).isInstanceOf(GitHubApiException.class);
+        assertThatCode(() -> governor.acquire("token-2")).doesNotThrowAnyException();
+    }
+
+    private static HttpHeaders rateLimitHeaders(int remaining, long secondsUntilReset) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("X-RateLimit-Limit", "5000");
+        headers.set("X-RateLimit-Remaining", String.valueOf(remaining));
+        headers.set("X-RateLimit-Reset", String.valueOf(Instant.now().getEpochSecond() + secondsUntilReset));
+        return headers;
+    }
+
+    private static void background(Runnable task) {
+        GitHubRequestContext.background(task).run();
+    }
+
+    private long backgroundHeadroom() {
+        long[] headroom = new long[1];
+        background(() -> headroom[0] = governor.headroom(CREDENTIAL));
+        return headroom[0];
+    }
+}
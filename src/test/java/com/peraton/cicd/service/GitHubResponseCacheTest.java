@@ -0,0 +1,208 @@
+package com.peraton.cicd.service;
+
+import com.peraton.cicd.config.GitHubApiConfig;
+import com.peraton.cicd.exception.GitHubApiException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class GitHubResponseCacheTest {
+
+    private static final GitHubResponseCache.Key KEY =
+            new GitHubResponseCache.Key("latest", "acme", "web", null, null, null);
+
+    private GitHubApiConfig config;
+    private ThreadPoolTaskExecutor refreshExecutor;
+    private GitHubResponseCache cache;
+
+    @BeforeEach
+    void setUp() {
+        config = new GitHubApiConfig();
+        config.getCache().setTtlMs(10000);
+        config.getCache().setStaleMs(10000);
+        config.getCache().setMaxEntries(2);
+
+        refreshExecutor = new ThreadPoolTaskExecutor();
+        refreshExecutor.setCorePoolSize(1);
+        refreshExecutor.initialize();
+        cache = new GitHubResponseCache(config, refreshExecutor);
+    }
+
+    @AfterEach
+    void tearDown() {
+        refreshExecutor.shutdown();
+    }
+
+    @Test
+    void servesFreshEntryWithoutLoading() {
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get(KEY, () -> "v" + loads.incrementAndGet());
+        String value = cache.get(KEY, () -> "v" + loads.incrementAndGet());
+
+        assertThat(value).isEqualTo("v1");
+        assertThat(loads).hasValue(1);
+        assertThat(cache.getStats().getHits()).isEqualTo(1);
+        assertThat(cache.getStats().getMisses()).isEqualTo(1);
+    }
+
+    @Test
+    void servesStaleEntryWhileRefreshingInBackground() throws InterruptedException {
+        config.getCache().setTtlMs(50);
+        cache.get(KEY, () -> "v1");
+        Thread.sleep(80);
+
+        CountDownLatch refreshed = new CountDownLatch(1);
+        String stale = cache.get(KEY, () -> {
+            refreshed.countDown();
+            return "v2";
+        });
+
+        assertThat(stale).isEqualTo("v1");
+        assertThat(refreshed.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(cache.getStats().getStaleHits()).isEqualTo(1);
+        // Long enough that the refreshed entry can't go stale again while checked
+        config.getCache().setTtlMs(10000);
+        awaitValue("v2");
+    }
+
+    @Test
+    void keepsStaleEntryWhenRefreshFails() throws InterruptedException {
+        config.getCache().setTtlMs(50);
+        cache.get(KEY, () -> "v1");
+        Thread.sleep(80);
+
+        CountDownLatch attempted = new CountDownLatch(1);
+        String stale = cache.get(KEY, () -> {
+            attempted.countDown();
+            throw new GitHubApiException("GitHub unavailable", 502);
+        });
+
+        assertThat(stale).isEqualTo("v1");
+        assertThat(attempted.await(5, TimeUnit.SECONDS)).isTrue();
+        long deadline = System.currentTimeMillis() + 5000;
+        while (cache.getStats().getLoadFailures() == 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        config.getCache().setTtlMs(10000);
+        assertThat(cache.getStats().getLoadFailures()).isEqualTo(1);
+        assertThat(cache.<String>get(KEY, () -> "v2")).isEqualTo("v1");
+    }
+
+    @Test
+    void reloadsEntryPastStaleWindow() throws InterruptedException {
+        config.getCache().setTtlMs(20);
+        config.getCache().setStaleMs(20);
+        cache.get(KEY, () -> "v1");
+        Thread.sleep(60);
+
+        assertThat(cache.<String>get(KEY, () -> "v2")).isEqualTo("v2");
+        assertThat(cache.getStats().getMisses()).isEqualTo(2);
+    }
+
+    @Test
+    void coalescesConcurrentMisses() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger loads = new AtomicInteger();
+        ExecutorService callers = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                results.add(callers.submit(() -> cache.get(KEY, () -> {
+                    loads.incrementAndGet();
+                    await(release);
+                    return "v1";
+                })));
+            }
+
+            long deadline = System.currentTimeMillis() + 5000;
+            while (cache.getStats().getCoalesced() < 3 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            release.countDown();
+
+            for (Future<String> result : results) {
+                assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("v1");
+            }
+            assertThat(loads).hasValue(1);
+            assertThat(cache.getStats().getCoalesced()).isEqualTo(3);
+        } finally {
+            callers.shutdownNow();
+        }
+    }
+
+    @Test
+    void doesNotCacheFailures() {
+        assertThatThrownBy(() -> cache.get(KEY, () -> {
+            throw new GitHubApiException("Not Found", 404);
+        })).isInstanceOf(GitHubApiException.class);
+
+        assertThat(cache.<String>get(KEY, () -> "v1")).isEqualTo("v1");
+        assertThat(cache.getStats().getLoadFailures()).isEqualTo(1);
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedEntry() {
+        GitHubResponseCache.Key api = new GitHubResponseCache.Key("latest", "acme", "api", null, null, null);
+        GitHubResponseCache.Key docs = new GitHubResponseCache.Key("latest", "acme", "docs", null, null, null);
+        cache.get(KEY, () -> "web");
+        cache.get(api, () -> "api");
+        cache.get(KEY, () -> "web again");
+        cache.get(docs, () -> "docs");
+
+        assertThat(cache.<String>get(KEY, () -> "web reloaded")).isEqualTo("web");
+        assertThat(cache.<String>get(api, () -> "api reloaded")).isEqualTo("api reloaded");
+        assertThat(cache.getStats().getEvictions()).isEqualTo(2);
+    }
+
+    @Test
+    void matchesOwnerAndRepositoryCaseInsensitively() {
+        cache.get(KEY, () -> "v1");
+
+        GitHubResponseCache.Key upperCase = new GitHubResponseCache.Key("latest", "Acme", "Web", null, null, null);
+        assertThat(cache.<String>get(upperCase, () -> "v2")).isEqualTo("v1");
+    }
+
+    @Test
+    void bypassesCacheWhenDisabled() {
+        config.getCache().setTtlMs(0);
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get(KEY, loads::incrementAndGet);
+        cache.get(KEY, loads::incrementAndGet);
+
+        assertThat(loads).hasValue(2);
+    }
+
+    private void awaitValue(String expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (System.currentTimeMillis() < deadline) {
+            if (expected.equals(cache.get(KEY, () -> "unexpected load"))) {
+                return;
+            }
+            Thread.sleep(10);
+        }
+        assertThat(cache.<String>get(KEY, () -> "unexpected load")).isEqualTo(expected);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,214 @@
+package com.peraton.cicd.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.peraton.cicd.dto.github.WorkflowRun;
+import com.peraton.cicd.dto.github.WorkflowRunsResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Decodes a workflow runs page in GitHub's documented format, with every field GitHub
+ * sends: run 1 is complete, run 2 is in progress with null fields and a pull request,
+ * run 3 is queued.
+ */
+class WorkflowRunDecoderTest {
+
+    private ObjectMapper objectMapper;
+    private WorkflowRunDecoder decoder;
+    private byte[] page;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        // Configured like the application's mapper
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        decoder = new WorkflowRunDecoder(objectMapper);
+        try (InputStream resource = getClass().getResourceAsStream("/github/workflow-runs.json")) {
+            page = resource.readAllBytes();
+        }
+    }
+
+    @Test
+    void decodesMappedFields() throws IOException {
+        List<WorkflowRun> runs = new ArrayList<>();
+        Integer totalCount = decoder.decodeRuns(new ByteArrayInputStream(page), runs::add);
+
+        assertThat(totalCount).isEqualTo(3);
+        assertThat(runs).extracting(WorkflowRun::getId).containsExactly(30433642L, 30433643L, 30433644L);
+
+        WorkflowRun run = runs.get(0);
+        assertThat(run.getName()).isEqualTo("Build");
+        assertThat(run.getHeadBranch()).isEqualTo("master");
+        assertThat(run.getStatus()).isEqualTo("completed");
+        assertThat(run.getConclusion()).isEqualTo("success");
+        assertThat(run.getWorkflowId()).isEqualTo(159038L);
+        assertThat(run.getRunNumber()).isEqualTo(562);
+        assertThat(run.getRunAttempt()).isEqualTo(1);
+        assertThat(run.getCreatedAt()).isEqualTo(LocalDateTime.of(2020, 1, 22, 19, 33, 8));
+        assertThat(run.getHtmlUrl()).isEqualTo("https://github.com/octo-org/octo-repo/actions/runs/30433642");
+        assertThat(run.getRepository().getFullName()).isEqualTo("octocat/Hello-World");
+        assertThat(run.getHeadCommit().getMessage()).isEqualTo("Create linter.yaml");
+        assertThat(run.getHeadCommit().getAuthor().getName()).isEqualTo("Octo Cat");
+    }
+
+    @Test
+    void matchesDatabindMapping() throws IOException {
+        List<WorkflowRun> runs = new ArrayList<>();
+        decoder.decodeRuns(new ByteArrayInputStream(page), runs::add);
+
+        WorkflowRunsResponse bound = objectMapper.readValue(page, WorkflowRunsResponse.class);
+        assertThat(runs).isEqualTo(bound.getWorkflowRuns());
+    }
+
+    @Test
+    void leavesNullFieldsUnsetAndReadsPastSkippedObjects() throws IOException {
+        List<WorkflowRun> runs = new ArrayList<>();
+        decoder.decodeRuns(new ByteArrayInputStream(page), runs::add);
+
+        WorkflowRun run = runs.get(1);
+        assertThat(run.getConclusion()).isNull();
+        assertThat(run.getHeadBranch()).isNull();
+        assertThat(run.getRunStartedAt()).isNull();
+        assertThat(run.getHeadCommit().getMessage()).isNull();
+        assertThat(run.getHeadCommit().getAuthor()).isNull();
+        // Fields after pull_requests, actor and referenced_workflows are still read
+        assertThat(run.getUpdatedAt()).isEqualTo(LocalDateTime.of(2020, 1, 22, 19, 36, 1));
+        assertThat(run.getLogsUrl()).isNotNull();
+        assertThat(run.getRepository().getId()).isEqualTo(1296269L);
+    }
+
+    @Test
+    void stopsReadingWhenConsumerReturnsFalse() throws IOException {
+        CountingInputStream body = new CountingInputStream(new ByteArrayInputStream(repeatRuns(100)));
+        List<WorkflowRun> runs = new ArrayList<>();
+
+        Integer totalCount = decoder.decodeRuns(body, run -> {
+            runs.add(run);
+            return runs.size() < 2;
+        });
+
+        assertThat(runs).hasSize(2);
+        assertThat(totalCount).isEqualTo(3);
+        assertThat(body.bytesRead).isLessThan(body.length / 10);
+    }
+
+    @Test
+    void parsesFixedWidthTimestamps() {
+        assertThat(WorkflowRunDecoder.parseTimestamp("2025-10-25T10:30:00Z"))
+                .isEqualTo(LocalDateTime.of(2025, 10, 25, 10, 30, 0));
+        assertThat(WorkflowRunDecoder.parseTimestamp("2024-02-29T23:59:59Z"))
+                .isEqualTo(LocalDateTime.of(2024, 2, 29, 23, 59, 59));
+    }
+
+    @Test
+    void fallsBackForOtherTimestampFormats() {
+        assertThat(WorkflowRunDecoder.parseTimestamp("2025-10-25T10:30:00.250Z"))
+                .isEqualTo(LocalDateTime.of(2025, 10, 25, 10, 30, 0, 250_000_000));
+        assertThat(WorkflowRunDecoder.parseTimestamp("2025-10-25T10:30:00"))
+                .isEqualTo(LocalDateTime.of(2025, 10, 25, 10, 30, 0));
+    }
+
+    @Test
+    void returnsNullForInvalidTimestamps() {
+        assertThat(WorkflowRunDecoder.parseTimestamp("2025-02-30T10:30:00Z")).isNull();
+        assertThat(WorkflowRunDecoder.parseTimestamp("2025-13-01T10:30:00Z")).isNull();
+        assertThat(WorkflowRunDecoder.parseTimestamp("2025-1x-25T10:30:00Z")).isNull();
+        assertThat(WorkflowRunDecoder.parseTimestamp("not a timestamp")).isNull();
+        assertThat(WorkflowRunDecoder.parseTimestamp("")).isNull();
+    }
+
+    /**
+     * Time and allocation per page against databind, on a page of 100 runs:
+     * mvn test -Dtest=WorkflowRunDecoderTest -Dbenchmark=true
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void compareWithDatabind() throws IOException {
+        byte[] fullPage = repeatRuns(100);
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        int iterations = 2000;
+
+        for (int round = 1; round <= 3; round++) {
+            long runs = 0;
+            long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+            long start = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                runs += objectMapper.readValue(fullPage, WorkflowRunsResponse.class).getWorkflowRuns().size();
+            }
+            long databindNanos = System.nanoTime() - start;
+            long databindBytes = threads.getThreadAllocatedBytes(threadId) - allocatedBefore;
+
+            allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+            start = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                List<WorkflowRun> decoded = new ArrayList<>(100);
+                decoder.decodeRuns(new ByteArrayInputStream(fullPage), decoded::add);
+                runs += decoded.size();
+            }
+            long streamingNanos = System.nanoTime() - start;
+            long streamingBytes = threads.getThreadAllocatedBytes(threadId) - allocatedBefore;
+
+            System.out.printf("Round %d: databind %.3f ms, %d KB per page | streaming %.3f ms, %d KB per page (%d runs)%n",
+                    round, databindNanos / 1e6 / iterations, databindBytes / 1024 / iterations,
+                    streamingNanos / 1e6 / iterations, streamingBytes / 1024 / iterations, runs);
+        }
+    }
+
+    /**
+     * The test page with its first run repeated to the given number of runs
+     */
+    private byte[] repeatRuns(int count) throws IOException {
+        ObjectNode listing = (ObjectNode) objectMapper.readTree(page);
+        ArrayNode runs = (ArrayNode) listing.get("workflow_runs");
+        ObjectNode template = (ObjectNode) runs.get(0);
+        runs.removeAll();
+        for (int i = 0; i < count; i++) {
+            runs.add(template.deepCopy().put("id", 1000L + i));
+        }
+        return objectMapper.writeValueAsBytes(listing);
+    }
+
+    private static final class CountingInputStream extends FilterInputStream {
+
+        private final int length;
+        private long bytesRead;
+
+        private CountingInputStream(ByteArrayInputStream in) {
+            super(in);
+            this.length = in.available();
+        }
+
+        @Override
+        public int read() throws IOException {
+            int value = super.read();
+            if (value >= 0) {
+                bytesRead++;
+            }
+            return value;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int read = super.read(buffer, offset, length);
+            if (read > 0) {
+                bytesRead += read;
+            }
+            return read;
+        }
+    }
+}